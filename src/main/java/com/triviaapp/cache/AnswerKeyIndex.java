@@ -0,0 +1,87 @@
+package com.triviaapp.cache;
+
+import com.triviaapp.model.Question;
+import com.triviaapp.model.SessionQuestion;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable answer keys and points of one session's questions, so scoring an answer is an in-memory comparison.
+ *
+ * Keys are stored in {@link #canonical(String) canonical form} and compared with the submitted answer in the same
+ * form. Like {@link IntDictionary}, lookups binary-search a sorted {@code int[]} of question ids.
+ */
+public final class AnswerKeyIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final int[] questionIds;
+    private final String[] keys;
+    private final int[] points;
+
+    /** Index of the questions in {@code pack}, e.g. {@code SessionDAO.findSessionQuestionPack}. */
+    public AnswerKeyIndex(List<SessionQuestion> pack) {
+        int n = pack.size();
+        Question[] byId = new Question[n];
+        for (int i = 0; i < n; i++) {
+            byId[i] = pack.get(i).getQuestion();
+        }
+        Arrays.sort(byId, (a, b) -> Integer.compare(a.getQuestionId(), b.getQuestionId()));
+        questionIds = new int[n];
+        keys = new String[n];
+        points = new int[n];
+        for (int i = 0; i < n; i++) {
+            questionIds[i] = byId[i].getQuestionId();
+            keys[i] = canonical(byId[i].getAnswersKey());
+            points[i] = byId[i].getPoints();
+        }
+    }
+
+    /**
+     * The form answers and keys are compared in: Unicode NFKC (full-width and other compatibility characters
+     * become their plain equivalents), accents and other combining marks removed, case folded, and surrounding
+     * whitespace trimmed. So a full-width letter, a missing accent or different case does not make an answer wrong.
+     * Null stays null.
+     */
+    public static String canonical(String s) {
+        if (s == null) {
+            return null;
+        }
+        if (isAscii(s)) {
+            // Option letters and most typed answers: nothing to decompose or fold beyond A-Z.
+            return s.toLowerCase(Locale.ROOT).strip();
+        }
+        String t = Normalizer.normalize(s, Normalizer.Form.NFKC);
+        t = COMBINING_MARKS.matcher(Normalizer.normalize(t, Normalizer.Form.NFD)).replaceAll("");
+        // Upper then lower folds the cases a plain toLowerCase misses, e.g. sharp s and "SS", or final sigma.
+        t = t.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        return Normalizer.normalize(t, Normalizer.Form.NFC).strip();
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+
+    /** True when {@code answer} matches the question's key; false also for a question not in this session. */
+    public boolean isCorrect(int questionId, String answer) {
+        int i = Arrays.binarySearch(questionIds, questionId);
+        return i >= 0 && answer != null && canonical(answer).equals(keys[i]);
+    }
+
+    /** The score for answering {@code questionId} correctly, or 0 when it is not in this session. */
+    public int points(int questionId) {
+        int i = Arrays.binarySearch(questionIds, questionId);
+        return i >= 0 ? points[i] : 0;
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+}
@@ -0,0 +1,68 @@
+package com.triviaapp.cache;
+
+/**
+ * Point-in-time snapshot of a {@link LoadingCache}'s counters.
+ */
+public final class CacheStats {
+
+    private final String name;
+    private final int size;
+    private final long weight;
+    private final long maxWeight;
+    private final long hits;
+    private final long misses;
+    private final long coalescedLoads;
+    private final long loadFailures;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+
+    CacheStats(String name, int size, long weight, long maxWeight, long hits, long misses, long coalescedLoads,
+               long loadFailures, long evictions, long expirations, long invalidations) {
+        this.name = name;
+        this.size = size;
+        this.weight = weight;
+        this.maxWeight = maxWeight;
+        this.hits = hits;
+        this.misses = misses;
+        this.coalescedLoads = coalescedLoads;
+        this.loadFailures = loadFailures;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+    }
+
+    public String getName() { return name; }
+
+    /** Entries currently cached. */
+    public int getSize() { return size; }
+
+    /** Sum of the entries' weights. */
+    public long getWeight() { return weight; }
+
+    public long getMaxWeight() { return maxWeight; }
+
+    public long getHits() { return hits; }
+
+    /** Lookups that had to load, including those that waited on another caller's load. */
+    public long getMisses() { return misses; }
+
+    /** Misses that waited for a load already in flight instead of querying themselves. */
+    public long getCoalescedLoads() { return coalescedLoads; }
+
+    public long getLoadFailures() { return loadFailures; }
+
+    /** Entries dropped to stay within the weight limit. */
+    public long getEvictions() { return evictions; }
+
+    /** Entries dropped because their time to live ran out. */
+    public long getExpirations() { return expirations; }
+
+    /** Entries dropped by an explicit invalidate, e.g. after an update. */
+    public long getInvalidations() { return invalidations; }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
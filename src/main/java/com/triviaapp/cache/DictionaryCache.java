@@ -0,0 +1,168 @@
+package com.triviaapp.cache;
+
+import com.triviaapp.config.AppConfig;
+import com.triviaapp.dao.impl.CategoryDAOImpl;
+import com.triviaapp.dao.impl.RoleDAOImpl;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of the categories and roles tables.
+ *
+ * Both tables are tiny and change rarely, yet category names are looked up for every question broadcast and
+ * role names for every login. They are loaded once at startup, then reloaded in the background every
+ * DICTIONARY_REFRESH_MS and whenever an admin asks for it (or a lookup finds an id that is not loaded yet).
+ * A reload builds new dictionaries and swaps them in atomically; readers never block and never see a half-loaded
+ * table. When a reload fails the previous contents stay in use.
+ */
+public final class DictionaryCache {
+
+    /** Both dictionaries, replaced together on refresh. */
+    private static final class Snapshot {
+        final IntDictionary categories;
+        final IntDictionary roles;
+        final long loadedAt;
+
+        Snapshot(IntDictionary categories, IntDictionary roles, long loadedAt) {
+            this.categories = categories;
+            this.roles = roles;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static volatile Snapshot snapshot;
+    private static ScheduledExecutorService scheduler;
+    private static boolean loadAttempted;
+
+    private static final AtomicBoolean refreshPending = new AtomicBoolean();
+    private static final AtomicLong refreshes = new AtomicLong();
+    private static final AtomicLong refreshFailures = new AtomicLong();
+
+    private DictionaryCache() {
+    }
+
+    /**
+     * Load both tables and schedule periodic refreshes. Called when the web application starts; failures are
+     * logged and the lookups fall back to the database until a refresh succeeds.
+     */
+    public static synchronized void start() {
+        loadAttempted = true;
+        try {
+            refresh();
+        } catch (SQLException e) {
+            System.err.println("Dictionary cache: initial load failed: " + e.getMessage());
+        }
+        long interval = AppConfig.current().getDictionaryRefreshMillis();
+        if (scheduler == null && interval > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "dictionary-refresh");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(DictionaryCache::refreshQuietly, interval, interval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        snapshot = null;
+        loadAttempted = false;
+    }
+
+    /**
+     * Reload both tables now and swap them in.
+     */
+    public static void refresh() throws SQLException {
+        try {
+            IntDictionary categories = IntDictionary.of(new CategoryDAOImpl().findAllCategories());
+            IntDictionary roles = IntDictionary.of(new RoleDAOImpl().findAllRoles());
+            snapshot = new Snapshot(categories, roles, System.currentTimeMillis());
+            refreshes.incrementAndGet();
+        } catch (SQLException | RuntimeException e) {
+            refreshFailures.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Ask for a background refresh, e.g. after a lookup missed. Requests made while one is pending are merged.
+     */
+    public static void requestRefresh() {
+        ScheduledExecutorService s;
+        synchronized (DictionaryCache.class) {
+            s = scheduler;
+        }
+        if (s != null && refreshPending.compareAndSet(false, true)) {
+            try {
+                s.execute(() -> {
+                    refreshPending.set(false);
+                    refreshQuietly();
+                });
+            } catch (RuntimeException e) {
+                refreshPending.set(false);
+            }
+        }
+    }
+
+    /** Category id -> name in display order, or null when the table could not be loaded. */
+    public static IntDictionary categories() {
+        Snapshot s = loaded();
+        return s == null ? null : s.categories;
+    }
+
+    /** Role id -> name, or null when the table could not be loaded. */
+    public static IntDictionary roles() {
+        Snapshot s = loaded();
+        return s == null ? null : s.roles;
+    }
+
+    /** Wall-clock time of the last successful load, 0 if none. */
+    public static long getLastRefreshMillis() {
+        Snapshot s = snapshot;
+        return s == null ? 0 : s.loadedAt;
+    }
+
+    public static long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    public static long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    /**
+     * The current snapshot. Loads it on first use when {@link #start()} has not run (command line tools); after
+     * a failed load, lookups go to the database until the next scheduled or requested refresh succeeds.
+     */
+    private static Snapshot loaded() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (DictionaryCache.class) {
+                s = snapshot;
+                if (s == null && !loadAttempted) {
+                    loadAttempted = true;
+                    refreshQuietly();
+                    s = snapshot;
+                }
+            }
+        }
+        return s;
+    }
+
+    private static void refreshQuietly() {
+        try {
+            refresh();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Dictionary cache: refresh failed, keeping previous contents: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.triviaapp.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable id -> name table for small reference tables such as categories and roles.
+ *
+ * Lookups binary-search a sorted {@code int[]}, so they neither box the key nor hash. The original iteration
+ * order (e.g. display order) is kept for {@link #asMap()}.
+ */
+public final class IntDictionary {
+
+    private final int[] ids;
+    private final String[] names;
+    private final Map<Integer, String> ordered;
+
+    private IntDictionary(int[] ids, String[] names, Map<Integer, String> ordered) {
+        this.ids = ids;
+        this.names = names;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Build a dictionary from {@code source}, keeping its iteration order for {@link #asMap()}.
+     */
+    public static IntDictionary of(Map<Integer, String> source) {
+        int n = source.size();
+        int[] ids = new int[n];
+        int i = 0;
+        for (Integer id : source.keySet()) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+        String[] names = new String[n];
+        for (i = 0; i < n; i++) {
+            names[i] = source.get(ids[i]);
+        }
+        return new IntDictionary(ids, names, Collections.unmodifiableMap(new LinkedHashMap<>(source)));
+    }
+
+    /** The name for {@code id}, or null when there is no such id. */
+    public String get(int id) {
+        int i = Arrays.binarySearch(ids, id);
+        return i >= 0 ? names[i] : null;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /** Read-only id -> name view in the source's order. */
+    public Map<Integer, String> asMap() {
+        return ordered;
+    }
+}
@@ -0,0 +1,265 @@
+package com.triviaapp.cache;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded read-through cache for rows loaded by a DAO.
+ *
+ * Entries are evicted least-recently-used first once the summed weight of all entries exceeds the limit, and
+ * expire a fixed time after they were loaded. Concurrent misses on the same key share a single load: the first
+ * caller queries, later callers wait for its result, so a lobby full of players asking for the same question
+ * costs one query. {@link #invalidate(Object)} also cancels the effect of a load that is still running, so a
+ * value read before an update is never stored after it.
+ *
+ * Null results are returned but not cached.
+ */
+public final class LoadingCache<K, V> {
+
+    /** Loads the value for a key; may return null when there is none. */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    /** Loads the values for several keys at once; keys without a value are left out of the result. */
+    @FunctionalInterface
+    public interface BulkLoader<K, V> {
+        Map<K, V> loadAll(List<K> keys) throws SQLException;
+    }
+
+    /** Approximate size of a value in bytes; only relative sizes matter. */
+    @FunctionalInterface
+    public interface Weigher<V> {
+        int weigh(V value);
+    }
+
+    private static final List<LoadingCache<?, ?>> ALL = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final Weigher<? super V> weigher;
+
+    // Guarded by "this". Access order, so iteration starts at the least recently used entry.
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalWeight;
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    // Guarded by "this". Bumped by every invalidation; a bulk load only stores its results if none ran meanwhile.
+    private long invalidationEpoch;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxWeight upper bound on the summed weights of all entries
+     * @param ttlMillis how long an entry stays valid after loading; 0 means until evicted or invalidated
+     */
+    public LoadingCache(String name, long maxWeight, long ttlMillis, Weigher<? super V> weigher) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.weigher = weigher;
+        ALL.add(this);
+    }
+
+    /**
+     * Return the cached value for {@code key}, loading it with {@code loader} on a miss.
+     */
+    public V get(K key, Loader<? super K, ? extends V> loader) throws SQLException {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            coalesced.increment();
+            return await(inFlight);
+        }
+        try {
+            V value = loader.load(key);
+            // Only store the value if nobody invalidated the key while we were loading. The check and the store
+            // happen under the lock invalidate() takes, so an invalidation cannot slip in between them.
+            synchronized (this) {
+                if (loading.remove(key, mine) && value != null) {
+                    put(key, value);
+                }
+            }
+            mine.complete(value);
+            return value;
+        } catch (SQLException | RuntimeException e) {
+            loading.remove(key, mine);
+            loadFailures.increment();
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Return the cached values for {@code keys}, loading all misses with a single {@code loader} call. Keys with
+     * no value are absent from the result. Unlike {@link #get(Object, Loader)}, concurrent bulk misses are not
+     * coalesced.
+     */
+    public Map<K, V> getAll(Collection<K> keys, BulkLoader<K, V> loader) throws SQLException {
+        Map<K, V> out = new HashMap<>(keys.size() * 2);
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            V cached = getIfPresent(key);
+            if (cached != null) {
+                out.put(key, cached);
+            } else if (!out.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        hits.add(out.size());
+        if (missing.isEmpty()) return out;
+        misses.add(missing.size());
+
+        long epoch;
+        synchronized (this) {
+            epoch = invalidationEpoch;
+        }
+        Map<K, V> loaded;
+        try {
+            loaded = loader.loadAll(missing);
+        } catch (SQLException | RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        }
+        for (Map.Entry<K, V> e : loaded.entrySet()) {
+            if (e.getValue() == null) continue;
+            out.put(e.getKey(), e.getValue());
+            putIfNotInvalidatedSince(epoch, e.getKey(), e.getValue());
+        }
+        return out;
+    }
+
+    /** The cached value, or null when absent or expired. Does not count as a hit or miss. */
+    public synchronized V getIfPresent(K key) {
+        Entry<V> e = entries.get(key);
+        if (e == null) return null;
+        if (ttlNanos > 0 && System.nanoTime() - e.loadedAt > ttlNanos) {
+            removeEntry(key, e);
+            expirations.increment();
+            return null;
+        }
+        return e.value;
+    }
+
+    /** Drop {@code key} and discard the result of any load of it that is still running. */
+    public void invalidate(K key) {
+        synchronized (this) {
+            loading.remove(key);
+            invalidationEpoch++;
+            Entry<V> e = entries.get(key);
+            if (e != null) {
+                removeEntry(key, e);
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            loading.clear();
+            invalidationEpoch++;
+            invalidations.add(entries.size());
+            entries.clear();
+            totalWeight = 0;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CacheStats stats() {
+        int size;
+        long weight;
+        synchronized (this) {
+            size = entries.size();
+            weight = totalWeight;
+        }
+        return new CacheStats(name, size, weight, maxWeight, hits.sum(), misses.sum(), coalesced.sum(),
+                loadFailures.sum(), evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    /** Stats of every cache created in this JVM, for the admin metrics page. */
+    public static List<CacheStats> allStats() {
+        List<CacheStats> out = new ArrayList<>();
+        for (LoadingCache<?, ?> c : ALL) {
+            out.add(c.stats());
+        }
+        return out;
+    }
+
+    private synchronized void put(K key, V value) {
+        int weight = Math.max(1, weigher.weigh(value));
+        Entry<V> old = entries.put(key, new Entry<>(value, weight, System.nanoTime()));
+        if (old != null) totalWeight -= old.weight;
+        totalWeight += weight;
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (totalWeight > maxWeight && it.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = it.next();
+            it.remove();
+            totalWeight -= eldest.getValue().weight;
+            evictions.increment();
+        }
+    }
+
+    private synchronized void putIfNotInvalidatedSince(long epoch, K key, V value) {
+        if (invalidationEpoch == epoch) put(key, value);
+    }
+
+    private void removeEntry(K key, Entry<V> e) {
+        entries.remove(key);
+        totalWeight -= e.weight;
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a cache load", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) throw (SQLException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new SQLException(cause);
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final int weight;
+        final long loadedAt;
+
+        Entry(V value, int weight, long loadedAt) {
+            this.value = value;
+            this.weight = weight;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
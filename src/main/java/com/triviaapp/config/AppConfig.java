@@ -0,0 +1,444 @@
+package com.triviaapp.config;
+
+import com.triviaapp.db.PoolConfig;
+import io.github.cdimascio.dotenv.Dotenv;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable, typed snapshot of the application configuration.
+ *
+ * Values are read once from (highest precedence first) JVM system properties, the .env file and environment
+ * variables, validated, and published as a single snapshot. Code on the request path calls {@link #current()},
+ * which is a plain volatile read. {@link #reload()} builds a new snapshot and swaps it in atomically; an invalid
+ * reload keeps the previous snapshot.
+ */
+public final class AppConfig {
+
+    private static final String WHISPER_DEV_MODE = "dev";
+    private static final int WHISPER_LOCAL_PORT = 8888;
+
+    public static final String DB_PROFILE_MYSQL = "mysql";
+    public static final String DB_PROFILE_EMBEDDED = "embedded";
+    private static final String EMBEDDED_DEFAULT_URL =
+            "jdbc:h2:mem:trivia;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final AtomicReference<AppConfig> CURRENT = new AtomicReference<>();
+
+    // --- database ---
+    private final String dbProfile;
+    private final String jdbcUrl;
+    private final String jdbcUser;
+    private final String jdbcPass;
+    private final PoolConfig poolConfig;
+    private final List<String> replicaUrls;
+    private final String replicaUser;
+    private final String replicaPass;
+    private final long replicaStickyMillis;
+    private final int daoAsyncConcurrency;
+    private final boolean dbMigrate;
+    private final boolean explainCheck;
+    private final boolean dbMetrics;
+    private final long slowQueryMillis;
+    private final int slowQueryLogSize;
+    private final long questionCacheMaxBytes;
+    private final long questionCacheTtlMillis;
+    private final long dictionaryRefreshMillis;
+    private final int importChunkSize;
+    private final int answerQueueCapacity;
+    private final int answerBatchMaxRows;
+    private final long answerBatchMaxDelayMillis;
+    private final long answerEnqueueTimeoutMillis;
+    private final int bcryptCost;
+    private final int passwordHashThreads;
+    private final int passwordHashQueue;
+    private final long loginThrottleWindowMillis;
+    private final int loginThrottleMaxPerIp;
+    private final int loginThrottleMaxPerEmail;
+    private final int loginThrottleMaxKeys;
+
+    // --- AI backends ---
+    private final String whisperMode;
+    private final URI whisperBaseUri;
+    private final String whisperHfApiKey;
+    private final URI m2m100BaseUri;
+    private final URI moondreamBaseUri;
+    private final int aiConnectTimeoutMillis;
+    private final int aiReadTimeoutMillis;
+
+    // --- runtime ---
+    private final boolean configWatch;
+
+    private AppConfig(Reader r) {
+        dbProfile = r.string("DB_PROFILE", DB_PROFILE_MYSQL);
+        if (DB_PROFILE_EMBEDDED.equals(dbProfile)) {
+            jdbcUrl = r.string("EMBEDDED_DB_URL", EMBEDDED_DEFAULT_URL);
+            jdbcUser = "sa";
+            jdbcPass = "";
+        } else {
+            if (!DB_PROFILE_MYSQL.equals(dbProfile)) {
+                r.error("DB_PROFILE must be '" + DB_PROFILE_MYSQL + "' or '" + DB_PROFILE_EMBEDDED + "' but was '"
+                        + dbProfile + "'");
+            }
+            jdbcUrl = r.string("JDBC_URL", null);
+            jdbcUser = r.string("JDBC_USER", null);
+            jdbcPass = r.string("JDBC_PASS", null);
+        }
+
+        PoolConfig d = PoolConfig.defaults();
+        int poolMin = r.integer("DB_POOL_MIN", d.getMinSize(), 0, 1_000);
+        int poolMax = r.integer("DB_POOL_MAX", d.getMaxSize(), 1, 1_000);
+        long idleTimeout = r.longValue("DB_POOL_IDLE_TIMEOUT_MS", d.getIdleTimeoutMillis(), 0);
+        long maxLifetime = r.longValue("DB_POOL_MAX_LIFETIME_MS", d.getMaxLifetimeMillis(), 0);
+        long borrowTimeout = r.longValue("DB_POOL_BORROW_TIMEOUT_MS", d.getBorrowTimeoutMillis(), 1);
+        int validationTimeout = r.integer("DB_POOL_VALIDATION_TIMEOUT_S", d.getValidationTimeoutSeconds(), 1, 60);
+        int statementCacheSize = r.integer("DB_STMT_CACHE_SIZE", d.getStatementCacheSize(), 0, 10_000);
+        if (poolMin > poolMax) {
+            r.error("DB_POOL_MIN (" + poolMin + ") must not exceed DB_POOL_MAX (" + poolMax + ")");
+            poolMin = poolMax;
+        }
+        poolConfig = new PoolConfig(poolMin, poolMax, idleTimeout, maxLifetime, borrowTimeout, validationTimeout,
+                d.getValidationIntervalMillis(), d.getHousekeepingIntervalMillis(), statementCacheSize);
+
+        // The embedded database is a single in-process instance; replicas only apply to MySQL.
+        replicaUrls = isEmbeddedDatabase() ? Collections.<String>emptyList() : r.list("JDBC_REPLICA_URLS");
+        replicaUser = r.string("JDBC_REPLICA_USER", jdbcUser);
+        replicaPass = r.string("JDBC_REPLICA_PASS", jdbcPass);
+        replicaStickyMillis = r.longValue("DB_REPLICA_STICKY_MS", 2_000, 0);
+
+        int asyncConcurrency = r.integer("DAO_ASYNC_CONCURRENCY", 0, 0, 10_000);
+        daoAsyncConcurrency = asyncConcurrency > 0 ? asyncConcurrency : poolConfig.getMaxSize();
+        dbMigrate = r.bool("DB_MIGRATE", true);
+        explainCheck = r.bool("DB_EXPLAIN_CHECK", true);
+        dbMetrics = r.bool("DB_METRICS", true);
+        slowQueryMillis = r.longValue("DB_SLOW_QUERY_MS", 500, 0);
+        slowQueryLogSize = r.integer("DB_SLOW_QUERY_LOG_SIZE", 100, 1, 10_000);
+        questionCacheMaxBytes = r.longValue("QUESTION_CACHE_MAX_BYTES", 32L * 1024 * 1024, 0);
+        questionCacheTtlMillis = r.longValue("QUESTION_CACHE_TTL_MS", 600_000, 0);
+        dictionaryRefreshMillis = r.longValue("DICTIONARY_REFRESH_MS", 300_000, 0);
+        importChunkSize = r.integer("IMPORT_CHUNK_SIZE", 5_000, 1, 100_000);
+        answerQueueCapacity = r.integer("ANSWER_QUEUE_CAPACITY", 10_000, 1, 1_000_000);
+        answerBatchMaxRows = r.integer("ANSWER_BATCH_MAX_ROWS", 500, 1, 10_000);
+        answerBatchMaxDelayMillis = r.longValue("ANSWER_BATCH_MAX_DELAY_MS", 20, 0);
+        answerEnqueueTimeoutMillis = r.longValue("ANSWER_ENQUEUE_TIMEOUT_MS", 1_000, 0);
+        bcryptCost = r.integer("BCRYPT_COST", 10, 4, 20);
+        int hashThreads = r.integer("PASSWORD_HASH_THREADS", 0, 0, 1_000);
+        passwordHashThreads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        passwordHashQueue = r.integer("PASSWORD_HASH_QUEUE", 64, 1, 100_000);
+        loginThrottleWindowMillis = r.longValue("LOGIN_THROTTLE_WINDOW_MS", 60_000, 1_000);
+        loginThrottleMaxPerIp = r.integer("LOGIN_THROTTLE_MAX_PER_IP", 50, 0, 65_535);
+        loginThrottleMaxPerEmail = r.integer("LOGIN_THROTTLE_MAX_PER_EMAIL", 5, 0, 65_535);
+        loginThrottleMaxKeys = r.integer("LOGIN_THROTTLE_MAX_KEYS", 100_000, 16, 10_000_000);
+
+        String mode = r.string("WHISPER_MODE", WHISPER_DEV_MODE);
+        whisperMode = mode;
+        if (WHISPER_DEV_MODE.equals(mode)) {
+            whisperBaseUri = URI.create("http://localhost:" + WHISPER_LOCAL_PORT);
+        } else {
+            String host = r.string("WHISPER_HOST", null);
+            int port = r.integer("WHISPER_PORT", -1, 1, 65_535);
+            if (host == null || port == -1) {
+                r.error("WHISPER_HOST and WHISPER_PORT are required when WHISPER_MODE is '" + mode + "'");
+            }
+            whisperBaseUri = URI.create(String.format("https://%s:%s", host, port));
+        }
+        whisperHfApiKey = r.string("WHISPER_HF_API_KEY", null);
+
+        m2m100BaseUri = r.uri("M2M100_URL", "http://localhost:8892");
+        moondreamBaseUri = r.uri("MOONDREAM_URL", "http://localhost:8082");
+        aiConnectTimeoutMillis = r.integer("AI_CONNECT_TIMEOUT_MS", 5_000, 1, 600_000);
+        aiReadTimeoutMillis = r.integer("AI_READ_TIMEOUT_MS", 30_000, 1, 3_600_000);
+
+        configWatch = r.bool("CONFIG_WATCH", false);
+    }
+
+    /**
+     * The active snapshot. Loaded on first use if {@link #initialize()} has not run yet.
+     */
+    public static AppConfig current() {
+        AppConfig c = CURRENT.get();
+        if (c == null) {
+            synchronized (AppConfig.class) {
+                c = CURRENT.get();
+                if (c == null) {
+                    c = load();
+                    CURRENT.set(c);
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Load the configuration eagerly at startup so misconfiguration fails the deployment instead of the first
+     * request.
+     *
+     * @throws IllegalStateException when any value is missing or malformed
+     */
+    public static AppConfig initialize() {
+        return current();
+    }
+
+    /**
+     * Re-read all sources and atomically replace the snapshot. The previous snapshot is kept when the new values
+     * do not validate.
+     *
+     * @return the snapshot in effect after the call
+     */
+    public static AppConfig reload() {
+        try {
+            AppConfig fresh = load();
+            CURRENT.set(fresh);
+            System.out.println("Configuration reloaded");
+            return fresh;
+        } catch (IllegalStateException e) {
+            System.err.println("Configuration reload rejected, keeping previous values: " + e.getMessage());
+            return current();
+        }
+    }
+
+    private static AppConfig load() {
+        Reader reader = new Reader(loadDotenv());
+        AppConfig config = new AppConfig(reader);
+        if (!reader.errors.isEmpty()) {
+            throw new IllegalStateException("Invalid configuration: " + String.join("; ", reader.errors));
+        }
+        return config;
+    }
+
+    private static Dotenv loadDotenv() {
+        try {
+            return Dotenv.configure().ignoreIfMissing().load();
+        } catch (Throwable ignored) {
+            return null;
+        }
+    }
+
+    // --- accessors --------------------------------------------------------
+
+    /** "mysql" (default) or "embedded" for an in-process H2 database in MySQL mode. */
+    public String getDbProfile() { return dbProfile; }
+
+    /** True when DB_PROFILE=embedded; the schema is created automatically on first connection. */
+    public boolean isEmbeddedDatabase() { return DB_PROFILE_EMBEDDED.equals(dbProfile); }
+
+    /** JDBC URL of the primary database, or null when not configured. */
+    public String getJdbcUrl() { return jdbcUrl; }
+
+    public String getJdbcUser() { return jdbcUser; }
+
+    public String getJdbcPass() { return jdbcPass; }
+
+    /** True when JDBC_URL, JDBC_USER and JDBC_PASS are all present (always true for the embedded profile). */
+    public boolean hasDatabaseCredentials() {
+        if (isEmbeddedDatabase()) return notEmpty(jdbcUrl);
+        return notEmpty(jdbcUrl) && notEmpty(jdbcUser) && notEmpty(jdbcPass);
+    }
+
+    public PoolConfig getPoolConfig() { return poolConfig; }
+
+    /** JDBC URLs of read replicas (JDBC_REPLICA_URLS, comma separated); empty when reads go to the primary. */
+    public List<String> getReplicaUrls() { return replicaUrls; }
+
+    public String getReplicaUser() { return replicaUser; }
+
+    public String getReplicaPass() { return replicaPass; }
+
+    /** How long reads stay on the primary after the same request wrote. */
+    public long getReplicaStickyMillis() { return replicaStickyMillis; }
+
+    /** Maximum DAO calls running at once on the async executor (DAO_ASYNC_CONCURRENCY, default DB_POOL_MAX). */
+    public int getDaoAsyncConcurrency() { return daoAsyncConcurrency; }
+
+    /** Whether pending schema migrations are applied to the primary at startup. */
+    public boolean isDbMigrate() { return dbMigrate; }
+
+    /** Whether registered statements are EXPLAINed at startup to warn about full table scans. */
+    public boolean isExplainCheck() { return explainCheck; }
+
+    /** Whether per-statement JDBC metrics are collected. */
+    public boolean isDbMetrics() { return dbMetrics; }
+
+    /** Executions slower than this are written to the slow-query log; 0 disables it. */
+    public long getSlowQueryMillis() { return slowQueryMillis; }
+
+    public int getSlowQueryLogSize() { return slowQueryLogSize; }
+
+    /** Memory budget of the question-by-id cache; 0 disables it. */
+    public long getQuestionCacheMaxBytes() { return questionCacheMaxBytes; }
+
+    /** How long a cached question is served before it is re-read; 0 keeps it until evicted. */
+    public long getQuestionCacheTtlMillis() { return questionCacheTtlMillis; }
+
+    /** Interval between background reloads of the category and role dictionaries; 0 disables them. */
+    public long getDictionaryRefreshMillis() { return dictionaryRefreshMillis; }
+
+    /** Rows committed per transaction by the bulk question import. */
+    public int getImportChunkSize() { return importChunkSize; }
+
+    /** Answers waiting for the group-commit writer before submitters are held back. */
+    public int getAnswerQueueCapacity() { return answerQueueCapacity; }
+
+    /** Most answers written in one group commit. */
+    public int getAnswerBatchMaxRows() { return answerBatchMaxRows; }
+
+    /** How long the writer waits for more answers after the first one of a batch arrives. */
+    public long getAnswerBatchMaxDelayMillis() { return answerBatchMaxDelayMillis; }
+
+    /** How long a submitter waits for room in a full answer queue before the answer is refused. */
+    public long getAnswerEnqueueTimeoutMillis() { return answerEnqueueTimeoutMillis; }
+
+    /** BCrypt cost factor (log2 rounds) of new password hashes; older hashes are upgraded on login. */
+    public int getBcryptCost() { return bcryptCost; }
+
+    /** Threads that hash and verify passwords; the number of cores unless configured. */
+    public int getPasswordHashThreads() { return passwordHashThreads; }
+
+    /** Hashing requests that may wait for a thread before logins and sign-ups are answered with 503. */
+    public int getPasswordHashQueue() { return passwordHashQueue; }
+
+    /** Length of the sliding window failed logins are counted in. */
+    public long getLoginThrottleWindowMillis() { return loginThrottleWindowMillis; }
+
+    /** Failed logins from one IP per window before its attempts are refused; 0 disables the limit. */
+    public int getLoginThrottleMaxPerIp() { return loginThrottleMaxPerIp; }
+
+    /** Failed logins for one email per window before its attempts are refused; 0 disables the limit. */
+    public int getLoginThrottleMaxPerEmail() { return loginThrottleMaxPerEmail; }
+
+    /** IPs, and separately emails, whose failures are remembered at once. */
+    public int getLoginThrottleMaxKeys() { return loginThrottleMaxKeys; }
+
+    public String getWhisperMode() { return whisperMode; }
+
+    public boolean isWhisperDevMode() { return WHISPER_DEV_MODE.equals(whisperMode); }
+
+    /** Base URI of the Whisper service, e.g. http://localhost:8888 */
+    public URI getWhisperBaseUri() { return whisperBaseUri; }
+
+    public String getWhisperHfApiKey() { return whisperHfApiKey; }
+
+    /** Base URI of the M2M100 translation service, e.g. http://localhost:8892 */
+    public URI getM2m100BaseUri() { return m2m100BaseUri; }
+
+    /** Base URI of the Moondream caption service, e.g. http://localhost:8082 */
+    public URI getMoondreamBaseUri() { return moondreamBaseUri; }
+
+    public int getAiConnectTimeoutMillis() { return aiConnectTimeoutMillis; }
+
+    public int getAiReadTimeoutMillis() { return aiReadTimeoutMillis; }
+
+    /** Whether the .env file should be watched and reloaded on change. */
+    public boolean isConfigWatch() { return configWatch; }
+
+    private static boolean notEmpty(String s) {
+        return s != null && !s.isEmpty();
+    }
+
+    /**
+     * Looks keys up across all sources and collects validation errors instead of failing on the first one.
+     */
+    private static final class Reader {
+        private final Dotenv dotenv;
+        private final List<String> errors = new ArrayList<>();
+
+        Reader(Dotenv dotenv) {
+            this.dotenv = dotenv;
+        }
+
+        String raw(String key) {
+            String value = System.getProperty(key);
+            if (notEmpty(value)) return value.trim();
+            if (dotenv != null) {
+                try {
+                    value = dotenv.get(key);
+                } catch (Exception ignored) {
+                    value = null;
+                }
+                if (notEmpty(value)) return value.trim();
+            }
+            value = System.getenv(key);
+            return notEmpty(value) ? value.trim() : null;
+        }
+
+        String string(String key, String fallback) {
+            String value = raw(key);
+            return value == null ? fallback : value;
+        }
+
+        int integer(String key, int fallback, int min, int max) {
+            String value = raw(key);
+            if (value == null) return fallback;
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed < min || parsed > max) {
+                    error(key + " must be between " + min + " and " + max + " but was " + parsed);
+                    return fallback;
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                error(key + " must be an integer but was '" + value + "'");
+                return fallback;
+            }
+        }
+
+        long longValue(String key, long fallback, long min) {
+            String value = raw(key);
+            if (value == null) return fallback;
+            try {
+                long parsed = Long.parseLong(value);
+                if (parsed < min) {
+                    error(key + " must be >= " + min + " but was " + parsed);
+                    return fallback;
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                error(key + " must be an integer but was '" + value + "'");
+                return fallback;
+            }
+        }
+
+        List<String> list(String key) {
+            String value = raw(key);
+            List<String> out = new ArrayList<>();
+            if (value != null) {
+                for (String part : value.split(",")) {
+                    if (!part.trim().isEmpty()) out.add(part.trim());
+                }
+            }
+            return Collections.unmodifiableList(out);
+        }
+
+        boolean bool(String key, boolean fallback) {
+            String value = raw(key);
+            if (value == null) return fallback;
+            if ("true".equalsIgnoreCase(value) || "1".equals(value) || "yes".equalsIgnoreCase(value)) return true;
+            if ("false".equalsIgnoreCase(value) || "0".equals(value) || "no".equalsIgnoreCase(value)) return false;
+            error(key + " must be true or false but was '" + value + "'");
+            return fallback;
+        }
+
+        URI uri(String key, String fallback) {
+            String value = string(key, fallback);
+            try {
+                URI parsed = URI.create(value);
+                if (parsed.getScheme() == null || parsed.getHost() == null) {
+                    error(key + " must be an absolute URL but was '" + value + "'");
+                    return URI.create(fallback);
+                }
+                return parsed;
+            } catch (IllegalArgumentException e) {
+                error(key + " is not a valid URL: '" + value + "'");
+                return URI.create(fallback);
+            }
+        }
+
+        void error(String message) {
+            errors.add(message);
+        }
+    }
+}
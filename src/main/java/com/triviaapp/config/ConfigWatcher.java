@@ -0,0 +1,88 @@
+package com.triviaapp.config;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches the .env file and calls {@link AppConfig#reload()} when it changes.
+ * Enabled with CONFIG_WATCH=true. Settings that were consumed at startup (e.g. connection pool sizes)
+ * only take effect after a restart; everything read through {@link AppConfig#current()} picks up the change.
+ */
+public final class ConfigWatcher implements AutoCloseable {
+
+    private static final String ENV_FILE = ".env";
+    private static final long DEBOUNCE_MILLIS = 250;
+
+    private final WatchService watchService;
+    private final Path directory;
+    private final Thread thread;
+
+    private ConfigWatcher(WatchService watchService, Path directory) {
+        this.watchService = watchService;
+        this.directory = directory;
+        this.thread = new Thread(this::run, "config-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Start watching the directory the .env file is loaded from (the working directory).
+     */
+    public static ConfigWatcher start() throws IOException {
+        Path dir = Paths.get("").toAbsolutePath();
+        WatchService ws = FileSystems.getDefault().newWatchService();
+        dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        ConfigWatcher watcher = new ConfigWatcher(ws, dir);
+        watcher.thread.start();
+        System.out.println("Watching " + dir.resolve(ENV_FILE) + " for configuration changes");
+        return watcher;
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean envChanged = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (context instanceof Path && ENV_FILE.equals(context.toString())) {
+                        envChanged = true;
+                    }
+                }
+                key.reset();
+                if (envChanged) {
+                    // Editors often write the file in several steps; let it settle before re-reading.
+                    Thread.sleep(DEBOUNCE_MILLIS);
+                    WatchKey extra = watchService.poll();
+                    if (extra != null) {
+                        extra.pollEvents();
+                        extra.reset();
+                    }
+                    AppConfig.reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (java.nio.file.ClosedWatchServiceException ignored) {
+            // close() was called
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
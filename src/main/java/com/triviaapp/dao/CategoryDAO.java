@@ -2,6 +2,7 @@ package com.triviaapp.dao;
 
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * DAO for categories. Provides methods useful for simple UI lists (dropdowns).
@@ -11,10 +12,22 @@ public interface CategoryDAO {
     /**
      * Return all categories as a map of id -> name. Implementation may order by display_order then name.
      */
+    @ReadOnly
     Map<Integer, String> findAllCategories() throws SQLException;
 
     /**
      * Find category name by id, or null if not found.
      */
+    @ReadOnly
     String findCategoryNameById(int categoryId) throws SQLException;
+
+    // --- async variants (run on DaoExecutor) ---------------------------------
+
+    default CompletableFuture<Map<Integer, String>> findAllCategoriesAsync() {
+        return DaoExecutor.supply(() -> findAllCategories());
+    }
+
+    default CompletableFuture<String> findCategoryNameByIdAsync(int categoryId) {
+        return DaoExecutor.supply(() -> findCategoryNameById(categoryId));
+    }
 }
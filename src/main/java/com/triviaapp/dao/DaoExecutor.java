@@ -0,0 +1,167 @@
+package com.triviaapp.dao;
+
+import com.triviaapp.config.AppConfig;
+import com.triviaapp.db.RoutingContext;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs DAO calls off the caller's thread for the {@code *Async} methods on the DAO interfaces.
+ *
+ * On a JDK with virtual threads every call gets its own virtual thread and a semaphore caps how many run at once;
+ * on older JDKs a fixed platform pool of the same size is used. The limit defaults to the connection pool's
+ * maximum size, so async callers queue here instead of timing out on a connection borrow.
+ *
+ * The caller's {@link RoutingContext} travels with each task so read-your-writes routing still holds when a
+ * write and the following read run on different threads.
+ */
+public final class DaoExecutor {
+
+    /** A DAO call; may throw {@link SQLException}. */
+    @FunctionalInterface
+    public interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private static volatile ExecutorService executor;
+    private static volatile Semaphore permits;
+
+    private DaoExecutor() {
+    }
+
+    /**
+     * Run {@code call} asynchronously. A {@link SQLException} completes the future exceptionally with a
+     * {@link CompletionException} wrapping it; see {@link #await(CompletableFuture)}.
+     */
+    public static <T> CompletableFuture<T> supply(SqlCall<T> call) {
+        final RoutingContext context = RoutingContext.current();
+        final Executor exec = executor();
+        final Semaphore limit = permits;
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            RoutingContext previous = RoutingContext.attach(context);
+            boolean acquired = false;
+            try {
+                if (limit != null) {
+                    limit.acquire();
+                    acquired = true;
+                }
+                future.complete(call.call());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(new SQLException("Interrupted waiting for a DAO slot", e));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                if (acquired) limit.release();
+                RoutingContext.restore(previous);
+            }
+        };
+        try {
+            exec.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Raced with shutdown(): fail now rather than hand back a future nothing will ever complete.
+            future.completeExceptionally(new SQLException("DAO executor is shut down", e));
+        }
+        return future;
+    }
+
+    /**
+     * Wait for {@code future} and rethrow a failed DAO call as the original {@link SQLException}.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a DAO call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) throw (SQLException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new SQLException(cause);
+        }
+    }
+
+    /** The executor behind {@link #supply(SqlCall)}, for composing follow-up stages. */
+    public static Executor executor() {
+        ExecutorService e = executor;
+        if (e == null) {
+            synchronized (DaoExecutor.class) {
+                e = executor;
+                if (e == null) {
+                    e = create();
+                    executor = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Stop accepting work and let running calls finish. Called when the web application is undeployed.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+            permits = null;
+        }
+    }
+
+    private static ExecutorService create() {
+        int limit = AppConfig.current().getDaoAsyncConcurrency();
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual != null) {
+            permits = new Semaphore(limit);
+            System.out.println("DAO executor: virtual threads, concurrency " + limit);
+            return virtual;
+        }
+        AtomicInteger n = new AtomicInteger();
+        // When the queue is full the submitting thread does the work itself, which slows producers down instead
+        // of dropping calls. Once shut down, tasks are refused with an exception (CallerRunsPolicy would silently
+        // discard them and leave their futures pending forever).
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(limit, limit, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread t = new Thread(r, "dao-async-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, (r, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("DAO executor is shut down");
+                    }
+                    r.run();
+                });
+        pool.allowCoreThreadTimeOut(true);
+        System.out.println("DAO executor: " + limit + " platform threads");
+        return pool;
+    }
+
+    /** Executors.newVirtualThreadPerTaskExecutor() when running on JDK 21+, otherwise null. */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
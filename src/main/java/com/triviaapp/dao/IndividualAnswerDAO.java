@@ -1,8 +1,11 @@
 package com.triviaapp.dao;
 
+import com.triviaapp.model.Answer;
+import com.triviaapp.model.Page;
+
 import java.sql.SQLException;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Data access for the `individual_answers` table.
@@ -16,17 +19,49 @@ import java.util.Map;
 public interface IndividualAnswerDAO {
 
     /**
-     * Insert an individual answer record. Returns true when insert succeeded.
+     * Insert an individual answer record and add it to the user's totals for the question's category, in one
+     * transaction. Returns true when insert succeeded.
      */
     boolean createAnswer(int questionId, int userId, String selectedAnswer, boolean isCorrect, int score) throws SQLException;
 
     /**
-     * Return all answers by a user as a list of maps. Ordered by created_at desc.
+     * Return all answers by a user, newest first.
      */
-    List<Map<String, String>> findAnswersByUser(int userId) throws SQLException;
+    @ReadOnly
+    List<Answer> findAnswersByUser(int userId) throws SQLException;
+
+    /**
+     * One page of the user's answers, newest first (created_at desc, then answer_id desc).
+     *
+     * @param cursor null for the first page, otherwise {@link Page#getNextCursor()} of the previous page
+     * @param limit  page size, 1 to 500
+     * @throws IllegalArgumentException for a malformed cursor or limit
+     */
+    @ReadOnly
+    Page<Answer> findAnswersByUser(int userId, String cursor, int limit) throws SQLException;
 
     /**
      * Return total score for individual mode for the given user in the given category; returns 0 when none.
+     * A primary-key read of the {@code user_category_scores} rollup.
      */
+    @ReadOnly
     int getTotalScoreForIndividualMode(int userId, int categoryId) throws SQLException;
+
+    // --- async variants (run on DaoExecutor) ---------------------------------
+
+    default CompletableFuture<Boolean> createAnswerAsync(int questionId, int userId, String selectedAnswer, boolean isCorrect, int score) {
+        return DaoExecutor.supply(() -> createAnswer(questionId, userId, selectedAnswer, isCorrect, score));
+    }
+
+    default CompletableFuture<List<Answer>> findAnswersByUserAsync(int userId) {
+        return DaoExecutor.supply(() -> findAnswersByUser(userId));
+    }
+
+    default CompletableFuture<Page<Answer>> findAnswersByUserAsync(int userId, String cursor, int limit) {
+        return DaoExecutor.supply(() -> findAnswersByUser(userId, cursor, limit));
+    }
+
+    default CompletableFuture<Integer> getTotalScoreForIndividualModeAsync(int userId, int categoryId) {
+        return DaoExecutor.supply(() -> getTotalScoreForIndividualMode(userId, categoryId));
+    }
 }
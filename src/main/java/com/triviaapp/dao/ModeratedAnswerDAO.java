@@ -1,37 +1,113 @@
 package com.triviaapp.dao;
 
+import com.triviaapp.model.Answer;
+import com.triviaapp.model.LeaderboardEntry;
+import com.triviaapp.model.Page;
+
+import java.io.IOException;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Data access for the `moderated_answers` table.
+ * Data access for the `moderated_answers` table and its per-participant rollup `session_scores`.
  */
 public interface ModeratedAnswerDAO {
 
     /**
-     * Insert a moderated answer record.
+     * Insert a moderated answer record and add its score to the participant's session total, in one transaction.
      */
     boolean createModeratedAnswer(int sessionId, int questionId, int participantId, String selectedAnswer, boolean isCorrect, int score) throws SQLException;
 
+    /**
+     * Insert answers in JDBC batches on the caller's connection and add their scores to the participants' session
+     * totals. The answers' id and timestamp are ignored. Does not commit: the caller owns the transaction.
+     */
+    void createModeratedAnswersBatch(Connection conn, List<Answer> answers) throws SQLException;
+
     /**
      * Return all moderated answers for a session ordered by created_at asc.
      */
-    List<Map<String, String>> findAnswersBySession(int sessionId) throws SQLException;
+    @ReadOnly
+    List<Answer> findAnswersBySession(int sessionId) throws SQLException;
+
+    /**
+     * Pass the session's answers to {@code handler} in created_at order without collecting them, for exports.
+     * The connection stays borrowed until the handler has seen the last row.
+     *
+     * @return the number of rows handled
+     */
+    @ReadOnly
+    long streamAnswersBySession(int sessionId, RowHandler<Answer> handler) throws SQLException, IOException;
 
     /**
      * Return moderated answers by a participant within a session ordered by created_at desc.
      */
-    List<Map<String, String>> findAnswersByParticipant(int participantId, int sessionId) throws SQLException;
+    @ReadOnly
+    List<Answer> findAnswersByParticipant(int participantId, int sessionId) throws SQLException;
 
     /**
-     * Leaderboard for a session: participants ranked by total score.
-     * Each map contains: participant_id, username, total_score, rank_pos
+     * One page of a participant's answers within a session, newest first (created_at desc, then answer_id desc).
+     *
+     * @param cursor null for the first page, otherwise {@link Page#getNextCursor()} of the previous page
+     * @param limit  page size, 1 to 500
+     * @throws IllegalArgumentException for a malformed cursor or limit
      */
-    List<Map<String, String>> getSessionLeaderboard(int sessionId) throws SQLException;
+    @ReadOnly
+    Page<Answer> findAnswersByParticipant(int participantId, int sessionId, String cursor, int limit)
+            throws SQLException;
 
     /**
-     * Check if the selected answer is correct for the given question.
+     * Leaderboard for a session: participants ranked by total score, highest first. Read from the
+     * {@code session_scores} rollup, so the cost follows the number of players rather than answers.
      */
+    @ReadOnly
+    List<LeaderboardEntry> getSessionLeaderboard(int sessionId) throws SQLException;
+
+    /**
+     * {@link #getSessionLeaderboard} read from the primary, for callers that keep the result up to date from then
+     * on and so cannot start from a replica that has not yet applied the latest answers.
+     */
+    List<LeaderboardEntry> getSessionLeaderboardFromPrimary(int sessionId) throws SQLException;
+
+    /**
+     * Check if the selected answer is correct for the given question, comparing both in
+     * {@link com.triviaapp.cache.AnswerKeyIndex#canonical(String) canonical form}. Live quizzes score from the
+     * lobby's {@code AnswerKeyIndex} instead.
+     */
+    @ReadOnly
     boolean isAnswerCorrect(int questionId, String selectedAnswer) throws SQLException;
+
+    // --- async variants (run on DaoExecutor) ---------------------------------
+    // Streaming methods have none: their handler writes on the caller's thread.
+
+    default CompletableFuture<Boolean> createModeratedAnswerAsync(int sessionId, int questionId, int participantId, String selectedAnswer, boolean isCorrect, int score) {
+        return DaoExecutor.supply(() -> createModeratedAnswer(sessionId, questionId, participantId, selectedAnswer, isCorrect, score));
+    }
+
+    default CompletableFuture<List<Answer>> findAnswersBySessionAsync(int sessionId) {
+        return DaoExecutor.supply(() -> findAnswersBySession(sessionId));
+    }
+
+    default CompletableFuture<List<Answer>> findAnswersByParticipantAsync(int participantId, int sessionId) {
+        return DaoExecutor.supply(() -> findAnswersByParticipant(participantId, sessionId));
+    }
+
+    default CompletableFuture<Page<Answer>> findAnswersByParticipantAsync(int participantId, int sessionId,
+                                                                         String cursor, int limit) {
+        return DaoExecutor.supply(() -> findAnswersByParticipant(participantId, sessionId, cursor, limit));
+    }
+
+    default CompletableFuture<List<LeaderboardEntry>> getSessionLeaderboardAsync(int sessionId) {
+        return DaoExecutor.supply(() -> getSessionLeaderboard(sessionId));
+    }
+
+    default CompletableFuture<List<LeaderboardEntry>> getSessionLeaderboardFromPrimaryAsync(int sessionId) {
+        return DaoExecutor.supply(() -> getSessionLeaderboardFromPrimary(sessionId));
+    }
+
+    default CompletableFuture<Boolean> isAnswerCorrectAsync(int questionId, String selectedAnswer) {
+        return DaoExecutor.supply(() -> isAnswerCorrect(questionId, selectedAnswer));
+    }
 }
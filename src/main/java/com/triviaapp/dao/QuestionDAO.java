@@ -1,8 +1,12 @@
 package com.triviaapp.dao;
 
+import com.triviaapp.model.Question;
+
+import java.io.IOException;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Data access for the `questions` table.
@@ -17,21 +21,52 @@ import java.util.Map;
 public interface QuestionDAO {
 
     /**
-     * Return a single question as a map of column->string, or null if not found.
+     * Return a single question, or null if not found.
      */
-    Map<String, String> findQuestionById(int questionId) throws SQLException;
+    @ReadOnly
+    Question findQuestionById(int questionId) throws SQLException;
 
     /**
      * Return questions for the specified category.
      */
-    List<Map<String, String>> findQuestionsByCategory(int categoryId) throws SQLException;
+    @ReadOnly
+    List<Question> findQuestionsByCategory(int categoryId) throws SQLException;
+
+    /**
+     * Return the questions with the given ids in the order of {@code questionIds}; ids that do not exist are
+     * skipped. Reads in a few IN-list queries rather than one query per id.
+     */
+    @ReadOnly
+    List<Question> findQuestionsByIds(int[] questionIds) throws SQLException;
+
+    /**
+     * {@link #findQuestionById} read from the primary, for filling a cache that writes invalidate: a lagging
+     * replica could hand back the row as it was before the write and have it cached until it expires.
+     */
+    Question findQuestionByIdFromPrimary(int questionId) throws SQLException;
+
+    /**
+     * {@link #findQuestionsByIds} read from the primary, for the same reason as
+     * {@link #findQuestionByIdFromPrimary}.
+     */
+    List<Question> findQuestionsByIdsFromPrimary(int[] questionIds) throws SQLException;
 
     /**
-     * Return an ordered list of question IDs for the specified category.
+     * Return the question IDs for the specified category in ascending order.
      * Intended to store the IDs in the Session and use {@link #findQuestionById(int)}
      * to implement next/prev navigation.
      */
-    List<Integer> findQuestionIdsByCategory(int categoryId) throws SQLException;
+    @ReadOnly
+    int[] findQuestionIdsByCategory(int categoryId) throws SQLException;
+
+    /**
+     * Pass every question of the category to {@code handler} in id order without collecting them, for exports.
+     * The connection stays borrowed until the handler has seen the last row.
+     *
+     * @return the number of rows handled
+     */
+    @ReadOnly
+    long streamQuestionsByCategory(int categoryId, RowHandler<Question> handler) throws SQLException, IOException;
 
     /** 
      * Insert a new question row; returns true on success. 
@@ -46,7 +81,9 @@ public interface QuestionDAO {
                            int uploadedBy) throws SQLException;
 
     /** 
-     * Update an existing question; returns true if a row was updated. 
+     * Update an existing question; returns true if a row was updated. When the category changes, the points of
+     * the question's individual-mode answers move to the new category in {@code user_category_scores}, in the
+     * same transaction.
      */
     boolean updateQuestion(int questionId,
                            int categoryId,
@@ -61,4 +98,42 @@ public interface QuestionDAO {
      * Delete the question by id; returns true if deleted. 
      */
     boolean deleteQuestion(int questionId) throws SQLException;
+
+    /**
+     * Insert questions in JDBC batches on the caller's connection and return the generated ids in input order.
+     * The questions' id and timestamps are ignored. Does not commit: the caller owns the transaction.
+     */
+    int[] createQuestionsBatch(Connection conn, List<Question> questions) throws SQLException;
+
+    // --- async variants (run on DaoExecutor) ---------------------------------
+    // Methods taking a Connection have none: a connection must stay on the thread that owns its transaction.
+    // Streaming methods have none either: their handler writes on the caller's thread.
+
+    default CompletableFuture<Question> findQuestionByIdAsync(int questionId) {
+        return DaoExecutor.supply(() -> findQuestionById(questionId));
+    }
+
+    default CompletableFuture<List<Question>> findQuestionsByCategoryAsync(int categoryId) {
+        return DaoExecutor.supply(() -> findQuestionsByCategory(categoryId));
+    }
+
+    default CompletableFuture<List<Question>> findQuestionsByIdsAsync(int[] questionIds) {
+        return DaoExecutor.supply(() -> findQuestionsByIds(questionIds));
+    }
+
+    default CompletableFuture<int[]> findQuestionIdsByCategoryAsync(int categoryId) {
+        return DaoExecutor.supply(() -> findQuestionIdsByCategory(categoryId));
+    }
+
+    default CompletableFuture<Boolean> createQuestionAsync(int categoryId, String xmlQuestion, String youtubeUrl, String questionText, String answersOptionJson, String answersKey, int points, int uploadedBy) {
+        return DaoExecutor.supply(() -> createQuestion(categoryId, xmlQuestion, youtubeUrl, questionText, answersOptionJson, answersKey, points, uploadedBy));
+    }
+
+    default CompletableFuture<Boolean> updateQuestionAsync(int questionId, int categoryId, String xmlQuestion, String youtubeUrl, String questionText, String answersOptionJson, String answersKey, int points) {
+        return DaoExecutor.supply(() -> updateQuestion(questionId, categoryId, xmlQuestion, youtubeUrl, questionText, answersOptionJson, answersKey, points));
+    }
+
+    default CompletableFuture<Boolean> deleteQuestionAsync(int questionId) {
+        return DaoExecutor.supply(() -> deleteQuestion(questionId));
+    }
 }
@@ -0,0 +1,20 @@
+package com.triviaapp.dao;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DAO method as read-only. When read replicas are configured, connections obtained inside such a method
+ * are served by a replica instead of the primary (unless the calling thread wrote recently, see
+ * {@link com.triviaapp.db.RoutingContext}).
+ *
+ * Only put this on methods that never write and that can tolerate a little replication lag.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnly {
+}
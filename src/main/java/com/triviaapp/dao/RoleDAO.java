@@ -2,6 +2,7 @@ package com.triviaapp.dao;
 
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * DAO for roles. Returns a map of role_id -> role_name.
@@ -11,10 +12,22 @@ public interface RoleDAO {
     /**
      * Return all roles as a map of id -> name.
      */
+    @ReadOnly
     Map<Integer, String> findAllRoles() throws SQLException;
 
     /**
      * Find role name by id, or null if not found.
      */
+    @ReadOnly
     String findRoleNameById(int roleId) throws SQLException;
+
+    // --- async variants (run on DaoExecutor) ---------------------------------
+
+    default CompletableFuture<Map<Integer, String>> findAllRolesAsync() {
+        return DaoExecutor.supply(() -> findAllRoles());
+    }
+
+    default CompletableFuture<String> findRoleNameByIdAsync(int roleId) {
+        return DaoExecutor.supply(() -> findRoleNameById(roleId));
+    }
 }
@@ -0,0 +1,11 @@
+package com.triviaapp.dao;
+
+import java.io.IOException;
+
+/**
+ * Receives rows one at a time from a streaming DAO method, typically to write them straight to a response.
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+    void handle(T row) throws IOException;
+}
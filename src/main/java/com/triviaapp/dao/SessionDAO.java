@@ -1,9 +1,16 @@
 package com.triviaapp.dao;
 
+import com.triviaapp.model.Page;
+import com.triviaapp.model.Participant;
+import com.triviaapp.model.QuizSession;
+import com.triviaapp.model.SessionQuestion;
+import com.triviaapp.model.SessionSummary;
+
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Data access for the `sessions` and `session_participants` tables.
@@ -19,14 +26,26 @@ import java.util.Map;
 public interface SessionDAO {
 
     /**
-     * Return a single session row as a map or null when not found.
+     * Return a single session or null when not found.
      */
-    Map<String, String> findSessionById(int sessionId) throws SQLException;
+    @ReadOnly
+    QuizSession findSessionById(int sessionId) throws SQLException;
 
     /**
      * Return sessions created by the given host, ordered by start_at desc.
      */
-    List<Map<String, String>> findSessionsByHost(int hostUserId) throws SQLException;
+    @ReadOnly
+    List<QuizSession> findSessionsByHost(int hostUserId) throws SQLException;
+
+    /**
+     * One page of the host's sessions, newest first (start_at desc, then session_id desc).
+     *
+     * @param cursor null for the first page, otherwise {@link Page#getNextCursor()} of the previous page
+     * @param limit  page size, 1 to 500
+     * @throws IllegalArgumentException for a malformed cursor or limit
+     */
+    @ReadOnly
+    Page<QuizSession> findSessionsByHost(int hostUserId, String cursor, int limit) throws SQLException;
 
     /**
      * Create a session row.
@@ -40,6 +59,19 @@ public interface SessionDAO {
                           Timestamp startAt,
                           Timestamp endAt) throws SQLException;
 
+    /**
+     * Create a session row on the caller's connection and return its generated id. Does not commit.
+     * A null startAt means now.
+     */
+    int createSessionReturningId(Connection conn,
+                                 int hostUserId,
+                                 String sessionName,
+                                 Integer categoryId,
+                                 Integer maxParticipants,
+                                 String status,
+                                 Timestamp startAt,
+                                 Timestamp endAt) throws SQLException;
+
     /**
      * Update the session status. Returns true if a row was updated.
      */
@@ -57,16 +89,17 @@ public interface SessionDAO {
     boolean endSessionNow(int sessionId) throws SQLException;
 
     /**
-     * Return a summary list for active sessions. Each map contains:
-     * session_id, session_name, host_user_id, max_participants, status, current_participants
+     * Return a summary of each active session with its host's username and current participant count,
+     * busiest first.
      */
-    List<Map<String, String>> listActiveSessionsSummary() throws SQLException;
+    @ReadOnly
+    List<SessionSummary> listActiveSessionsSummary() throws SQLException;
 
     /**
-     * Return participants for a session. Each map contains:
-     * participant_id, username, joined_at, left_at, status
+     * Return participants for a session ordered by join time.
      */
-    List<Map<String, String>> findParticipantsBySession(int sessionId) throws SQLException;
+    @ReadOnly
+    List<Participant> findParticipantsBySession(int sessionId) throws SQLException;
 
     /**
      * Insert or refresh a participant row marking the user as joined.
@@ -92,9 +125,31 @@ public interface SessionDAO {
     boolean insertQuestionForSession(int sessionId, int questionId) throws SQLException;
 
     /**
-     * Return the list of question IDs bound to the session (ordered by question_id by default).
+     * Bind the given question IDs to the session with one JDBC batch on the caller's connection. Does not commit.
+     */
+    void insertQuestionsForSession(Connection conn, int sessionId, int[] questionIds) throws SQLException;
+
+    /**
+     * Return the question IDs bound to the session (ordered by question_id); empty when there are none.
      */
-    List<Integer> findQuestionIdsForSession(int sessionId) throws SQLException;
+    @ReadOnly
+    int[] findQuestionIdsForSession(int sessionId) throws SQLException;
+
+    /**
+     * The session's questions with their category names, in the order of {@link #findQuestionIdsForSession(int)}
+     * (so a question's index matches current_index), read with one query. Lets a lobby load its whole question
+     * pack once instead of querying on every question change.
+     */
+    @ReadOnly
+    List<SessionQuestion> findSessionQuestionPack(int sessionId) throws SQLException;
+
+    /**
+     * The question at the session's current_index with its category name, resolved in one statement
+     * (sessions, session_questions, questions, categories). Null when the session does not exist or its index is
+     * outside the question list.
+     */
+    @ReadOnly
+    SessionQuestion findCurrentQuestion(int sessionId) throws SQLException;
 
     /**
      * Read the authoritative current_index for the session (used for multiplayer host-driven sync).
@@ -111,4 +166,83 @@ public interface SessionDAO {
      * or cannot be decremented (e.g. already at 0).
      */
     Integer decrementAndGetCurrentIndex(int sessionId) throws SQLException;
+
+    // --- async variants (run on DaoExecutor) ---------------------------------
+    // Methods taking a Connection have none: a connection must stay on the thread that owns its transaction.
+
+    default CompletableFuture<QuizSession> findSessionByIdAsync(int sessionId) {
+        return DaoExecutor.supply(() -> findSessionById(sessionId));
+    }
+
+    default CompletableFuture<List<QuizSession>> findSessionsByHostAsync(int hostUserId) {
+        return DaoExecutor.supply(() -> findSessionsByHost(hostUserId));
+    }
+
+    default CompletableFuture<Page<QuizSession>> findSessionsByHostAsync(int hostUserId, String cursor, int limit) {
+        return DaoExecutor.supply(() -> findSessionsByHost(hostUserId, cursor, limit));
+    }
+
+    default CompletableFuture<Boolean> createSessionAsync(int hostUserId, String sessionName, Integer categoryId, Integer maxParticipants, String status, Timestamp startAt, Timestamp endAt) {
+        return DaoExecutor.supply(() -> createSession(hostUserId, sessionName, categoryId, maxParticipants, status, startAt, endAt));
+    }
+
+    default CompletableFuture<Boolean> updateSessionStatusAsync(int sessionId, String status) {
+        return DaoExecutor.supply(() -> updateSessionStatus(sessionId, status));
+    }
+
+    default CompletableFuture<Boolean> deleteSessionAsync(int sessionId) {
+        return DaoExecutor.supply(() -> deleteSession(sessionId));
+    }
+
+    default CompletableFuture<Boolean> endSessionNowAsync(int sessionId) {
+        return DaoExecutor.supply(() -> endSessionNow(sessionId));
+    }
+
+    default CompletableFuture<List<SessionSummary>> listActiveSessionsSummaryAsync() {
+        return DaoExecutor.supply(() -> listActiveSessionsSummary());
+    }
+
+    default CompletableFuture<List<Participant>> findParticipantsBySessionAsync(int sessionId) {
+        return DaoExecutor.supply(() -> findParticipantsBySession(sessionId));
+    }
+
+    default CompletableFuture<Boolean> joinSessionAsync(int sessionId, int participantId) {
+        return DaoExecutor.supply(() -> joinSession(sessionId, participantId));
+    }
+
+    default CompletableFuture<Boolean> leaveSessionAsync(int sessionId, int participantId) {
+        return DaoExecutor.supply(() -> leaveSession(sessionId, participantId));
+    }
+
+    default CompletableFuture<Boolean> insertAllQuestionsForSessionAsync(int sessionId, int categoryId) {
+        return DaoExecutor.supply(() -> insertAllQuestionsForSession(sessionId, categoryId));
+    }
+
+    default CompletableFuture<Boolean> insertQuestionForSessionAsync(int sessionId, int questionId) {
+        return DaoExecutor.supply(() -> insertQuestionForSession(sessionId, questionId));
+    }
+
+    default CompletableFuture<int[]> findQuestionIdsForSessionAsync(int sessionId) {
+        return DaoExecutor.supply(() -> findQuestionIdsForSession(sessionId));
+    }
+
+    default CompletableFuture<List<SessionQuestion>> findSessionQuestionPackAsync(int sessionId) {
+        return DaoExecutor.supply(() -> findSessionQuestionPack(sessionId));
+    }
+
+    default CompletableFuture<SessionQuestion> findCurrentQuestionAsync(int sessionId) {
+        return DaoExecutor.supply(() -> findCurrentQuestion(sessionId));
+    }
+
+    default CompletableFuture<Integer> getCurrentIndexAsync(int sessionId) {
+        return DaoExecutor.supply(() -> getCurrentIndex(sessionId));
+    }
+
+    default CompletableFuture<Integer> incrementAndGetCurrentIndexAsync(int sessionId) {
+        return DaoExecutor.supply(() -> incrementAndGetCurrentIndex(sessionId));
+    }
+
+    default CompletableFuture<Integer> decrementAndGetCurrentIndexAsync(int sessionId) {
+        return DaoExecutor.supply(() -> decrementAndGetCurrentIndex(sessionId));
+    }
 }
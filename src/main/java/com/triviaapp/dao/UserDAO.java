@@ -1,6 +1,9 @@
 package com.triviaapp.dao;
 
+import com.triviaapp.model.UserPrincipal;
+
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * DAO for user authentication.
@@ -26,4 +29,43 @@ public interface UserDAO {
      * Return user role ID for the given user ID
      */
     int findUserRoleIDByID(int userId) throws SQLException;
+
+    /**
+     * Return the password hash, user id, role id and role name for the given email in one query, or null when no
+     * user has that email. Login uses this instead of findPasswordByEmail, findUserIDByEmail, findUserRoleIDByID
+     * and the role lookup. Reads the primary, so a user can log in straight after signing up.
+     */
+    UserPrincipal findPrincipalByEmail(String email) throws SQLException;
+
+    /**
+     * Replace the user's password hash with {@code newHash} if it is still {@code oldHash}. Returns false when the
+     * password was changed in the meantime.
+     */
+    boolean updatePasswordHash(int userId, String oldHash, String newHash) throws SQLException;
+
+    // --- async variants (run on DaoExecutor) ---------------------------------
+
+    default CompletableFuture<String> findPasswordByEmailAsync(String email) {
+        return DaoExecutor.supply(() -> findPasswordByEmail(email));
+    }
+
+    default CompletableFuture<Boolean> createUserAsync(String username, String email, String password, int roleId) {
+        return DaoExecutor.supply(() -> createUser(username, email, password, roleId));
+    }
+
+    default CompletableFuture<Integer> findUserIDByEmailAsync(String email) {
+        return DaoExecutor.supply(() -> findUserIDByEmail(email));
+    }
+
+    default CompletableFuture<Integer> findUserRoleIDByIDAsync(int userId) {
+        return DaoExecutor.supply(() -> findUserRoleIDByID(userId));
+    }
+
+    default CompletableFuture<UserPrincipal> findPrincipalByEmailAsync(String email) {
+        return DaoExecutor.supply(() -> findPrincipalByEmail(email));
+    }
+
+    default CompletableFuture<Boolean> updatePasswordHashAsync(int userId, String oldHash, String newHash) {
+        return DaoExecutor.supply(() -> updatePasswordHash(userId, oldHash, newHash));
+    }
 }
@@ -0,0 +1,37 @@
+package com.triviaapp.dao.impl;
+
+import com.triviaapp.cache.DictionaryCache;
+import com.triviaapp.cache.IntDictionary;
+import com.triviaapp.dao.CategoryDAO;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * {@link CategoryDAO} served from {@link DictionaryCache}. Falls back to the database when the dictionary is
+ * not loaded or does not know an id yet (a category added since the last refresh), and asks for a refresh then.
+ */
+public class CachingCategoryDAO implements CategoryDAO {
+
+    private final CategoryDAO delegate = new CategoryDAOImpl();
+
+    @Override
+    public Map<Integer, String> findAllCategories() throws SQLException {
+        IntDictionary categories = DictionaryCache.categories();
+        return categories != null ? categories.asMap() : delegate.findAllCategories();
+    }
+
+    @Override
+    public String findCategoryNameById(int categoryId) throws SQLException {
+        IntDictionary categories = DictionaryCache.categories();
+        String name = categories == null ? null : categories.get(categoryId);
+        if (name != null) {
+            return name;
+        }
+        name = delegate.findCategoryNameById(categoryId);
+        if (name != null && categories != null) {
+            DictionaryCache.requestRefresh();
+        }
+        return name;
+    }
+}
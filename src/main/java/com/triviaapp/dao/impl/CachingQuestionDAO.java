@@ -0,0 +1,166 @@
+package com.triviaapp.dao.impl;
+
+import com.triviaapp.cache.LoadingCache;
+import com.triviaapp.config.AppConfig;
+import com.triviaapp.dao.QuestionDAO;
+import com.triviaapp.dao.RowHandler;
+import com.triviaapp.model.Question;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link QuestionDAO} that serves {@link #findQuestionById(int)} from a shared in-memory cache.
+ *
+ * Every question broadcast and every submitted answer looks up a question by id, while questions themselves
+ * almost never change. All instances share one cache, bounded by QUESTION_CACHE_MAX_BYTES (estimated from the
+ * text columns) with entries expiring after QUESTION_CACHE_TTL_MS. Updates and deletes made through this class
+ * invalidate the entry immediately; changes made elsewhere (another server, a manual edit) show up once the
+ * entry expires. Misses are loaded from the primary, so a reader right after an update cannot cache the old row
+ * from a lagging replica. Other methods go straight to the database.
+ */
+public class CachingQuestionDAO implements QuestionDAO {
+
+    // Object header, fields and the String objects themselves, roughly.
+    private static final int QUESTION_OVERHEAD_BYTES = 160;
+
+    private static volatile LoadingCache<Integer, Question> cache;
+
+    private final QuestionDAO delegate;
+
+    public CachingQuestionDAO() {
+        this(new QuestionDAOImpl());
+    }
+
+    public CachingQuestionDAO(QuestionDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Question findQuestionById(int questionId) throws SQLException {
+        LoadingCache<Integer, Question> c = cache();
+        if (c == null) {
+            return delegate.findQuestionById(questionId);
+        }
+        return c.get(questionId, delegate::findQuestionByIdFromPrimary);
+    }
+
+    @Override
+    public List<Question> findQuestionsByCategory(int categoryId) throws SQLException {
+        return delegate.findQuestionsByCategory(categoryId);
+    }
+
+    @Override
+    public List<Question> findQuestionsByIds(int[] questionIds) throws SQLException {
+        LoadingCache<Integer, Question> c = cache();
+        if (c == null) {
+            return delegate.findQuestionsByIds(questionIds);
+        }
+        List<Integer> keys = new ArrayList<>(questionIds.length);
+        for (int id : questionIds) keys.add(id);
+        Map<Integer, Question> found = c.getAll(keys, missing -> {
+            int[] ids = new int[missing.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = missing.get(i);
+            Map<Integer, Question> loaded = new HashMap<>(ids.length * 2);
+            for (Question q : delegate.findQuestionsByIdsFromPrimary(ids)) loaded.put(q.getQuestionId(), q);
+            return loaded;
+        });
+        List<Question> out = new ArrayList<>(found.size());
+        for (int id : questionIds) {
+            Question q = found.get(id);
+            if (q != null) out.add(q);
+        }
+        return out;
+    }
+
+    @Override
+    public Question findQuestionByIdFromPrimary(int questionId) throws SQLException {
+        return delegate.findQuestionByIdFromPrimary(questionId);
+    }
+
+    @Override
+    public List<Question> findQuestionsByIdsFromPrimary(int[] questionIds) throws SQLException {
+        return delegate.findQuestionsByIdsFromPrimary(questionIds);
+    }
+
+    @Override
+    public long streamQuestionsByCategory(int categoryId, RowHandler<Question> handler)
+            throws SQLException, IOException {
+        return delegate.streamQuestionsByCategory(categoryId, handler);
+    }
+
+    @Override
+    public int[] findQuestionIdsByCategory(int categoryId) throws SQLException {
+        return delegate.findQuestionIdsByCategory(categoryId);
+    }
+
+    @Override
+    public boolean createQuestion(int categoryId, String xmlQuestion, String youtubeUrl, String questionText, String answersOptionJson, String answersKey, int points, int uploadedBy) throws SQLException {
+        return delegate.createQuestion(categoryId, xmlQuestion, youtubeUrl, questionText, answersOptionJson, answersKey, points, uploadedBy);
+    }
+
+    @Override
+    public boolean updateQuestion(int questionId, int categoryId, String xmlQuestion, String youtubeUrl, String questionText, String answersOptionJson, String answersKey, int points) throws SQLException {
+        try {
+            return delegate.updateQuestion(questionId, categoryId, xmlQuestion, youtubeUrl, questionText, answersOptionJson, answersKey, points);
+        } finally {
+            invalidate(questionId);
+        }
+    }
+
+    @Override
+    public boolean deleteQuestion(int questionId) throws SQLException {
+        try {
+            return delegate.deleteQuestion(questionId);
+        } finally {
+            invalidate(questionId);
+        }
+    }
+
+    @Override
+    public int[] createQuestionsBatch(Connection conn, List<Question> questions) throws SQLException {
+        return delegate.createQuestionsBatch(conn, questions);
+    }
+
+    /**
+     * Drop a cached question, e.g. after changing it without going through this class.
+     */
+    public static void invalidate(int questionId) {
+        LoadingCache<Integer, Question> c = cache();
+        if (c != null) c.invalidate(questionId);
+    }
+
+    /** The shared cache, or null when QUESTION_CACHE_MAX_BYTES is 0. */
+    private static LoadingCache<Integer, Question> cache() {
+        LoadingCache<Integer, Question> c = cache;
+        if (c == null) {
+            synchronized (CachingQuestionDAO.class) {
+                c = cache;
+                if (c == null) {
+                    AppConfig config = AppConfig.current();
+                    if (config.getQuestionCacheMaxBytes() == 0) {
+                        return null;
+                    }
+                    c = new LoadingCache<>("questions", config.getQuestionCacheMaxBytes(),
+                            config.getQuestionCacheTtlMillis(), CachingQuestionDAO::weigh);
+                    cache = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    private static int weigh(Question q) {
+        return QUESTION_OVERHEAD_BYTES + 2 * (length(q.getXmlQuestion()) + length(q.getYoutubeUrl())
+                + length(q.getQuestionText()) + length(q.getAnswersOption()) + length(q.getAnswersKey()));
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+}
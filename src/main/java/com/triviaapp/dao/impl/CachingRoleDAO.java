@@ -0,0 +1,37 @@
+package com.triviaapp.dao.impl;
+
+import com.triviaapp.cache.DictionaryCache;
+import com.triviaapp.cache.IntDictionary;
+import com.triviaapp.dao.RoleDAO;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * {@link RoleDAO} served from {@link DictionaryCache}, with the same database fallback as
+ * {@link CachingCategoryDAO}.
+ */
+public class CachingRoleDAO implements RoleDAO {
+
+    private final RoleDAO delegate = new RoleDAOImpl();
+
+    @Override
+    public Map<Integer, String> findAllRoles() throws SQLException {
+        IntDictionary roles = DictionaryCache.roles();
+        return roles != null ? roles.asMap() : delegate.findAllRoles();
+    }
+
+    @Override
+    public String findRoleNameById(int roleId) throws SQLException {
+        IntDictionary roles = DictionaryCache.roles();
+        String name = roles == null ? null : roles.get(roleId);
+        if (name != null) {
+            return name;
+        }
+        name = delegate.findRoleNameById(roleId);
+        if (name != null && roles != null) {
+            DictionaryCache.requestRefresh();
+        }
+        return name;
+    }
+}
@@ -1,6 +1,8 @@
 package com.triviaapp.dao.impl;
 
 import com.triviaapp.dao.IndividualAnswerDAO;
+import com.triviaapp.model.Answer;
+import com.triviaapp.model.Page;
 import com.triviaapp.util.DBConnectionManager;
 
 import java.sql.Connection;
@@ -8,53 +10,90 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 public class IndividualAnswerDAOImpl implements IndividualAnswerDAO {
 
     private static final String SQL_INSERT = "INSERT INTO individual_answers (question_id, user_id, selected_answer, is_correct, score) VALUES (?, ?, ?, ?, ?)";
     private static final String SQL_SELECT_BY_USER = "SELECT * FROM individual_answers WHERE user_id = ? ORDER BY created_at DESC";
-    private static final String SQL_TOTAL_SCORE_FOR_INDIVIDUAL_MODE = "SELECT COALESCE(SUM(score),0) AS total_score FROM individual_answers ia JOIN questions q ON ia.question_id = q.question_id WHERE ia.user_id = ? AND q.category_id = ?";
+    private static final String SQL_PAGE_BY_USER_FIRST = "SELECT * FROM individual_answers WHERE user_id = ? ORDER BY created_at DESC, answer_id DESC LIMIT ?";
+    private static final String SQL_PAGE_BY_USER_AFTER = "SELECT * FROM individual_answers WHERE user_id = ? AND (created_at < ? OR (created_at = ? AND answer_id < ?)) ORDER BY created_at DESC, answer_id DESC LIMIT ?";
+    // The question's category comes from its primary key, so the rollup row is found without a second round trip
+    private static final String SQL_ADD_TO_CATEGORY_SCORE = "INSERT INTO user_category_scores (user_id, category_id, total_score, answered, correct) SELECT ?, category_id, ?, 1, ? FROM questions WHERE question_id = ? ON DUPLICATE KEY UPDATE total_score = total_score + ?, answered = answered + 1, correct = correct + ?";
+    private static final String SQL_TOTAL_SCORE_FOR_INDIVIDUAL_MODE = "SELECT total_score FROM user_category_scores WHERE user_id = ? AND category_id = ?";
 
     @Override
     public boolean createAnswer(int questionId, int userId, String selectedAnswer, boolean isCorrect, int score) throws SQLException {
-        try (Connection conn = DBConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
-            ps.setInt(1, questionId);
-            ps.setInt(2, userId);
-            ps.setString(3, selectedAnswer);
-            ps.setBoolean(4, isCorrect);
-            ps.setInt(5, score);
-            int rows = ps.executeUpdate();
-            return rows > 0;
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            boolean oldAuto = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
+                    ps.setInt(1, questionId);
+                    ps.setInt(2, userId);
+                    ps.setString(3, selectedAnswer);
+                    ps.setBoolean(4, isCorrect);
+                    ps.setInt(5, score);
+                    if (ps.executeUpdate() == 0) {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(SQL_ADD_TO_CATEGORY_SCORE)) {
+                    int correct = isCorrect ? 1 : 0;
+                    ps.setInt(1, userId);
+                    ps.setInt(2, score);
+                    ps.setInt(3, correct);
+                    ps.setInt(4, questionId);
+                    ps.setInt(5, score);
+                    ps.setInt(6, correct);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(oldAuto);
+            }
         }
     }
 
     @Override
-    public List<Map<String, String>> findAnswersByUser(int userId) throws SQLException {
-        List<Map<String, String>> out = new ArrayList<>();
+    public List<Answer> findAnswersByUser(int userId) throws SQLException {
+        List<Answer> out = new ArrayList<>();
         try (Connection conn = DBConnectionManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(SQL_SELECT_BY_USER)) {
             ps.setInt(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, String> row = new LinkedHashMap<>();
-                    row.put("answer_id", String.valueOf(rs.getInt("answer_id")));
-                    row.put("question_id", String.valueOf(rs.getInt("question_id")));
-                    row.put("user_id", String.valueOf(rs.getInt("user_id")));
-                    row.put("selected_answer", rs.getString("selected_answer"));
-                    row.put("is_correct", String.valueOf(rs.getBoolean("is_correct")));
-                    row.put("score", String.valueOf(rs.getInt("score")));
-                    row.put("created_at", rs.getString("created_at"));
-                    out.add(row);
+                    out.add(toAnswer(rs));
                 }
             }
         }
         return out;
     }
 
+    @Override
+    public Page<Answer> findAnswersByUser(int userId, String cursor, int limit) throws SQLException {
+        Keyset.checkLimit(limit);
+        Keyset.Position after = Keyset.decode(cursor);
+        List<Answer> out = new ArrayList<>(limit + 1);
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(after == null ? SQL_PAGE_BY_USER_FIRST : SQL_PAGE_BY_USER_AFTER)) {
+            ps.setInt(1, userId);
+            int next = after == null ? 2 : after.bind(ps, 2);
+            ps.setInt(next, limit + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(toAnswer(rs));
+                }
+            }
+        }
+        return Keyset.page(out, limit, Answer::getCreatedAt, Answer::getAnswerId);
+    }
+
     @Override
     public int getTotalScoreForIndividualMode(int userId, int categoryId) throws SQLException {
         try (Connection conn = DBConnectionManager.getConnection();
@@ -69,4 +108,16 @@ public class IndividualAnswerDAOImpl implements IndividualAnswerDAO {
         }
         return 0;
     }
+
+    private static Answer toAnswer(ResultSet rs) throws SQLException {
+        return new Answer(
+                rs.getInt("answer_id"),
+                0,
+                rs.getInt("question_id"),
+                rs.getInt("user_id"),
+                rs.getString("selected_answer"),
+                rs.getBoolean("is_correct"),
+                rs.getInt("score"),
+                Rows.instant(rs, "created_at"));
+    }
 }
@@ -0,0 +1,89 @@
+package com.triviaapp.dao.impl;
+
+import com.triviaapp.model.Page;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cursor handling for keyset pagination over {@code ORDER BY <timestamp> DESC, <id> DESC}.
+ *
+ * A page is read with {@code LIMIT limit + 1}; the extra row only tells whether another page exists. The cursor
+ * is the (timestamp, id) of the last row returned, and the next page's query continues strictly after it with
+ * {@code ts < ? OR (ts = ? AND id < ?)}, which an index on (filter columns, ts, id) answers without sorting or
+ * skipping rows, however deep the page.
+ */
+final class Keyset {
+
+    static final int MAX_LIMIT = 500;
+
+    /** Decoded cursor position. */
+    static final class Position {
+        final Timestamp at;
+        final int id;
+
+        Position(Timestamp at, int id) {
+            this.at = at;
+            this.id = id;
+        }
+
+        /** Bind {@code ts < ? OR (ts = ? AND id < ?)} starting at parameter {@code index}. */
+        int bind(PreparedStatement ps, int index) throws SQLException {
+            ps.setTimestamp(index, at);
+            ps.setTimestamp(index + 1, at);
+            ps.setInt(index + 2, id);
+            return index + 3;
+        }
+    }
+
+    private Keyset() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code limit} is outside 1..{@value #MAX_LIMIT}
+     */
+    static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    /**
+     * @return the position, or null for a null/empty cursor (first page)
+     * @throws IllegalArgumentException for a cursor this class did not produce
+     */
+    static Position decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\.");
+            if (parts.length != 3) throw new IllegalArgumentException("Malformed page cursor");
+            Instant at = Instant.ofEpochSecond(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+            return new Position(Timestamp.from(at), Integer.parseInt(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed page cursor", e);
+        }
+    }
+
+    static String encode(Instant at, int id) {
+        String raw = at.getEpochSecond() + "." + at.getNano() + "." + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Turn up to {@code limit + 1} rows (a mutable list) into a page, dropping the look-ahead row.
+     */
+    static <T> Page<T> page(List<T> rows, int limit, Function<T, Instant> at, ToIntFunction<T> id) {
+        if (rows.size() <= limit) return new Page<>(rows, null);
+        rows.remove(limit);
+        T last = rows.get(limit - 1);
+        return new Page<>(rows, encode(at.apply(last), id.applyAsInt(last)));
+    }
+}
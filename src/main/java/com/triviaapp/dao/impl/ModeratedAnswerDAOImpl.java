@@ -1,66 +1,114 @@
 package com.triviaapp.dao.impl;
 
+import com.triviaapp.cache.AnswerKeyIndex;
 import com.triviaapp.dao.ModeratedAnswerDAO;
+import com.triviaapp.dao.RowHandler;
+import com.triviaapp.model.Answer;
+import com.triviaapp.model.LeaderboardEntry;
+import com.triviaapp.model.Page;
 import com.triviaapp.util.DBConnectionManager;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class ModeratedAnswerDAOImpl implements ModeratedAnswerDAO {
 
     private static final String SQL_INSERT = "INSERT INTO moderated_answers (session_id, question_id, participant_id, selected_answer, is_correct, score) VALUES (?, ?, ?, ?, ?, ?)";
     private static final String SQL_SELECT_BY_SESSION = "SELECT * FROM moderated_answers WHERE session_id = ? ORDER BY created_at ASC";
     private static final String SQL_SELECT_BY_PARTICIPANT = "SELECT * FROM moderated_answers WHERE participant_id = ? AND session_id = ? ORDER BY created_at DESC";
+    private static final String SQL_PAGE_BY_PARTICIPANT_FIRST = "SELECT * FROM moderated_answers WHERE participant_id = ? AND session_id = ? ORDER BY created_at DESC, answer_id DESC LIMIT ?";
+    private static final String SQL_PAGE_BY_PARTICIPANT_AFTER = "SELECT * FROM moderated_answers WHERE participant_id = ? AND session_id = ? AND (created_at < ? OR (created_at = ? AND answer_id < ?)) ORDER BY created_at DESC, answer_id DESC LIMIT ?";
+    private static final String SQL_ADD_SESSION_SCORE = "INSERT INTO session_scores (session_id, participant_id, total_score) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE total_score = total_score + ?";
+    // Reads the session_scores rollup kept by createModeratedAnswer, highest first along idx_ss_session_score
     private static final String SQL_SESSION_LEADERBOARD = String.join("\n",
-        "SELECT t.participant_id, u.username, t.total_score, RANK() OVER (ORDER BY t.total_score DESC) AS rank_pos",
-        "FROM (",
-        "  SELECT participant_id, SUM(score) AS total_score",
-        "  FROM moderated_answers",
-        "  WHERE session_id = ?",
-        "  GROUP BY participant_id",
-        ") t",
-        "JOIN users u ON t.participant_id = u.user_id",
-        "ORDER BY t.total_score DESC");
+        "SELECT s.participant_id, u.username, s.total_score, RANK() OVER (ORDER BY s.total_score DESC) AS rank_pos",
+        "FROM session_scores s",
+        "JOIN users u ON s.participant_id = u.user_id",
+        "WHERE s.session_id = ?",
+        "ORDER BY s.total_score DESC");
+    private static final String SQL_FIND_ANSWER_KEY = "SELECT answers_key FROM questions WHERE question_id = ?";
 
     @Override
     public boolean createModeratedAnswer(int sessionId, int questionId, int participantId, String selectedAnswer, boolean isCorrect, int score) throws SQLException {
-        try (Connection conn = DBConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
-            ps.setInt(1, sessionId);
-            ps.setInt(2, questionId);
-            ps.setInt(3, participantId);
-            ps.setString(4, selectedAnswer);
-            ps.setBoolean(5, isCorrect);
-            ps.setInt(6, score);
-            int rows = ps.executeUpdate();
-            return rows > 0;
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            boolean oldAuto = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
+                    ps.setInt(1, sessionId);
+                    ps.setInt(2, questionId);
+                    ps.setInt(3, participantId);
+                    ps.setString(4, selectedAnswer);
+                    ps.setBoolean(5, isCorrect);
+                    ps.setInt(6, score);
+                    if (ps.executeUpdate() == 0) {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(SQL_ADD_SESSION_SCORE)) {
+                    ps.setInt(1, sessionId);
+                    ps.setInt(2, participantId);
+                    ps.setInt(3, score);
+                    ps.setInt(4, score);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(oldAuto);
+            }
         }
     }
 
     @Override
-    public List<Map<String, String>> findAnswersBySession(int sessionId) throws SQLException {
-        List<Map<String, String>> out = new ArrayList<>();
+    public void createModeratedAnswersBatch(Connection conn, List<Answer> answers) throws SQLException {
+        // One score row per participant, in key order so concurrent batches lock rows in the same order.
+        Map<Long, Integer> totals = new TreeMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
+            for (Answer a : answers) {
+                ps.setInt(1, a.getSessionId());
+                ps.setInt(2, a.getQuestionId());
+                ps.setInt(3, a.getUserId());
+                ps.setString(4, a.getSelectedAnswer());
+                ps.setBoolean(5, a.isCorrect());
+                ps.setInt(6, a.getScore());
+                ps.addBatch();
+                totals.merge(((long) a.getSessionId() << 32) | a.getUserId(), a.getScore(), Integer::sum);
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(SQL_ADD_SESSION_SCORE)) {
+            for (Map.Entry<Long, Integer> e : totals.entrySet()) {
+                ps.setInt(1, (int) (e.getKey() >>> 32));
+                ps.setInt(2, (int) (long) e.getKey());
+                ps.setInt(3, e.getValue());
+                ps.setInt(4, e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @Override
+    public List<Answer> findAnswersBySession(int sessionId) throws SQLException {
+        List<Answer> out = new ArrayList<>();
         try (Connection conn = DBConnectionManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(SQL_SELECT_BY_SESSION)) {
             ps.setInt(1, sessionId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, String> row = new LinkedHashMap<>();
-                    row.put("answer_id", String.valueOf(rs.getInt("answer_id")));
-                    row.put("session_id", String.valueOf(rs.getInt("session_id")));
-                    row.put("question_id", String.valueOf(rs.getInt("question_id")));
-                    row.put("participant_id", String.valueOf(rs.getInt("participant_id")));
-                    row.put("selected_answer", rs.getString("selected_answer"));
-                    row.put("is_correct", String.valueOf(rs.getBoolean("is_correct")));
-                    row.put("score", String.valueOf(rs.getInt("score")));
-                    row.put("created_at", rs.getString("created_at"));
-                    out.add(row);
+                    out.add(toAnswer(rs));
                 }
             }
         }
@@ -68,24 +116,31 @@ public class ModeratedAnswerDAOImpl implements ModeratedAnswerDAO {
     }
 
     @Override
-    public List<Map<String, String>> findAnswersByParticipant(int participantId, int sessionId) throws SQLException {
-        List<Map<String, String>> out = new ArrayList<>();
+    public long streamAnswersBySession(int sessionId, RowHandler<Answer> handler) throws SQLException, IOException {
+        long n = 0;
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = Rows.prepareStreaming(conn, SQL_SELECT_BY_SESSION)) {
+            ps.setInt(1, sessionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(toAnswer(rs));
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public List<Answer> findAnswersByParticipant(int participantId, int sessionId) throws SQLException {
+        List<Answer> out = new ArrayList<>();
         try (Connection conn = DBConnectionManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(SQL_SELECT_BY_PARTICIPANT)) {
             ps.setInt(1, participantId);
             ps.setInt(2, sessionId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, String> row = new LinkedHashMap<>();
-                    row.put("answer_id", String.valueOf(rs.getInt("answer_id")));
-                    row.put("session_id", String.valueOf(rs.getInt("session_id")));
-                    row.put("question_id", String.valueOf(rs.getInt("question_id")));
-                    row.put("participant_id", String.valueOf(rs.getInt("participant_id")));
-                    row.put("selected_answer", rs.getString("selected_answer"));
-                    row.put("is_correct", String.valueOf(rs.getBoolean("is_correct")));
-                    row.put("score", String.valueOf(rs.getInt("score")));
-                    row.put("created_at", rs.getString("created_at"));
-                    out.add(row);
+                    out.add(toAnswer(rs));
                 }
             }
         }
@@ -93,19 +148,52 @@ public class ModeratedAnswerDAOImpl implements ModeratedAnswerDAO {
     }
 
     @Override
-    public List<Map<String, String>> getSessionLeaderboard(int sessionId) throws SQLException {
-        List<Map<String, String>> out = new ArrayList<>();
+    public Page<Answer> findAnswersByParticipant(int participantId, int sessionId, String cursor, int limit)
+            throws SQLException {
+        Keyset.checkLimit(limit);
+        Keyset.Position after = Keyset.decode(cursor);
+        List<Answer> out = new ArrayList<>(limit + 1);
         try (Connection conn = DBConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(SQL_SESSION_LEADERBOARD)) {
+             PreparedStatement ps = conn.prepareStatement(after == null ? SQL_PAGE_BY_PARTICIPANT_FIRST : SQL_PAGE_BY_PARTICIPANT_AFTER)) {
+            ps.setInt(1, participantId);
+            ps.setInt(2, sessionId);
+            int next = after == null ? 3 : after.bind(ps, 3);
+            ps.setInt(next, limit + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(toAnswer(rs));
+                }
+            }
+        }
+        return Keyset.page(out, limit, Answer::getCreatedAt, Answer::getAnswerId);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getSessionLeaderboard(int sessionId) throws SQLException {
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            return readLeaderboard(conn, sessionId);
+        }
+    }
+
+    @Override
+    public List<LeaderboardEntry> getSessionLeaderboardFromPrimary(int sessionId) throws SQLException {
+        // Not @ReadOnly, so the router hands out a primary connection
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            return readLeaderboard(conn, sessionId);
+        }
+    }
+
+    private List<LeaderboardEntry> readLeaderboard(Connection conn, int sessionId) throws SQLException {
+        List<LeaderboardEntry> out = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(SQL_SESSION_LEADERBOARD)) {
             ps.setInt(1, sessionId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, String> row = new LinkedHashMap<>();
-                    row.put("participant_id", String.valueOf(rs.getInt("participant_id")));
-                    row.put("username", rs.getString("username"));
-                    row.put("total_score", String.valueOf(rs.getInt("total_score")));
-                    row.put("rank_pos", String.valueOf(rs.getInt("rank_pos")));
-                    out.add(row);
+                    out.add(new LeaderboardEntry(
+                            rs.getInt("participant_id"),
+                            rs.getString("username"),
+                            rs.getInt("total_score"),
+                            rs.getInt("rank_pos")));
                 }
             }
         }
@@ -115,15 +203,27 @@ public class ModeratedAnswerDAOImpl implements ModeratedAnswerDAO {
     @Override
     public boolean isAnswerCorrect(int questionId, String selectedAnswer) throws SQLException {
         try (Connection conn = DBConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT answer_key FROM questions WHERE question_id = ?")) {
+             PreparedStatement ps = conn.prepareStatement(SQL_FIND_ANSWER_KEY)) {
             ps.setInt(1, questionId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    String correctAnswer = rs.getString("answer_key");
-                    return correctAnswer.equalsIgnoreCase(selectedAnswer.trim());
+                    String correctAnswer = AnswerKeyIndex.canonical(rs.getString("answers_key"));
+                    return correctAnswer != null && correctAnswer.equals(AnswerKeyIndex.canonical(selectedAnswer));
                 }
             }
         }
         return false;
     }
+
+    private static Answer toAnswer(ResultSet rs) throws SQLException {
+        return new Answer(
+                rs.getInt("answer_id"),
+                rs.getInt("session_id"),
+                rs.getInt("question_id"),
+                rs.getInt("participant_id"),
+                rs.getString("selected_answer"),
+                rs.getBoolean("is_correct"),
+                rs.getInt("score"),
+                Rows.instant(rs, "created_at"));
+    }
 }
@@ -1,16 +1,20 @@
 package com.triviaapp.dao.impl;
 
 import com.triviaapp.dao.QuestionDAO;
+import com.triviaapp.dao.RowHandler;
+import com.triviaapp.model.Question;
 import com.triviaapp.util.DBConnectionManager;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class QuestionDAOImpl implements QuestionDAO {
 
@@ -20,27 +24,44 @@ public class QuestionDAOImpl implements QuestionDAO {
     private static final String SQL_INSERT = "INSERT INTO questions (category_id, xml_question, youtube_url, question_text, answers_option, answers_key, points, uploaded_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
     private static final String SQL_UPDATE = "UPDATE questions SET category_id = ?, xml_question = ?, youtube_url = ?, question_text = ?, answers_option = ?, answers_key = ?, points = ? WHERE question_id = ?";
     private static final String SQL_DELETE = "DELETE FROM questions WHERE question_id = ?";
+    // Re-categorising a question moves its answers' points between the user_category_scores rows they were added to
+    private static final String SQL_CATEGORY_FOR_UPDATE = "SELECT category_id FROM questions WHERE question_id = ? FOR UPDATE";
+    private static final String SQL_INDIVIDUAL_TOTALS_FOR_QUESTION = "SELECT user_id, SUM(score) AS total_score, COUNT(*) AS answered, SUM(CASE WHEN is_correct THEN 1 ELSE 0 END) AS correct FROM individual_answers WHERE question_id = ? GROUP BY user_id";
+    private static final String SQL_SUBTRACT_CATEGORY_SCORE = "UPDATE user_category_scores SET total_score = total_score - ?, answered = answered - ?, correct = correct - ? WHERE user_id = ? AND category_id = ?";
+    private static final String SQL_ADD_CATEGORY_SCORE = "INSERT INTO user_category_scores (user_id, category_id, total_score, answered, correct) VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE total_score = total_score + ?, answered = answered + ?, correct = correct + ?";
+
+    // findQuestionsByIds pads each IN list to one of a few fixed sizes, so the server and the statement cache see
+    // four statements instead of one per list length.
+    private static final String SQL_FIND_BY_IDS_8 = "SELECT * FROM questions WHERE question_id IN (" + Rows.placeholders(8) + ")";
+    private static final String SQL_FIND_BY_IDS_32 = "SELECT * FROM questions WHERE question_id IN (" + Rows.placeholders(32) + ")";
+    private static final String SQL_FIND_BY_IDS_128 = "SELECT * FROM questions WHERE question_id IN (" + Rows.placeholders(128) + ")";
+    private static final String SQL_FIND_BY_IDS_512 = "SELECT * FROM questions WHERE question_id IN (" + Rows.placeholders(512) + ")";
+    private static final int MAX_IN_LIST = 512;
+
+    // Rows per executeBatch() in createQuestionsBatch; keeps packets and driver buffers bounded for big imports.
+    private static final int BATCH_SIZE = 500;
 
     @Override
-    public Map<String, String> findQuestionById(int questionId) throws SQLException {
-        try (Connection conn = DBConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(SQL_FIND_QUESTION_BY_ID)) {
+    public Question findQuestionById(int questionId) throws SQLException {
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            return readQuestionById(conn, questionId);
+        }
+    }
+
+    @Override
+    public Question findQuestionByIdFromPrimary(int questionId) throws SQLException {
+        // Not @ReadOnly, so the router hands out a primary connection
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            return readQuestionById(conn, questionId);
+        }
+    }
+
+    private Question readQuestionById(Connection conn, int questionId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_FIND_QUESTION_BY_ID)) {
             ps.setInt(1, questionId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    Map<String, String> out = new LinkedHashMap<>();
-                    out.put("question_id", String.valueOf(rs.getInt("question_id")));
-                    out.put("category_id", String.valueOf(rs.getInt("category_id")));
-                    out.put("xml_question", rs.getString("xml_question"));
-                    out.put("youtube_url", rs.getString("youtube_url"));
-                    out.put("question_text", rs.getString("question_text"));
-                    out.put("answers_option", rs.getString("answers_option"));
-                    out.put("answers_key", rs.getString("answers_key"));
-                    out.put("points", String.valueOf(rs.getInt("points")));
-                    out.put("uploaded_by", String.valueOf(rs.getInt("uploaded_by")));
-                    out.put("created_at", rs.getString("created_at"));
-                    out.put("updated_at", rs.getString("updated_at"));
-                    return out;
+                    return toQuestion(rs);
                 }
             }
         }
@@ -48,45 +69,91 @@ public class QuestionDAOImpl implements QuestionDAO {
     }
 
     @Override
-    public List<Map<String, String>> findQuestionsByCategory(int categoryId) throws SQLException {
-        List<Map<String, String>> out = new ArrayList<>();
-       try (Connection conn = DBConnectionManager.getConnection();
-           PreparedStatement ps = conn.prepareStatement(SQL_LIST_QUESTIONS_BY_CATEGORY)) {
+    public List<Question> findQuestionsByCategory(int categoryId) throws SQLException {
+        List<Question> out = new ArrayList<>();
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_LIST_QUESTIONS_BY_CATEGORY)) {
             ps.setInt(1, categoryId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, String> row = new LinkedHashMap<>();
-                    row.put("question_id", String.valueOf(rs.getInt("question_id")));
-                    row.put("category_id", String.valueOf(rs.getInt("category_id")));
-                    row.put("xml_question", rs.getString("xml_question"));
-                    row.put("youtube_url", rs.getString("youtube_url"));
-                    row.put("question_text", rs.getString("question_text"));
-                    row.put("answers_option", rs.getString("answers_option"));
-                    row.put("answers_key", rs.getString("answers_key"));
-                    row.put("points", String.valueOf(rs.getInt("points")));
-                    row.put("uploaded_by", String.valueOf(rs.getInt("uploaded_by")));
-                    row.put("created_at", rs.getString("created_at"));
-                    row.put("updated_at", rs.getString("updated_at"));
-                    out.add(row);
+                    out.add(toQuestion(rs));
+                }
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public List<Question> findQuestionsByIds(int[] questionIds) throws SQLException {
+        if (questionIds.length == 0) return new ArrayList<>();
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            return readQuestionsByIds(conn, questionIds);
+        }
+    }
+
+    @Override
+    public List<Question> findQuestionsByIdsFromPrimary(int[] questionIds) throws SQLException {
+        if (questionIds.length == 0) return new ArrayList<>();
+        // Not @ReadOnly, so the router hands out a primary connection
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            return readQuestionsByIds(conn, questionIds);
+        }
+    }
+
+    private List<Question> readQuestionsByIds(Connection conn, int[] questionIds) throws SQLException {
+        Map<Integer, Question> byId = new HashMap<>(questionIds.length * 2);
+        for (int from = 0; from < questionIds.length; from += MAX_IN_LIST) {
+            int n = Math.min(MAX_IN_LIST, questionIds.length - from);
+            String sql = n <= 8 ? SQL_FIND_BY_IDS_8 : n <= 32 ? SQL_FIND_BY_IDS_32
+                    : n <= 128 ? SQL_FIND_BY_IDS_128 : SQL_FIND_BY_IDS_512;
+            int slots = n <= 8 ? 8 : n <= 32 ? 32 : n <= 128 ? 128 : MAX_IN_LIST;
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                // Unused slots repeat the last id; duplicates in an IN list match nothing extra.
+                for (int i = 0; i < slots; i++) {
+                    ps.setInt(i + 1, questionIds[from + Math.min(i, n - 1)]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Question q = toQuestion(rs);
+                        byId.put(q.getQuestionId(), q);
+                    }
                 }
             }
         }
+        List<Question> out = new ArrayList<>(byId.size());
+        for (int id : questionIds) {
+            Question q = byId.get(id);
+            if (q != null) out.add(q);
+        }
         return out;
     }
 
     @Override
-    public List<Integer> findQuestionIdsByCategory(int categoryId) throws SQLException {
-        List<Integer> ids = new ArrayList<>();
+    public long streamQuestionsByCategory(int categoryId, RowHandler<Question> handler)
+            throws SQLException, IOException {
+        long n = 0;
         try (Connection conn = DBConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(SQL_SELECT_IDS_BY_CATEGORY)) {
+             PreparedStatement ps = Rows.prepareStreaming(conn, SQL_LIST_QUESTIONS_BY_CATEGORY)) {
             ps.setInt(1, categoryId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    ids.add(rs.getInt("question_id"));
+                    handler.handle(toQuestion(rs));
+                    n++;
                 }
             }
         }
-        return ids;
+        return n;
+    }
+
+    @Override
+    public int[] findQuestionIdsByCategory(int categoryId) throws SQLException {
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_SELECT_IDS_BY_CATEGORY)) {
+            ps.setInt(1, categoryId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return Rows.ints(rs, 64);
+            }
+        }
     }
 
     @Override
@@ -108,18 +175,88 @@ public class QuestionDAOImpl implements QuestionDAO {
 
     @Override
     public boolean updateQuestion(int questionId, int categoryId, String xmlQuestion, String youtubeUrl, String questionText, String answersOptionJson, String answersKey, int points) throws SQLException {
-        try (Connection conn = DBConnectionManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(SQL_UPDATE)) {
-            ps.setInt(1, categoryId);
-            ps.setString(2, xmlQuestion);
-            ps.setString(3, youtubeUrl);
-            ps.setString(4, questionText);
-            ps.setString(5, answersOptionJson);
-            ps.setString(6, answersKey);
-            ps.setInt(7, points);
-            ps.setInt(8, questionId);
-            int rows = ps.executeUpdate();
-            return rows > 0;
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            boolean oldAuto = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                // Locking the row first makes answers being written for it either finish before the totals are
+                // moved or wait and then add to the new category.
+                int oldCategoryId;
+                try (PreparedStatement ps = conn.prepareStatement(SQL_CATEGORY_FOR_UPDATE)) {
+                    ps.setInt(1, questionId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return false;
+                        }
+                        oldCategoryId = rs.getInt(1);
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(SQL_UPDATE)) {
+                    ps.setInt(1, categoryId);
+                    ps.setString(2, xmlQuestion);
+                    ps.setString(3, youtubeUrl);
+                    ps.setString(4, questionText);
+                    ps.setString(5, answersOptionJson);
+                    ps.setString(6, answersKey);
+                    ps.setInt(7, points);
+                    ps.setInt(8, questionId);
+                    ps.executeUpdate();
+                }
+                if (oldCategoryId != categoryId) {
+                    moveCategoryScores(conn, questionId, oldCategoryId, categoryId);
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(oldAuto);
+            }
+        }
+    }
+
+    /** Move the question's individual-mode answers from one category's score rollup rows to another's. */
+    private void moveCategoryScores(Connection conn, int questionId, int fromCategoryId, int toCategoryId)
+            throws SQLException {
+        try (PreparedStatement totals = conn.prepareStatement(SQL_INDIVIDUAL_TOTALS_FOR_QUESTION);
+             PreparedStatement subtract = conn.prepareStatement(SQL_SUBTRACT_CATEGORY_SCORE);
+             PreparedStatement add = conn.prepareStatement(SQL_ADD_CATEGORY_SCORE)) {
+            totals.setInt(1, questionId);
+            int pending = 0;
+            try (ResultSet rs = totals.executeQuery()) {
+                while (rs.next()) {
+                    int userId = rs.getInt("user_id");
+                    int score = rs.getInt("total_score");
+                    int answered = rs.getInt("answered");
+                    int correct = rs.getInt("correct");
+                    subtract.setInt(1, score);
+                    subtract.setInt(2, answered);
+                    subtract.setInt(3, correct);
+                    subtract.setInt(4, userId);
+                    subtract.setInt(5, fromCategoryId);
+                    subtract.addBatch();
+                    add.setInt(1, userId);
+                    add.setInt(2, toCategoryId);
+                    add.setInt(3, score);
+                    add.setInt(4, answered);
+                    add.setInt(5, correct);
+                    add.setInt(6, score);
+                    add.setInt(7, answered);
+                    add.setInt(8, correct);
+                    add.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        subtract.executeBatch();
+                        add.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                subtract.executeBatch();
+                add.executeBatch();
+            }
         }
     }
 
@@ -132,4 +269,52 @@ public class QuestionDAOImpl implements QuestionDAO {
             return rows > 0;
         }
     }
+
+    @Override
+    public int[] createQuestionsBatch(Connection conn, List<Question> questions) throws SQLException {
+        int[] ids = new int[questions.size()];
+        int next = 0;
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < questions.size(); i++) {
+                Question q = questions.get(i);
+                ps.setInt(1, q.getCategoryId());
+                ps.setString(2, q.getXmlQuestion());
+                ps.setString(3, q.getYoutubeUrl());
+                ps.setString(4, q.getQuestionText());
+                ps.setString(5, q.getAnswersOption());
+                ps.setString(6, q.getAnswersKey());
+                ps.setInt(7, q.getPoints());
+                ps.setInt(8, q.getUploadedBy());
+                ps.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == questions.size() - 1) {
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next() && next < ids.length) {
+                            ids[next++] = keys.getInt(1);
+                        }
+                    }
+                }
+            }
+        }
+        if (next != ids.length) {
+            throw new SQLException("Expected " + ids.length + " generated question ids but got " + next);
+        }
+        return ids;
+    }
+
+    /** Maps a {@code questions} row; shared with {@link SessionDAOImpl}'s joined queries. */
+    static Question toQuestion(ResultSet rs) throws SQLException {
+        return new Question(
+                rs.getInt("question_id"),
+                rs.getInt("category_id"),
+                rs.getString("xml_question"),
+                rs.getString("youtube_url"),
+                rs.getString("question_text"),
+                rs.getString("answers_option"),
+                rs.getString("answers_key"),
+                rs.getInt("points"),
+                rs.getInt("uploaded_by"),
+                Rows.instant(rs, "created_at"),
+                Rows.instant(rs, "updated_at"));
+    }
 }
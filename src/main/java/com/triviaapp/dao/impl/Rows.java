@@ -0,0 +1,65 @@
+package com.triviaapp.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Small ResultSet helpers shared by the DAO implementations.
+ */
+final class Rows {
+
+    // Rows per round trip for streamed reads on drivers that honour a positive fetch size (H2, PostgreSQL).
+    private static final int STREAM_FETCH_SIZE = 1_000;
+
+    private Rows() {
+    }
+
+    /**
+     * Prepare a forward-only, read-only statement whose result set is streamed rather than buffered whole.
+     *
+     * MySQL Connector/J only streams with a fetch size of {@link Integer#MIN_VALUE} (or with useCursorFetch), and
+     * a streaming result must be fully read or closed before the connection runs anything else. The three-argument
+     * prepare bypasses the pooled statement cache, so the fetch size never leaks into other callers.
+     */
+    static PreparedStatement prepareStreaming(Connection conn, String sql) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        boolean mysql = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+        ps.setFetchSize(mysql ? Integer.MIN_VALUE : STREAM_FETCH_SIZE);
+        return ps;
+    }
+
+    /** "?, ?, ?" with {@code n} placeholders, for IN lists. */
+    static String placeholders(int n) {
+        StringBuilder sb = new StringBuilder(n * 3);
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    /** The column as an Instant, or null when SQL NULL. */
+    static Instant instant(ResultSet rs, String column) throws SQLException {
+        Timestamp ts = rs.getTimestamp(column);
+        return ts == null ? null : ts.toInstant();
+    }
+
+    /**
+     * Read a single-int-column result into an array without boxing. {@code expected} is a sizing hint.
+     */
+    static int[] ints(ResultSet rs, int expected) throws SQLException {
+        int[] out = new int[Math.max(expected, 16)];
+        int n = 0;
+        while (rs.next()) {
+            if (n == out.length) out = Arrays.copyOf(out, n * 2);
+            out[n++] = rs.getInt(1);
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+}
@@ -1,22 +1,28 @@
 package com.triviaapp.dao.impl;
 
 import com.triviaapp.dao.SessionDAO;
+import com.triviaapp.model.Page;
+import com.triviaapp.model.Participant;
+import com.triviaapp.model.QuizSession;
+import com.triviaapp.model.SessionQuestion;
+import com.triviaapp.model.SessionSummary;
 import com.triviaapp.util.DBConnectionManager;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 public class SessionDAOImpl implements SessionDAO {
 
     private static final String SQL_FIND_BY_ID = "SELECT * FROM sessions WHERE session_id = ?";
     private static final String SQL_LIST_BY_HOST = "SELECT * FROM sessions WHERE host_user_id = ? ORDER BY start_at DESC";
+    private static final String SQL_PAGE_BY_HOST_FIRST = "SELECT * FROM sessions WHERE host_user_id = ? ORDER BY start_at DESC, session_id DESC LIMIT ?";
+    private static final String SQL_PAGE_BY_HOST_AFTER = "SELECT * FROM sessions WHERE host_user_id = ? AND (start_at < ? OR (start_at = ? AND session_id < ?)) ORDER BY start_at DESC, session_id DESC LIMIT ?";
     private static final String SQL_INSERT = "INSERT INTO sessions (host_user_id, session_name, category_id, max_participants, status, start_at, end_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
     private static final String SQL_UPDATE_STATUS = "UPDATE sessions SET status = ?, end_at = CASE WHEN ? = 'completed' THEN CURRENT_TIMESTAMP ELSE end_at END WHERE session_id = ?";
     private static final String SQL_END_SESSION_NOW = "UPDATE sessions SET status = 'completed', end_at = CURRENT_TIMESTAMP WHERE session_id = ? AND status <> 'completed'";
@@ -26,6 +32,25 @@ public class SessionDAOImpl implements SessionDAO {
     private static final String SQL_INSERT_FROM_CATEGORY = "INSERT INTO session_questions (session_id, question_id) SELECT ?, q.question_id FROM questions q WHERE q.category_id = ?";
     private static final String SQL_INSERT_SESSSION_QUESTIONS = "INSERT INTO session_questions (session_id, question_id) VALUES (?, ?)";
     private static final String SQL_SELECT_SESSION_QUESTION_IDS = "SELECT question_id FROM session_questions WHERE session_id = ? ORDER BY question_id ASC";
+    private static final String SQL_SELECT_SESSION_QUESTION_PACK = String.join("\n",
+            "SELECT q.*, c.name AS category_name",
+            "FROM session_questions sq",
+            "JOIN questions q ON q.question_id = sq.question_id",
+            "JOIN categories c ON c.category_id = q.category_id",
+            "WHERE sq.session_id = ?",
+            "ORDER BY sq.question_id ASC");
+    // current_index counts session questions in question_id order, so the current one is the question with exactly
+    // current_index smaller ids in the session. The count is an index-only range on the (session_id, question_id)
+    // primary key; sessions hold tens of questions, and this avoids window functions (MySQL 8+ only).
+    private static final String SQL_SELECT_CURRENT_QUESTION = String.join("\n",
+            "SELECT s.current_index, q.*, c.name AS category_name",
+            "FROM sessions s",
+            "JOIN session_questions sq ON sq.session_id = s.session_id",
+            "JOIN questions q ON q.question_id = sq.question_id",
+            "JOIN categories c ON c.category_id = q.category_id",
+            "WHERE s.session_id = ?",
+            "  AND s.current_index = (SELECT COUNT(*) FROM session_questions sq2",
+            "                         WHERE sq2.session_id = sq.session_id AND sq2.question_id < sq.question_id)");
 
     // current_index management on sessions table (multiplayer host-driven sync)
     private static final String SQL_GET_CURRENT_INDEX = "SELECT current_index FROM sessions WHERE session_id = ?";
@@ -33,8 +58,9 @@ public class SessionDAOImpl implements SessionDAO {
     private static final String SQL_DECREMENT_CURRENT_INDEX = "UPDATE sessions SET current_index = current_index - 1 WHERE session_id = ? AND current_index > 0";
     
     private static final String SQL_LIST_ACTIVE_SUMMARY = String.join("\n",
-            "SELECT s.session_id, s.session_name, s.host_user_id, s.max_participants, s.status, COALESCE(sp.cnt,0) AS current_participants",
+            "SELECT s.session_id, s.session_name, s.host_user_id, u.username AS host_username, s.max_participants, s.status, COALESCE(sp.cnt,0) AS current_participants",
             "FROM sessions s",
+            "JOIN users u ON s.host_user_id = u.user_id",
             "LEFT JOIN (",
             "  SELECT session_id, COUNT(*) AS cnt",
             "  FROM session_participants",
@@ -61,21 +87,13 @@ public class SessionDAOImpl implements SessionDAO {
         "UPDATE session_participants SET status = 'left', left_at = CURRENT_TIMESTAMP WHERE session_id = ? AND participant_id = ? AND status = 'joined'";
 
     @Override
-    public Map<String, String> findSessionById(int sessionId) throws SQLException {
+    public QuizSession findSessionById(int sessionId) throws SQLException {
         try (Connection conn = DBConnectionManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(SQL_FIND_BY_ID)) {
             ps.setInt(1, sessionId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    Map<String, String> out = new LinkedHashMap<>();
-                    out.put("session_id", String.valueOf(rs.getInt("session_id")));
-                    out.put("host_user_id", String.valueOf(rs.getInt("host_user_id")));
-                    out.put("session_name", rs.getString("session_name"));
-                    out.put("max_participants", String.valueOf(rs.getObject("max_participants")));
-                    out.put("status", rs.getString("status"));
-                    out.put("start_at", rs.getString("start_at"));
-                    out.put("end_at", rs.getString("end_at"));
-                    return out;
+                    return toSession(rs);
                 }
             }
         }
@@ -83,28 +101,39 @@ public class SessionDAOImpl implements SessionDAO {
     }
 
     @Override
-    public List<Map<String, String>> findSessionsByHost(int hostUserId) throws SQLException {
-        List<Map<String, String>> out = new ArrayList<>();
+    public List<QuizSession> findSessionsByHost(int hostUserId) throws SQLException {
+        List<QuizSession> out = new ArrayList<>();
         try (Connection conn = DBConnectionManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(SQL_LIST_BY_HOST)) {
             ps.setInt(1, hostUserId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, String> row = new LinkedHashMap<>();
-                    row.put("session_id", String.valueOf(rs.getInt("session_id")));
-                    row.put("host_user_id", String.valueOf(rs.getInt("host_user_id")));
-                    row.put("session_name", rs.getString("session_name"));
-                    row.put("max_participants", String.valueOf(rs.getObject("max_participants")));
-                    row.put("status", rs.getString("status"));
-                    row.put("start_at", rs.getString("start_at"));
-                    row.put("end_at", rs.getString("end_at"));
-                    out.add(row);
+                    out.add(toSession(rs));
                 }
             }
         }
         return out;
     }
 
+    @Override
+    public Page<QuizSession> findSessionsByHost(int hostUserId, String cursor, int limit) throws SQLException {
+        Keyset.checkLimit(limit);
+        Keyset.Position after = Keyset.decode(cursor);
+        List<QuizSession> out = new ArrayList<>(limit + 1);
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(after == null ? SQL_PAGE_BY_HOST_FIRST : SQL_PAGE_BY_HOST_AFTER)) {
+            ps.setInt(1, hostUserId);
+            int next = after == null ? 2 : after.bind(ps, 2);
+            ps.setInt(next, limit + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(toSession(rs));
+                }
+            }
+        }
+        return Keyset.page(out, limit, QuizSession::getStartAt, QuizSession::getSessionId);
+    }
+
     @Override
     public boolean createSession(int hostUserId, String sessionName, Integer categoryId, Integer maxParticipants, String status, Timestamp startAt, Timestamp endAt) throws SQLException {
         try (Connection conn = DBConnectionManager.getConnection();
@@ -127,6 +156,26 @@ public class SessionDAOImpl implements SessionDAO {
         }
     }
 
+    @Override
+    public int createSessionReturningId(Connection conn, int hostUserId, String sessionName, Integer categoryId, Integer maxParticipants, String status, Timestamp startAt, Timestamp endAt) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, hostUserId);
+            ps.setString(2, sessionName);
+            if (categoryId != null) ps.setInt(3, categoryId); else ps.setNull(3, java.sql.Types.INTEGER);
+            if (maxParticipants != null) ps.setInt(4, maxParticipants); else ps.setNull(4, java.sql.Types.INTEGER);
+            ps.setString(5, status);
+            ps.setTimestamp(6, startAt != null ? startAt : new Timestamp(System.currentTimeMillis()));
+            if (endAt != null) ps.setTimestamp(7, endAt); else ps.setNull(7, java.sql.Types.TIMESTAMP);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getInt(1);
+                }
+            }
+        }
+        throw new SQLException("No generated key returned for new session");
+    }
+
     @Override
     public boolean updateSessionStatus(int sessionId, String status) throws SQLException {
         try (Connection conn = DBConnectionManager.getConnection();
@@ -161,40 +210,39 @@ public class SessionDAOImpl implements SessionDAO {
     }
 
     @Override
-    public List<Map<String, String>> listActiveSessionsSummary() throws SQLException {
-        List<Map<String, String>> out = new ArrayList<>();
+    public List<SessionSummary> listActiveSessionsSummary() throws SQLException {
+        List<SessionSummary> out = new ArrayList<>();
         try (Connection conn = DBConnectionManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(SQL_LIST_ACTIVE_SUMMARY);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                Map<String, String> row = new LinkedHashMap<>();
-                row.put("session_id", String.valueOf(rs.getInt("session_id")));
-                row.put("session_name", rs.getString("session_name"));
-                row.put("host_user_id", String.valueOf(rs.getInt("host_user_id")));
-                row.put("max_participants", String.valueOf(rs.getObject("max_participants")));
-                row.put("status", rs.getString("status"));
-                row.put("current_participants", String.valueOf(rs.getInt("current_participants")));
-                out.add(row);
+                out.add(new SessionSummary(
+                        rs.getInt("session_id"),
+                        rs.getString("session_name"),
+                        rs.getInt("host_user_id"),
+                        rs.getString("host_username"),
+                        rs.getInt("max_participants"),
+                        rs.getString("status"),
+                        rs.getInt("current_participants")));
             }
         }
         return out;
     }
 
     @Override
-    public List<Map<String, String>> findParticipantsBySession(int sessionId) throws SQLException {
-        List<Map<String, String>> out = new ArrayList<>();
+    public List<Participant> findParticipantsBySession(int sessionId) throws SQLException {
+        List<Participant> out = new ArrayList<>();
         try (Connection conn = DBConnectionManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(SQL_LIST_PARTICIPANTS_BY_SESSION)) {
             ps.setInt(1, sessionId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, String> row = new LinkedHashMap<>();
-                    row.put("participant_id", String.valueOf(rs.getInt("participant_id")));
-                    row.put("username", rs.getString("username"));
-                    row.put("joined_at", rs.getString("joined_at"));
-                    row.put("left_at", rs.getString("left_at"));
-                    row.put("status", rs.getString("status"));
-                    out.add(row);
+                    out.add(new Participant(
+                            rs.getInt("participant_id"),
+                            rs.getString("username"),
+                            Rows.instant(rs, "joined_at"),
+                            Rows.instant(rs, "left_at"),
+                            rs.getString("status")));
                 }
             }
         }
@@ -266,18 +314,58 @@ public class SessionDAOImpl implements SessionDAO {
     }
 
     @Override
-    public List<Integer> findQuestionIdsForSession(int sessionId) throws SQLException {
-        List<Integer> ids = new ArrayList<>();
+    public void insertQuestionsForSession(Connection conn, int sessionId, int[] questionIds) throws SQLException {
+        if (questionIds.length == 0) return;
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT_SESSSION_QUESTIONS)) {
+            for (int questionId : questionIds) {
+                ps.setInt(1, sessionId);
+                ps.setInt(2, questionId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @Override
+    public int[] findQuestionIdsForSession(int sessionId) throws SQLException {
         try (Connection conn = DBConnectionManager.getConnection();
              PreparedStatement ps = conn.prepareStatement(SQL_SELECT_SESSION_QUESTION_IDS)) {
             ps.setInt(1, sessionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return Rows.ints(rs, 32);
+            }
+        }
+    }
+
+    @Override
+    public List<SessionQuestion> findSessionQuestionPack(int sessionId) throws SQLException {
+        List<SessionQuestion> out = new ArrayList<>();
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_SELECT_SESSION_QUESTION_PACK)) {
+            ps.setInt(1, sessionId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    ids.add(rs.getInt("question_id"));
+                    out.add(new SessionQuestion(out.size(), QuestionDAOImpl.toQuestion(rs),
+                            rs.getString("category_name")));
                 }
             }
         }
-        return ids;
+        return out;
+    }
+
+    @Override
+    public SessionQuestion findCurrentQuestion(int sessionId) throws SQLException {
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_SELECT_CURRENT_QUESTION)) {
+            ps.setInt(1, sessionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new SessionQuestion(rs.getInt("current_index"), QuestionDAOImpl.toQuestion(rs),
+                            rs.getString("category_name"));
+                }
+            }
+        }
+        return null;
     }
 
     @Override
@@ -365,4 +453,17 @@ public class SessionDAOImpl implements SessionDAO {
             }
         }
     }
+
+    private static QuizSession toSession(ResultSet rs) throws SQLException {
+        return new QuizSession(
+                rs.getInt("session_id"),
+                rs.getInt("host_user_id"),
+                rs.getString("session_name"),
+                rs.getInt("category_id"),
+                rs.getInt("max_participants"),
+                rs.getString("status"),
+                rs.getInt("current_index"),
+                Rows.instant(rs, "start_at"),
+                Rows.instant(rs, "end_at"));
+    }
 }
@@ -1,6 +1,7 @@
 package com.triviaapp.dao.impl;
 
 import com.triviaapp.dao.UserDAO;
+import com.triviaapp.model.UserPrincipal;
 import com.triviaapp.util.DBConnectionManager;
 
 import java.sql.Connection;
@@ -13,6 +14,14 @@ public class UserDAOImpl implements UserDAO {
     private static final String SQL_FIND_PASSWORD_BY_EMAIL = "SELECT password_hash FROM users WHERE email = ?";
     private static final String SQL_INSERT = "INSERT INTO users (username, email, password_hash, role_id) VALUES (?, ?, ?, ?)";
     private static final String SQL_FIND_USERID_BY_EMAIL = "SELECT user_id FROM users WHERE email = ?";
+    private static final String SQL_FIND_ROLE_ID_BY_USER_ID = "SELECT role_id FROM users WHERE user_id = ?";
+    private static final String SQL_FIND_PRINCIPAL_BY_EMAIL = String.join("\n",
+            "SELECT u.user_id, u.password_hash, u.role_id, r.role_name",
+            "FROM users u",
+            "LEFT JOIN roles r ON r.role_id = u.role_id",
+            "WHERE u.email = ?");
+    private static final String SQL_UPDATE_PASSWORD_HASH =
+            "UPDATE users SET password_hash = ? WHERE user_id = ? AND password_hash = ?";
 
     @Override
     public String findPasswordByEmail(String email) throws SQLException {
@@ -56,9 +65,8 @@ public class UserDAOImpl implements UserDAO {
 
     @Override
     public int findUserRoleIDByID(int userId) throws SQLException {
-        String sql = "SELECT role_id FROM users WHERE user_id = ?";
         try (Connection conn = DBConnectionManager.getConnection();
-            PreparedStatement ps = conn.prepareStatement(sql)) {
+            PreparedStatement ps = conn.prepareStatement(SQL_FIND_ROLE_ID_BY_USER_ID)) {
             ps.setInt(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -68,4 +76,30 @@ public class UserDAOImpl implements UserDAO {
         }
         return -1;
     }
+
+    @Override
+    public UserPrincipal findPrincipalByEmail(String email) throws SQLException {
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_FIND_PRINCIPAL_BY_EMAIL)) {
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new UserPrincipal(rs.getInt("user_id"), rs.getString("password_hash"),
+                            rs.getInt("role_id"), rs.getString("role_name"));
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean updatePasswordHash(int userId, String oldHash, String newHash) throws SQLException {
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_UPDATE_PASSWORD_HASH)) {
+            ps.setString(1, newHash);
+            ps.setInt(2, userId);
+            ps.setString(3, oldHash);
+            return ps.executeUpdate() > 0;
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package com.triviaapp.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Opens a brand-new physical JDBC connection. Used by {@link ConnectionPool} whenever it needs to grow.
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+
+    /**
+     * Open a new physical connection. Implementations must not return pooled/logical connections.
+     */
+    Connection create() throws SQLException;
+}
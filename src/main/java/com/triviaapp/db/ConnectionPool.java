@@ -0,0 +1,512 @@
+package com.triviaapp.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of physical JDBC connections.
+ *
+ * Callers get a logical {@link Connection} from {@link #borrow()}; calling {@code close()} on it hands the
+ * physical connection back to the pool instead of closing the socket. Idle connections are reused LIFO so the
+ * warmest ones are handed out first, validated with a cheap {@link Connection#isValid(int)} ping when they have
+ * been idle for a while, retired once they pass the configured max lifetime, and trimmed back to the minimum
+ * size by a background housekeeper. Each physical connection keeps its own {@link StatementCache} so repeated
+ * DAO statements are prepared once per connection.
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+    private final String name;
+    private final ConnectionFactory factory;
+    private final PoolConfig config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    private int active;
+    private int pending;
+    private int waiting;
+    private boolean closed;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder borrowNanosTotal = new LongAdder();
+    private final AtomicLong borrowNanosMax = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String name, ConnectionFactory factory, PoolConfig config) {
+        this.name = name;
+        this.factory = factory;
+        this.config = config;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+        // First run happens immediately so the pool is warmed up to minSize in the background.
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0,
+                config.getHousekeepingIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Borrow a connection, waiting up to the configured borrow timeout for one to become free.
+     *
+     * @throws SQLTransientConnectionException when no connection became available in time
+     */
+    public Connection borrow() throws SQLException {
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getBorrowTimeoutMillis());
+
+        while (true) {
+            PooledConnection pc = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool '" + name + "' is closed");
+                    }
+                    pc = idle.pollFirst();
+                    if (pc != null) {
+                        active++;
+                        break;
+                    }
+                    if (active + pending < config.getMaxSize()) {
+                        pending++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        borrowTimeouts.increment();
+                        throw new SQLTransientConnectionException(String.format(
+                                "Timed out after %dms waiting for a database connection from pool '%s' "
+                                        + "(active=%d, idle=%d, waiting=%d, max=%d)",
+                                config.getBorrowTimeoutMillis(), name, active, idle.size(), waiting,
+                                config.getMaxSize()));
+                    }
+                    waiting++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiting--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                pc = openPhysical();
+                lock.lock();
+                try {
+                    pending--;
+                    active++;
+                } finally {
+                    lock.unlock();
+                }
+            } else if (!validate(pc)) {
+                validationFailures.increment();
+                lock.lock();
+                try {
+                    active--;
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+                destroy(pc);
+                continue;
+            }
+
+            long waited = System.nanoTime() - start;
+            QueryMetrics.recordConnectionWait(name, waited);
+            borrowCount.increment();
+            borrowNanosTotal.add(waited);
+            borrowNanosMax.accumulateAndGet(waited, Math::max);
+            return pc.newLogicalConnection();
+        }
+    }
+
+    /**
+     * Number of connections currently borrowed.
+     */
+    public int activeCount() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Snapshot of pool counters for monitoring.
+     */
+    public PoolStats stats() {
+        int a;
+        int i;
+        int w;
+        lock.lock();
+        try {
+            a = active;
+            i = idle.size();
+            w = waiting;
+        } finally {
+            lock.unlock();
+        }
+        long borrows = borrowCount.sum();
+        double avg = borrows == 0 ? 0.0 : borrowNanosTotal.sum() / (double) borrows / 1_000_000.0;
+        return new PoolStats(name, a, i, w, config.getMaxSize(), borrows, borrowTimeouts.sum(),
+                createdCount.sum(), destroyedCount.sum(), validationFailures.sum(),
+                avg, borrowNanosMax.get() / 1_000_000.0);
+    }
+
+    /**
+     * Close all idle connections and refuse further borrows. Borrowed connections are closed when returned.
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pc : toClose) {
+            destroy(pc);
+        }
+    }
+
+    // --- internals --------------------------------------------------------
+
+    private PooledConnection openPhysical() throws SQLException {
+        try {
+            Connection raw = factory.create();
+            createdCount.increment();
+            return new PooledConnection(raw);
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                pending--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean validate(PooledConnection pc) {
+        long now = System.currentTimeMillis();
+        if (isExpired(pc, now)) {
+            return false;
+        }
+        if (now - pc.lastReturnedAt < config.getValidationIntervalMillis()) {
+            return true;
+        }
+        try {
+            return pc.raw.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pc, long now) {
+        return config.getMaxLifetimeMillis() > 0 && now - pc.createdAt >= config.getMaxLifetimeMillis();
+    }
+
+    private void release(PooledConnection pc) {
+        boolean reusable = !pc.broken && resetState(pc) && !isExpired(pc, System.currentTimeMillis());
+        lock.lock();
+        try {
+            active--;
+            if (reusable && !closed) {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(pc);
+            } else {
+                reusable = false;
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (!reusable) {
+            destroy(pc);
+        }
+    }
+
+    /**
+     * Undo session state a caller may have changed so the next borrower sees a clean connection.
+     */
+    private boolean resetState(PooledConnection pc) {
+        try {
+            if (pc.autoCommitChanged) {
+                if (!pc.raw.getAutoCommit()) {
+                    pc.raw.rollback();
+                    pc.raw.setAutoCommit(true);
+                }
+                pc.autoCommitChanged = false;
+            }
+            if (pc.readOnlyChanged) {
+                pc.raw.setReadOnly(false);
+                pc.readOnlyChanged = false;
+            }
+            if (pc.isolationChanged) {
+                pc.raw.setTransactionIsolation(pc.defaultIsolation);
+                pc.isolationChanged = false;
+            }
+            pc.raw.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pc) {
+        destroyedCount.increment();
+        try {
+            pc.raw.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private void housekeep() {
+        try {
+            List<PooledConnection> evicted = new ArrayList<>();
+            int toCreate;
+            lock.lock();
+            try {
+                if (closed) return;
+                long now = System.currentTimeMillis();
+                // Oldest idle connections sit at the tail because returns go to the head.
+                Iterator<PooledConnection> it = idle.descendingIterator();
+                while (it.hasNext()) {
+                    PooledConnection pc = it.next();
+                    boolean aboveMin = active + pending + idle.size() > config.getMinSize();
+                    boolean idleTooLong = config.getIdleTimeoutMillis() > 0
+                            && now - pc.lastReturnedAt >= config.getIdleTimeoutMillis();
+                    if (isExpired(pc, now) || (aboveMin && idleTooLong)) {
+                        it.remove();
+                        evicted.add(pc);
+                    }
+                }
+                toCreate = Math.max(0, config.getMinSize() - (active + pending + idle.size()));
+                pending += toCreate;
+            } finally {
+                lock.unlock();
+            }
+
+            for (PooledConnection pc : evicted) {
+                destroy(pc);
+            }
+            for (int i = 0; i < toCreate; i++) {
+                PooledConnection pc;
+                try {
+                    pc = openPhysical();
+                } catch (SQLException | RuntimeException e) {
+                    // openPhysical already released this slot; give the rest back too and retry next run.
+                    lock.lock();
+                    try {
+                        pending -= toCreate - i - 1;
+                    } finally {
+                        lock.unlock();
+                    }
+                    System.err.println("Connection pool '" + name + "' could not open a connection: " + e.getMessage());
+                    return;
+                }
+                boolean keep;
+                lock.lock();
+                try {
+                    pending--;
+                    keep = !closed;
+                    if (keep) {
+                        idle.addLast(pc);
+                        available.signal();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (!keep) destroy(pc);
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * A physical connection plus the bookkeeping the pool needs about it.
+     */
+    private final class PooledConnection {
+        final Connection raw;
+        final StatementCache statements;
+        final long createdAt = System.currentTimeMillis();
+        final int defaultIsolation;
+        volatile long lastReturnedAt = createdAt;
+        volatile boolean broken;
+        boolean autoCommitChanged;
+        boolean readOnlyChanged;
+        boolean isolationChanged;
+
+        PooledConnection(Connection raw) throws SQLException {
+            this.raw = raw;
+            this.defaultIsolation = raw.getTransactionIsolation();
+            this.statements = config.getStatementCacheSize() > 0
+                    ? new StatementCache(raw, config.getStatementCacheSize()) : null;
+        }
+
+        Connection newLogicalConnection() {
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LogicalConnectionHandler(this));
+        }
+    }
+
+    /**
+     * Handler behind the {@link Connection} proxy handed to callers. Everything is forwarded to the physical
+     * connection except {@code close()}, which closes leftover statements and returns the connection to the pool.
+     */
+    private final class LogicalConnectionHandler implements InvocationHandler {
+        private final PooledConnection pc;
+        private final List<Statement> openStatements = new ArrayList<>(4);
+        private boolean closed;
+
+        LogicalConnectionHandler(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        closeLeftoverStatements();
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pc.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + name + "]" + (closed ? " (closed)" : "");
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            switch (method.getName()) {
+                case "setAutoCommit":
+                    pc.autoCommitChanged = true;
+                    break;
+                case "setReadOnly":
+                    pc.readOnlyChanged = true;
+                    break;
+                case "setTransactionIsolation":
+                    pc.isolationChanged = true;
+                    break;
+                default:
+                    break;
+            }
+            if (pc.statements != null && isCacheablePrepare(method, args)) {
+                int keys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                try {
+                    PreparedStatement ps = pc.statements.prepare((String) args[0], keys, (Connection) proxy);
+                    return track(instrument(ps, method, args));
+                } catch (SQLException e) {
+                    if (isConnectionError(e)) pc.broken = true;
+                    throw e;
+                }
+            }
+            try {
+                Object result = method.invoke(pc.raw, args);
+                if (result instanceof Statement) {
+                    return track(instrument((Statement) result, method, args));
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException && isConnectionError((SQLException) cause)) {
+                    pc.broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        /** prepareStatement(String) and prepareStatement(String, int autoGeneratedKeys) go through the cache. */
+        private boolean isCacheablePrepare(Method method, Object[] args) {
+            if (!"prepareStatement".equals(method.getName()) || args == null) return false;
+            return args.length == 1 || (args.length == 2 && method.getParameterTypes()[1] == int.class);
+        }
+
+        private Statement track(Statement st) {
+            openStatements.add(st);
+            return st;
+        }
+
+        /** Wrap statements from prepareStatement(...) so their executions show up in {@link QueryMetrics}. */
+        private Statement instrument(Statement st, Method method, Object[] args) {
+            if (!QueryMetrics.isEnabled() || !"prepareStatement".equals(method.getName())) {
+                return st;
+            }
+            return InstrumentedStatement.wrap((PreparedStatement) st, (String) args[0]);
+        }
+
+        private void closeLeftoverStatements() {
+            for (Statement st : openStatements) {
+                try {
+                    if (!st.isClosed()) st.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            openStatements.clear();
+        }
+    }
+
+    /** SQLState class 08 means the connection itself is unusable. */
+    static boolean isConnectionError(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+}
@@ -0,0 +1,113 @@
+package com.triviaapp.db;
+
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup check that runs EXPLAIN on every SELECT/UPDATE/DELETE registered in {@link SqlCatalog} and warns about
+ * full table scans, so a query that lost its index shows up in the log instead of as a latency regression.
+ *
+ * Understands MySQL's tabular EXPLAIN (access type {@code ALL}) and H2's plan text ({@code tableScan}). Small
+ * reference tables that are always read whole are allow-listed.
+ */
+public final class ExplainCheck {
+
+    private static final Set<String> FULL_SCAN_ALLOWED = new HashSet<>(Arrays.asList(
+            "categories", "roles", "schema_version"));
+
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("(?:\\w+\\.)?(\\w+)\\.tableScan");
+
+    private ExplainCheck() {
+    }
+
+    /**
+     * @return one warning per statement that scans a table, e.g. "SessionDAOImpl.SQL_LIST_BY_HOST scans sessions"
+     */
+    public static List<String> run(Connection conn) throws SQLException {
+        boolean h2 = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("h2");
+        List<String> warnings = new ArrayList<>();
+        for (Map.Entry<String, String> e : SqlCatalog.statements().entrySet()) {
+            String sql = e.getValue();
+            if (!isExplainable(sql)) continue;
+            try {
+                for (String table : scannedTables(conn, sql, h2)) {
+                    if (!FULL_SCAN_ALLOWED.contains(table.toLowerCase(Locale.ROOT))) {
+                        warnings.add(e.getKey() + " scans " + table);
+                    }
+                }
+            } catch (SQLException ex) {
+                warnings.add(e.getKey() + " could not be explained: " + ex.getMessage());
+            }
+        }
+        return warnings;
+    }
+
+    /**
+     * Run the check and print the result; never throws.
+     */
+    public static void runAndLog(Connection conn) {
+        try {
+            List<String> warnings = run(conn);
+            if (warnings.isEmpty()) {
+                System.out.println("EXPLAIN check: no full table scans in " + SqlCatalog.statements().size()
+                        + " registered statements");
+            }
+            for (String w : warnings) {
+                System.err.println("EXPLAIN check: " + w);
+            }
+        } catch (SQLException e) {
+            System.err.println("EXPLAIN check failed: " + e.getMessage());
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String head = sql.trim().toUpperCase(Locale.ROOT);
+        return head.startsWith("SELECT") || head.startsWith("UPDATE") || head.startsWith("DELETE")
+                || head.startsWith("WITH");
+    }
+
+    private static List<String> scannedTables(Connection conn, String sql, boolean h2) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        // The three-argument prepare bypasses the statement cache; EXPLAIN text is one-off.
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            bindPlaceholders(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (h2) {
+                        Matcher m = H2_TABLE_SCAN.matcher(rs.getString(1));
+                        while (m.find()) tables.add(m.group(1));
+                    } else if ("ALL".equalsIgnoreCase(rs.getString("type"))) {
+                        String table = rs.getString("table");
+                        // <derivedN> / <subqueryN> are temporary results, not base tables.
+                        if (table != null && !table.startsWith("<")) tables.add(table);
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Any value works for a plan; a string "1" converts cleanly to both numeric and text columns without
+     * defeating index use.
+     */
+    private static void bindPlaceholders(PreparedStatement ps) throws SQLException {
+        ParameterMetaData pmd = ps.getParameterMetaData();
+        for (int i = 1; i <= pmd.getParameterCount(); i++) {
+            ps.setString(i, "1");
+        }
+    }
+}
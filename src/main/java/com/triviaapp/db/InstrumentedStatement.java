@@ -0,0 +1,159 @@
+package com.triviaapp.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Wraps a {@link PreparedStatement} to feed {@link QueryMetrics}: every execute call is timed and counted under
+ * the statement's SQL constant name, rows are counted as the caller iterates the result set (or taken from the
+ * update count), and bound parameters are remembered so a slow execution can be logged with them.
+ *
+ * Parameters of statements that touch a password column are never logged.
+ */
+final class InstrumentedStatement implements InvocationHandler {
+
+    private static final int MAX_PARAM_LENGTH = 80;
+
+    private final PreparedStatement delegate;
+    private final QueryMetrics.StatementMetrics metrics;
+    private final boolean redact;
+    private final List<Object> parameters = new ArrayList<>();
+    private long pendingRows;
+
+    private InstrumentedStatement(PreparedStatement delegate, String sql) {
+        this.delegate = delegate;
+        this.metrics = QueryMetrics.forSql(sql);
+        this.redact = sql.toLowerCase(Locale.ROOT).contains("password");
+    }
+
+    static PreparedStatement wrap(PreparedStatement delegate, String sql) {
+        return (PreparedStatement) Proxy.newProxyInstance(InstrumentedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new InstrumentedStatement(delegate, sql));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "InstrumentedStatement[" + metrics.name + "]";
+            case "close":
+            case "clearParameters":
+                flushRows();
+                parameters.clear();
+                return forward(method, args);
+            default:
+                break;
+        }
+        if (name.startsWith("execute")) {
+            return execute(method, args);
+        }
+        if (name.startsWith("set") && args != null && args.length >= 2
+                && method.getParameterTypes()[0] == int.class) {
+            bind((Integer) args[0], args[1]);
+        }
+        return forward(method, args);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        flushRows();
+        long start = System.nanoTime();
+        boolean failed = true;
+        Object result;
+        try {
+            result = forward(method, args);
+            failed = false;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            metrics.record(elapsed, failed);
+            if (QueryMetrics.isSlow(elapsed)) {
+                QueryMetrics.logSlowQuery(metrics.name, elapsed, describeParameters());
+            }
+        }
+        if (result instanceof ResultSet) {
+            return countingResultSet((ResultSet) result);
+        }
+        if (result instanceof Integer && !"execute".equals(method.getName())) {
+            metrics.rows.add(Math.max(0, (Integer) result));
+        } else if (result instanceof Long) {
+            metrics.rows.add(Math.max(0, (Long) result));
+        } else if (result instanceof int[]) {
+            for (int n : (int[]) result) {
+                if (n > 0) metrics.rows.add(n);
+            }
+        }
+        return result;
+    }
+
+    private ResultSet countingResultSet(ResultSet rs) {
+        return (ResultSet) Proxy.newProxyInstance(InstrumentedStatement.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (p, m, a) -> {
+                    switch (m.getName()) {
+                        case "equals":
+                            return p == a[0];
+                        case "hashCode":
+                            return System.identityHashCode(p);
+                        case "close":
+                            flushRows();
+                            break;
+                        default:
+                            break;
+                    }
+                    Object r;
+                    try {
+                        r = m.invoke(rs, a);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if ("next".equals(m.getName()) && Boolean.TRUE.equals(r)) {
+                        pendingRows++;
+                    }
+                    return r;
+                });
+    }
+
+    private void flushRows() {
+        if (pendingRows > 0) {
+            metrics.rows.add(pendingRows);
+            pendingRows = 0;
+        }
+    }
+
+    private void bind(int index, Object value) {
+        while (parameters.size() < index) {
+            parameters.add(null);
+        }
+        parameters.set(index - 1, value);
+    }
+
+    private String describeParameters() {
+        if (redact) return "[redacted]";
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) sb.append(", ");
+            Object v = parameters.get(i);
+            String s = v instanceof String ? "'" + v + "'" : String.valueOf(v);
+            sb.append(s.length() > MAX_PARAM_LENGTH ? s.substring(0, MAX_PARAM_LENGTH) + "..." : s);
+        }
+        return sb.append(']').toString();
+    }
+
+    private Object forward(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
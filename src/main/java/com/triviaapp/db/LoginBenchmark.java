@@ -0,0 +1,167 @@
+package com.triviaapp.db;
+
+import com.triviaapp.dao.DaoExecutor;
+import com.triviaapp.dao.RoleDAO;
+import com.triviaapp.dao.UserDAO;
+import com.triviaapp.dao.impl.CachingRoleDAO;
+import com.triviaapp.dao.impl.UserDAOImpl;
+import com.triviaapp.model.UserPrincipal;
+import com.triviaapp.util.DBConnectionManager;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures the database side of {@code LoginServlet.doPost} under a burst of concurrent logins, comparing
+ * <ul>
+ *   <li>{@code separate} - findPasswordByEmail, findUserIDByEmail, findUserRoleIDByID and the cached role name
+ *       lookup, each on its own connection (the servlet before findPrincipalByEmail)</li>
+ *   <li>{@code joined} - {@code UserDAO.findPrincipalByEmail}, one statement</li>
+ * </ul>
+ * Each login picks a random seeded user and, unless {@code bcrypt=false}, checks the password the way the servlet
+ * does, so the numbers show how much of a login the lookups still cost next to BCrypt. Run against the embedded
+ * profile or a copy of production, e.g.
+ * <pre>
+ *   java -DDB_PROFILE=embedded -cp ... com.triviaapp.db.LoginBenchmark threads=16 seconds=10 users=500 bcrypt=false
+ * </pre>
+ */
+public final class LoginBenchmark {
+
+    private static final long HIGHEST_MICROS = 60_000_000L;
+
+    // Login results end up here so the JIT cannot drop the work.
+    private static volatile long blackhole;
+
+    /** One login for {@code email}; returns something derived from the result. */
+    private interface Login {
+        int run(String email) throws SQLException;
+    }
+
+    private LoginBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int threads = intOpt(opts, "threads", 16);
+        int seconds = intOpt(opts, "seconds", 10);
+        int warmup = intOpt(opts, "warmup", 3);
+        int users = intOpt(opts, "users", 500);
+        boolean bcrypt = !"false".equals(opts.get("bcrypt"));
+
+        try {
+            String[] emails = seed(users);
+            UserDAO userDAO = new UserDAOImpl();
+            RoleDAO roleDAO = new CachingRoleDAO();
+            String password = SeedDataGenerator.DEFAULT_PASSWORD;
+
+            Login separate = email -> {
+                String hash = userDAO.findPasswordByEmail(email);
+                if (bcrypt && !BCrypt.checkpw(password, hash)) {
+                    throw new SQLException("Password rejected for " + email);
+                }
+                int userId = userDAO.findUserIDByEmail(email);
+                int roleId = userDAO.findUserRoleIDByID(userId);
+                return userId + roleDAO.findRoleNameById(roleId).length();
+            };
+            Login joined = email -> {
+                UserPrincipal principal = userDAO.findPrincipalByEmail(email);
+                if (bcrypt && !BCrypt.checkpw(password, principal.getPasswordHash())) {
+                    throw new SQLException("Password rejected for " + email);
+                }
+                return principal.getUserId() + principal.getRoleName().length();
+            };
+
+            System.out.printf("%d threads, %d s per mode, %d users, bcrypt %s%n",
+                    threads, seconds, users, bcrypt ? "on" : "off");
+            System.out.printf("%-9s %10s %9s %9s %9s %9s%n", "mode", "logins/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            run("separate", separate, emails, threads, warmup, seconds);
+            run("joined", joined, emails, threads, warmup, seconds);
+        } finally {
+            DaoExecutor.shutdown();
+            DBConnectionManager.shutdown();
+        }
+    }
+
+    /** {@code users} fresh users with {@link SeedDataGenerator#DEFAULT_PASSWORD}; returns their emails. */
+    private static String[] seed(int users) throws SQLException {
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            SeedDataGenerator.seedReferenceData(conn);
+            SeedDataGenerator gen = new SeedDataGenerator(conn, 42);
+            String prefix = "bench_login_" + Long.toString(System.currentTimeMillis(), 36);
+            gen.users(prefix, users, SeedDataGenerator.ROLE_USER);
+            String[] emails = new String[users];
+            for (int i = 0; i < users; i++) {
+                emails[i] = prefix + "_" + (i + 1) + "@example.com";
+            }
+            return emails;
+        }
+    }
+
+    private static void run(String name, Login login, String[] emails, int threads, int warmupSeconds, int seconds)
+            throws InterruptedException {
+        drive(login, emails, threads, warmupSeconds, null);
+        Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        long logins = drive(login, emails, threads, seconds, latency);
+        System.out.printf("%-9s %10.0f %9.3f %9.3f %9.3f %9.3f%n", name, logins / (double) seconds,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0, latency.getMaxValue() / 1000.0);
+    }
+
+    /** @return the number of logins completed */
+    private static long drive(Login login, String[] emails, int threads, int seconds, Histogram latency)
+            throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        long[] counts = new long[threads];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int slot = t;
+            Thread w = new Thread(() -> {
+                long sink = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (!stop.get()) {
+                    String email = emails[random.nextInt(emails.length)];
+                    long start = System.nanoTime();
+                    try {
+                        sink += login.run(email);
+                    } catch (SQLException e) {
+                        e.printStackTrace();
+                        return;
+                    }
+                    if (latency != null) {
+                        latency.recordValue(Math.min(HIGHEST_MICROS, (System.nanoTime() - start) / 1_000));
+                    }
+                    counts[slot]++;
+                }
+                blackhole = sink;
+            }, "login-" + t);
+            workers.add(w);
+            w.start();
+        }
+        Thread.sleep(seconds * 1_000L);
+        stop.set(true);
+        long total = 0;
+        for (int t = 0; t < threads; t++) {
+            workers.get(t).join();
+            total += counts[t];
+        }
+        return total;
+    }
+
+    private static int intOpt(Map<String, String> opts, String key, int fallback) {
+        String v = opts.get(key);
+        return v == null ? fallback : Integer.parseInt(v);
+    }
+}
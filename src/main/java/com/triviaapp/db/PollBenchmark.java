@@ -0,0 +1,176 @@
+package com.triviaapp.db;
+
+import com.triviaapp.dao.CategoryDAO;
+import com.triviaapp.dao.DaoExecutor;
+import com.triviaapp.dao.QuestionDAO;
+import com.triviaapp.dao.SessionDAO;
+import com.triviaapp.dao.impl.CachingCategoryDAO;
+import com.triviaapp.dao.impl.CachingQuestionDAO;
+import com.triviaapp.dao.impl.CategoryDAOImpl;
+import com.triviaapp.dao.impl.QuestionDAOImpl;
+import com.triviaapp.dao.impl.SessionDAOImpl;
+import com.triviaapp.model.Question;
+import com.triviaapp.model.SessionQuestion;
+import com.triviaapp.util.DBConnectionManager;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures the "current question" lookup behind {@code QuizDataServlet} under concurrent polling, comparing
+ * <ul>
+ *   <li>{@code separate} - getCurrentIndex, findQuestionIdsForSession, findQuestionById and findCategoryNameById
+ *       as four queries, each on its own connection</li>
+ *   <li>{@code cached} - the same four calls with the index and id list read concurrently and the question and
+ *       category served from the in-memory caches (the servlet before the joined query)</li>
+ *   <li>{@code joined} - {@code SessionDAO.findCurrentQuestion}, one statement</li>
+ * </ul>
+ * Each mode runs {@code threads} pollers for {@code seconds} after a warm-up and prints throughput and latency
+ * percentiles. Run against the embedded profile or a copy of production, e.g.
+ * <pre>
+ *   java -DDB_PROFILE=embedded -cp ... com.triviaapp.db.PollBenchmark threads=32 seconds=10 questions=40
+ * </pre>
+ */
+public final class PollBenchmark {
+
+    private static final long HIGHEST_MICROS = 60_000_000L;
+
+    // Poll results end up here so the JIT cannot drop the work.
+    private static volatile long blackhole;
+
+    /** One poll; returns something derived from the result. */
+    private interface Poll {
+        int run() throws SQLException;
+    }
+
+    private PollBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int threads = intOpt(opts, "threads", 16);
+        int seconds = intOpt(opts, "seconds", 10);
+        int warmup = intOpt(opts, "warmup", 3);
+        int questions = intOpt(opts, "questions", 40);
+
+        try {
+            int sessionId = seed(questions);
+            SessionDAO sessions = new SessionDAOImpl();
+            QuestionDAO plainQuestions = new QuestionDAOImpl();
+            CategoryDAO plainCategories = new CategoryDAOImpl();
+            QuestionDAO cachedQuestions = new CachingQuestionDAO();
+            CategoryDAO cachedCategories = new CachingCategoryDAO();
+
+            Poll separate = () -> {
+                Integer index = sessions.getCurrentIndex(sessionId);
+                int[] ids = sessions.findQuestionIdsForSession(sessionId);
+                Question q = plainQuestions.findQuestionById(ids[index]);
+                return q.getPoints() + plainCategories.findCategoryNameById(q.getCategoryId()).length();
+            };
+            Poll cached = () -> {
+                CompletableFuture<Integer> index = sessions.getCurrentIndexAsync(sessionId);
+                CompletableFuture<int[]> ids = sessions.findQuestionIdsForSessionAsync(sessionId);
+                Question q = cachedQuestions.findQuestionById(DaoExecutor.await(ids)[DaoExecutor.await(index)]);
+                return q.getPoints() + cachedCategories.findCategoryNameById(q.getCategoryId()).length();
+            };
+            Poll joined = () -> {
+                SessionQuestion current = sessions.findCurrentQuestion(sessionId);
+                return current.getQuestion().getPoints() + current.getCategoryName().length();
+            };
+
+            System.out.printf("%d pollers, %d s per mode, session with %d questions%n", threads, seconds, questions);
+            System.out.printf("%-9s %10s %9s %9s %9s %9s%n", "mode", "polls/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            run("separate", separate, threads, warmup, seconds);
+            run("cached", cached, threads, warmup, seconds);
+            run("joined", joined, threads, warmup, seconds);
+        } finally {
+            DaoExecutor.shutdown();
+            DBConnectionManager.shutdown();
+        }
+    }
+
+    /** A session with {@code questions} questions whose current_index points at the middle one. */
+    private static int seed(int questions) throws SQLException {
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            SeedDataGenerator.seedReferenceData(conn);
+            SeedDataGenerator gen = new SeedDataGenerator(conn, 42);
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            int hostId = gen.users("bench_host_" + runId, 1, SeedDataGenerator.ROLE_ADMIN)[0];
+            int[] categoryIds = gen.categories(4);
+            int[] questionIds = gen.questions(categoryIds, questions, hostId);
+            int sessionId = gen.session(hostId, categoryIds[0], new int[0], questionIds, 0);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE sessions SET current_index = ? WHERE session_id = ?")) {
+                ps.setInt(1, questions / 2);
+                ps.setInt(2, sessionId);
+                ps.executeUpdate();
+            }
+            return sessionId;
+        }
+    }
+
+    private static void run(String name, Poll poll, int threads, int warmupSeconds, int seconds)
+            throws InterruptedException {
+        drive(poll, threads, warmupSeconds, null);
+        Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        long polls = drive(poll, threads, seconds, latency);
+        System.out.printf("%-9s %10.0f %9.3f %9.3f %9.3f %9.3f%n", name, polls / (double) seconds,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0, latency.getMaxValue() / 1000.0);
+    }
+
+    /** @return the number of polls completed */
+    private static long drive(Poll poll, int threads, int seconds, Histogram latency) throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        long[] counts = new long[threads];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int slot = t;
+            Thread w = new Thread(() -> {
+                long sink = 0;
+                while (!stop.get()) {
+                    long start = System.nanoTime();
+                    try {
+                        sink += poll.run();
+                    } catch (SQLException e) {
+                        e.printStackTrace();
+                        return;
+                    }
+                    if (latency != null) {
+                        latency.recordValue(Math.min(HIGHEST_MICROS, (System.nanoTime() - start) / 1_000));
+                    }
+                    counts[slot]++;
+                }
+                blackhole = sink;
+            }, "poller-" + t);
+            workers.add(w);
+            w.start();
+        }
+        Thread.sleep(seconds * 1_000L);
+        stop.set(true);
+        long total = 0;
+        for (int t = 0; t < threads; t++) {
+            workers.get(t).join();
+            total += counts[t];
+        }
+        return total;
+    }
+
+    private static int intOpt(Map<String, String> opts, String key, int fallback) {
+        String v = opts.get(key);
+        return v == null ? fallback : Integer.parseInt(v);
+    }
+}
@@ -0,0 +1,78 @@
+package com.triviaapp.db;
+
+/**
+ * Immutable sizing and timing settings for a {@link ConnectionPool}.
+ */
+public final class PoolConfig {
+
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long borrowTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final long validationIntervalMillis;
+    private final long housekeepingIntervalMillis;
+    private final int statementCacheSize;
+
+    /**
+     * @param minSize                    connections kept open even when idle
+     * @param maxSize                    hard upper bound of open connections (borrowed + idle)
+     * @param idleTimeoutMillis          idle connections above minSize are closed after this long
+     * @param maxLifetimeMillis          connections are retired after this age, even if healthy
+     * @param borrowTimeoutMillis        how long a caller waits for a free connection before failing
+     * @param validationTimeoutSeconds   timeout passed to {@link java.sql.Connection#isValid(int)}
+     * @param validationIntervalMillis   connections used more recently than this skip the validation ping
+     * @param housekeepingIntervalMillis how often idle eviction / min-size top-up runs
+     * @param statementCacheSize         prepared statements cached per connection (0 disables the cache)
+     */
+    public PoolConfig(int minSize,
+                      int maxSize,
+                      long idleTimeoutMillis,
+                      long maxLifetimeMillis,
+                      long borrowTimeoutMillis,
+                      int validationTimeoutSeconds,
+                      long validationIntervalMillis,
+                      long housekeepingIntervalMillis,
+                      int statementCacheSize) {
+        if (minSize < 0) throw new IllegalArgumentException("minSize must be >= 0");
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1");
+        if (minSize > maxSize) throw new IllegalArgumentException("minSize must be <= maxSize");
+        if (borrowTimeoutMillis <= 0) throw new IllegalArgumentException("borrowTimeoutMillis must be > 0");
+        if (housekeepingIntervalMillis <= 0) throw new IllegalArgumentException("housekeepingIntervalMillis must be > 0");
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationTimeoutSeconds = Math.max(1, validationTimeoutSeconds);
+        this.validationIntervalMillis = Math.max(0, validationIntervalMillis);
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+    }
+
+    /**
+     * Defaults sized for a single Tomcat instance talking to one MySQL server.
+     */
+    public static PoolConfig defaults() {
+        return new PoolConfig(2, 20, 600_000, 1_800_000, 5_000, 2, 500, 30_000, 64);
+    }
+
+    public int getMinSize() { return minSize; }
+
+    public int getMaxSize() { return maxSize; }
+
+    public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+
+    public long getMaxLifetimeMillis() { return maxLifetimeMillis; }
+
+    public long getBorrowTimeoutMillis() { return borrowTimeoutMillis; }
+
+    public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+
+    public long getValidationIntervalMillis() { return validationIntervalMillis; }
+
+    public long getHousekeepingIntervalMillis() { return housekeepingIntervalMillis; }
+
+    public int getStatementCacheSize() { return statementCacheSize; }
+}
@@ -0,0 +1,74 @@
+package com.triviaapp.db;
+
+/**
+ * Point-in-time snapshot of a {@link ConnectionPool}'s counters.
+ */
+public final class PoolStats {
+
+    private final String poolName;
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final int maxSize;
+    private final long borrowCount;
+    private final long borrowTimeouts;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long validationFailures;
+    private final double avgBorrowMillis;
+    private final double maxBorrowMillis;
+
+    PoolStats(String poolName, int active, int idle, int waiting, int maxSize,
+              long borrowCount, long borrowTimeouts, long createdCount, long destroyedCount,
+              long validationFailures, double avgBorrowMillis, double maxBorrowMillis) {
+        this.poolName = poolName;
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.maxSize = maxSize;
+        this.borrowCount = borrowCount;
+        this.borrowTimeouts = borrowTimeouts;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.validationFailures = validationFailures;
+        this.avgBorrowMillis = avgBorrowMillis;
+        this.maxBorrowMillis = maxBorrowMillis;
+    }
+
+    public String getPoolName() { return poolName; }
+
+    /** Connections currently borrowed by callers. */
+    public int getActive() { return active; }
+
+    /** Open connections sitting in the pool. */
+    public int getIdle() { return idle; }
+
+    /** Callers blocked waiting for a connection. */
+    public int getWaiting() { return waiting; }
+
+    public int getTotal() { return active + idle; }
+
+    public int getMaxSize() { return maxSize; }
+
+    public long getBorrowCount() { return borrowCount; }
+
+    public long getBorrowTimeouts() { return borrowTimeouts; }
+
+    public long getCreatedCount() { return createdCount; }
+
+    public long getDestroyedCount() { return destroyedCount; }
+
+    public long getValidationFailures() { return validationFailures; }
+
+    public double getAvgBorrowMillis() { return avgBorrowMillis; }
+
+    public double getMaxBorrowMillis() { return maxBorrowMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("pool=%s active=%d idle=%d waiting=%d max=%d borrows=%d timeouts=%d created=%d destroyed=%d "
+                        + "validationFailures=%d avgBorrowMs=%.3f maxBorrowMs=%.3f",
+                poolName, active, idle, waiting, maxSize, borrowCount, borrowTimeouts, createdCount, destroyedCount,
+                validationFailures, avgBorrowMillis, maxBorrowMillis);
+    }
+}
@@ -0,0 +1,228 @@
+package com.triviaapp.db;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide JDBC metrics: per-statement call counts, errors, rows and latency histograms (keyed by the SQL
+ * constant name from {@link SqlCatalog}), connection wait time per pool, and a bounded log of slow queries with
+ * their bound parameters.
+ *
+ * Statements are measured by {@link InstrumentedStatement}, which the pool wraps around every prepared statement
+ * while metrics are enabled. Latencies are recorded in microseconds.
+ */
+public final class QueryMetrics {
+
+    /** Longest latency the histograms resolve exactly; longer samples are clamped. */
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private static final ConcurrentHashMap<String, StatementMetrics> STATEMENTS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Histogram> CONNECTION_WAIT = new ConcurrentHashMap<>();
+    private static final ArrayDeque<SlowQuery> SLOW_QUERIES = new ArrayDeque<>();
+
+    private static volatile boolean enabled = true;
+    private static volatile long slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(500);
+    private static volatile int slowQueryLogSize = 100;
+
+    private QueryMetrics() {
+    }
+
+    /**
+     * Apply the DB_METRICS / DB_SLOW_QUERY_* settings. A slow-query threshold of 0 disables the slow-query log.
+     */
+    public static void configure(boolean metricsEnabled, long slowQueryMillis, int logSize) {
+        enabled = metricsEnabled;
+        slowQueryNanos = slowQueryMillis <= 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        slowQueryLogSize = Math.max(1, logSize);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Drop all collected samples. */
+    public static void reset() {
+        STATEMENTS.clear();
+        CONNECTION_WAIT.clear();
+        synchronized (SLOW_QUERIES) {
+            SLOW_QUERIES.clear();
+        }
+    }
+
+    // --- recording (called by the pool and InstrumentedStatement) ------------
+
+    static StatementMetrics forSql(String sql) {
+        StatementMetrics m = STATEMENTS.get(sql);
+        if (m == null) {
+            m = STATEMENTS.computeIfAbsent(sql, s -> new StatementMetrics(SqlCatalog.nameOf(s)));
+        }
+        return m;
+    }
+
+    static void recordConnectionWait(String poolName, long nanos) {
+        if (!enabled) return;
+        Histogram h = CONNECTION_WAIT.get(poolName);
+        if (h == null) {
+            h = CONNECTION_WAIT.computeIfAbsent(poolName, n -> newHistogram());
+        }
+        h.recordValue(clampMicros(nanos));
+    }
+
+    static boolean isSlow(long nanos) {
+        return nanos >= slowQueryNanos;
+    }
+
+    static void logSlowQuery(String name, long nanos, String parameters) {
+        SlowQuery q = new SlowQuery(System.currentTimeMillis(), name, nanos / 1_000_000.0, parameters);
+        synchronized (SLOW_QUERIES) {
+            while (SLOW_QUERIES.size() >= slowQueryLogSize) {
+                SLOW_QUERIES.pollFirst();
+            }
+            SLOW_QUERIES.addLast(q);
+        }
+        System.err.println(String.format("Slow query %s took %.1fms params=%s", name, q.millis, parameters));
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    }
+
+    private static long clampMicros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    // --- reporting --------------------------------------------------------
+
+    /**
+     * Per-statement summaries keyed by constant name, sorted by name. Statements that differ only by generated
+     * keys mode share one entry.
+     */
+    public static Map<String, LatencySummary> statementSnapshot() {
+        Map<String, Histogram> merged = new TreeMap<>();
+        Map<String, long[]> counters = new TreeMap<>();
+        for (StatementMetrics m : STATEMENTS.values()) {
+            Histogram h = merged.get(m.name);
+            if (h == null) {
+                h = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+                merged.put(m.name, h);
+                counters.put(m.name, new long[3]);
+            }
+            h.add(m.latency.copy());
+            long[] c = counters.get(m.name);
+            c[0] += m.calls.sum();
+            c[1] += m.errors.sum();
+            c[2] += m.rows.sum();
+        }
+        Map<String, LatencySummary> out = new TreeMap<>();
+        for (Map.Entry<String, Histogram> e : merged.entrySet()) {
+            long[] c = counters.get(e.getKey());
+            out.put(e.getKey(), new LatencySummary(e.getValue(), c[0], c[1], c[2]));
+        }
+        return out;
+    }
+
+    /**
+     * Connection wait time per pool name.
+     */
+    public static Map<String, LatencySummary> connectionWaitSnapshot() {
+        Map<String, LatencySummary> out = new TreeMap<>();
+        for (Map.Entry<String, Histogram> e : CONNECTION_WAIT.entrySet()) {
+            Histogram h = e.getValue().copy();
+            out.put(e.getKey(), new LatencySummary(h, h.getTotalCount(), 0, 0));
+        }
+        return out;
+    }
+
+    /**
+     * Most recent slow queries, oldest first.
+     */
+    public static List<SlowQuery> slowQueries() {
+        synchronized (SLOW_QUERIES) {
+            return new ArrayList<>(SLOW_QUERIES);
+        }
+    }
+
+    static final class StatementMetrics {
+        final String name;
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final Histogram latency = newHistogram();
+
+        StatementMetrics(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos, boolean failed) {
+            calls.increment();
+            if (failed) errors.increment();
+            latency.recordValue(clampMicros(nanos));
+        }
+    }
+
+    /**
+     * Counters and latency percentiles (milliseconds) of one statement or pool.
+     */
+    public static final class LatencySummary {
+        private final long count;
+        private final long errors;
+        private final long rows;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        LatencySummary(Histogram h, long count, long errors, long rows) {
+            this.count = count;
+            this.errors = errors;
+            this.rows = rows;
+            this.meanMillis = h.getTotalCount() == 0 ? 0.0 : h.getMean() / 1000.0;
+            this.p50Millis = h.getValueAtPercentile(50) / 1000.0;
+            this.p95Millis = h.getValueAtPercentile(95) / 1000.0;
+            this.p99Millis = h.getValueAtPercentile(99) / 1000.0;
+            this.maxMillis = h.getMaxValue() / 1000.0;
+        }
+
+        public long getCount() { return count; }
+        public long getErrors() { return errors; }
+        public long getRows() { return rows; }
+        public double getMeanMillis() { return meanMillis; }
+        public double getP50Millis() { return p50Millis; }
+        public double getP95Millis() { return p95Millis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+    }
+
+    /**
+     * One entry of the slow-query log.
+     */
+    public static final class SlowQuery {
+        private final long timestamp;
+        private final String name;
+        private final double millis;
+        private final String parameters;
+
+        SlowQuery(long timestamp, String name, double millis, String parameters) {
+            this.timestamp = timestamp;
+            this.name = name;
+            this.millis = millis;
+            this.parameters = parameters;
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public String getName() { return name; }
+        public double getMillis() { return millis; }
+        public String getParameters() { return parameters; }
+    }
+}
@@ -0,0 +1,135 @@
+package com.triviaapp.db;
+
+import com.triviaapp.dao.ReadOnly;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses between the primary pool and the replica pools for each {@code getConnection()} call.
+ *
+ * The decision is made from the calling DAO method: the first stack frame inside {@code com.triviaapp.dao.impl}
+ * is looked up once (then cached) and, if that method is declared {@link ReadOnly} on its DAO interface, the
+ * connection comes from the least-loaded replica. Everything else, and every read made shortly after the same
+ * {@link RoutingContext} wrote, goes to the primary. A replica that cannot hand out a connection falls back to
+ * the primary.
+ */
+public final class ReplicaRouter implements AutoCloseable {
+
+    private static final String DAO_IMPL_PACKAGE = "com.triviaapp.dao.impl.";
+
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final ConnectionPool primary;
+    private final List<ConnectionPool> replicas;
+    private final long stickyWindowMillis;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final ConcurrentHashMap<String, Boolean> readOnlyMethods = new ConcurrentHashMap<>();
+
+    public ReplicaRouter(ConnectionPool primary, List<ConnectionPool> replicas, long stickyWindowMillis) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.stickyWindowMillis = stickyWindowMillis;
+    }
+
+    public Connection getConnection() throws SQLException {
+        RoutingContext context = RoutingContext.current();
+        if (replicas.isEmpty()) {
+            return primary.borrow();
+        }
+        if (!callerIsReadOnly()) {
+            context.markWrite();
+            return primary.borrow();
+        }
+        if (context.wroteWithin(stickyWindowMillis)) {
+            return primary.borrow();
+        }
+        ConnectionPool replica = pickReplica();
+        try {
+            return replica.borrow();
+        } catch (SQLException e) {
+            System.err.println("Replica pool '" + replica.getName() + "' unavailable, reading from primary: "
+                    + e.getMessage());
+            return primary.borrow();
+        }
+    }
+
+    public ConnectionPool getPrimary() {
+        return primary;
+    }
+
+    public List<ConnectionPool> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Least active connections wins; ties are broken round-robin so idle replicas share the load.
+     */
+    private ConnectionPool pickReplica() {
+        int n = replicas.size();
+        if (n == 1) return replicas.get(0);
+        int start = Math.floorMod(roundRobin.getAndIncrement(), n);
+        ConnectionPool best = null;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            ConnectionPool candidate = replicas.get((start + i) % n);
+            int active = candidate.activeCount();
+            if (active < bestActive) {
+                best = candidate;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private boolean callerIsReadOnly() {
+        Optional<StackWalker.StackFrame> frame = WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(DAO_IMPL_PACKAGE))
+                .findFirst());
+        if (!frame.isPresent()) {
+            return false;
+        }
+        StackWalker.StackFrame f = frame.get();
+        String key = f.getClassName() + '#' + f.getMethodName();
+        Boolean cached = readOnlyMethods.get(key);
+        if (cached == null) {
+            cached = readOnlyMethods.computeIfAbsent(key,
+                    k -> isDeclaredReadOnly(f.getDeclaringClass(), f.getMethodName()));
+        }
+        return cached;
+    }
+
+    private static boolean isDeclaredReadOnly(Class<?> implClass, String methodName) {
+        for (Class<?> c = implClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (hasReadOnlyMethod(c, methodName)) return true;
+            for (Class<?> iface : c.getInterfaces()) {
+                if (hasReadOnlyMethod(iface, methodName)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasReadOnlyMethod(Class<?> c, String methodName) {
+        for (Method m : c.getDeclaredMethods()) {
+            if (m.getName().equals(methodName) && m.isAnnotationPresent(ReadOnly.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        primary.close();
+        for (ConnectionPool replica : replicas) {
+            replica.close();
+        }
+    }
+}
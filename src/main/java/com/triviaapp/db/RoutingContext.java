@@ -0,0 +1,65 @@
+package com.triviaapp.db;
+
+import java.io.Serializable;
+
+/**
+ * Routing state used for read-your-writes: after a client writes through the primary, its reads stay on the
+ * primary for a short window so it never reads stale data from a lagging replica.
+ *
+ * A context belongs to a client, not to a thread: {@code RoutingContextFilter} binds the HTTP session's context
+ * (or a new one) for the length of each request, and the WebSocket endpoint binds the socket's context for each
+ * message. Both unbind it in a finally block, so pooled container threads carry nothing between requests. Code
+ * that hands work to another thread carries it along with {@link #attach(RoutingContext)} /
+ * {@link #restore(RoutingContext)}. A thread with no bound context gets a fresh one on every call, i.e. no
+ * stickiness.
+ */
+public final class RoutingContext implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<RoutingContext> CURRENT = new ThreadLocal<>();
+
+    // nanoTime values mean nothing in another JVM; a deserialized context starts with no recent write.
+    private transient volatile long lastWriteNanos;
+    private transient volatile boolean wrote;
+
+    /**
+     * The context bound to the calling thread, or a new unbound one when there is none.
+     */
+    public static RoutingContext current() {
+        RoutingContext context = CURRENT.get();
+        return context != null ? context : new RoutingContext();
+    }
+
+    /**
+     * Bind {@code context} to the calling thread and return the previously bound one (possibly null).
+     */
+    public static RoutingContext attach(RoutingContext context) {
+        RoutingContext previous = CURRENT.get();
+        CURRENT.set(context);
+        return previous;
+    }
+
+    /**
+     * Undo {@link #attach(RoutingContext)}; restoring null clears the thread's slot entirely.
+     */
+    public static void restore(RoutingContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    void markWrite() {
+        lastWriteNanos = System.nanoTime();
+        wrote = true;
+    }
+
+    /**
+     * True when this context used the primary within the last {@code windowMillis}.
+     */
+    boolean wroteWithin(long windowMillis) {
+        return wrote && System.nanoTime() - lastWriteNanos < windowMillis * 1_000_000L;
+    }
+}
@@ -0,0 +1,184 @@
+package com.triviaapp.db;
+
+import com.triviaapp.dao.DaoExecutor;
+import com.triviaapp.dao.QuestionDAO;
+import com.triviaapp.dao.SessionDAO;
+import com.triviaapp.dao.impl.QuestionDAOImpl;
+import com.triviaapp.dao.impl.SessionDAOImpl;
+import com.triviaapp.model.Question;
+import com.triviaapp.util.DBConnectionManager;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures what the typed DAO rows save over the {@code Map<String, String>} rows the DAOs used to return: bytes
+ * allocated and time per call for
+ * <ul>
+ *   <li>{@code map} - a category's questions read into one LinkedHashMap of strings per row, with the numeric
+ *       columns parsed back as callers did</li>
+ *   <li>{@code typed} - the same rows from {@code QuestionDAO.findQuestionsByCategory}</li>
+ *   <li>{@code list} / {@code int[]} - a session's question ids as a {@code List<Integer>} and from
+ *       {@code SessionDAO.findQuestionIdsForSession}</li>
+ * </ul>
+ * Allocation is the calling thread's allocated bytes as reported by the JVM (HotSpot's ThreadMXBean), averaged
+ * over {@code iterations} calls; each round prints one line. Run against the embedded profile with DB_METRICS=false,
+ * so the statement instrumentation's own allocations are left out, e.g.
+ * <pre>
+ *   java -DDB_PROFILE=embedded -DDB_METRICS=false -cp ... com.triviaapp.db.RowAllocationBenchmark questions=1000
+ * </pre>
+ */
+public final class RowAllocationBenchmark {
+
+    // The previous readers, kept here so the comparison can be re-run.
+    private static final String SQL_LIST_QUESTIONS_BY_CATEGORY = "SELECT * FROM questions WHERE category_id = ? ORDER BY question_id ASC";
+    private static final String SQL_SELECT_SESSION_QUESTION_IDS = "SELECT question_id FROM session_questions WHERE session_id = ? ORDER BY question_id ASC";
+
+    // Results end up here so the JIT cannot drop the work.
+    private static volatile long blackhole;
+
+    /** One call; returns something derived from the result. */
+    private interface Call {
+        long run() throws SQLException;
+    }
+
+    private RowAllocationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int questions = intOpt(opts, "questions", 1000);
+        int iterations = intOpt(opts, "iterations", 300);
+        int rounds = intOpt(opts, "rounds", 3);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        try {
+            int[] seeded = seed(questions);
+            int categoryId = seeded[0];
+            int sessionId = seeded[1];
+            QuestionDAO questionDAO = new QuestionDAOImpl();
+            SessionDAO sessionDAO = new SessionDAOImpl();
+
+            Call map = () -> {
+                long sum = 0;
+                for (Map<String, String> row : questionsAsMaps(categoryId)) {
+                    sum += Integer.parseInt(row.get("points")) + Integer.parseInt(row.get("category_id"));
+                }
+                return sum;
+            };
+            Call typed = () -> {
+                long sum = 0;
+                for (Question q : questionDAO.findQuestionsByCategory(categoryId)) {
+                    sum += q.getPoints() + q.getCategoryId();
+                }
+                return sum;
+            };
+            Call list = () -> questionIdsAsList(sessionId).size();
+            Call array = () -> sessionDAO.findQuestionIdsForSession(sessionId).length;
+
+            System.out.printf("%d questions in the category and the session, %d calls per measurement%n",
+                    questions, iterations);
+            System.out.printf("%-6s %12s %10s %12s %10s %12s %12s%n", "round", "map KB", "map us", "typed KB",
+                    "typed us", "list KB", "int[] KB");
+            for (int round = 1; round <= rounds; round++) {
+                long[] m = measure(threads, map, iterations);
+                long[] t = measure(threads, typed, iterations);
+                long[] l = measure(threads, list, iterations);
+                long[] a = measure(threads, array, iterations);
+                System.out.printf("%-6d %12.1f %10d %12.1f %10d %12.1f %12.1f%n", round, m[0] / 1024.0, m[1],
+                        t[0] / 1024.0, t[1], l[0] / 1024.0, a[0] / 1024.0);
+            }
+        } finally {
+            DaoExecutor.shutdown();
+            DBConnectionManager.shutdown();
+        }
+    }
+
+    /** @return {category id, session id}, both holding {@code questions} questions */
+    private static int[] seed(int questions) throws SQLException {
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            SeedDataGenerator.seedReferenceData(conn);
+            SeedDataGenerator gen = new SeedDataGenerator(conn, 42);
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            int hostId = gen.users("bench_host_" + runId, 1, SeedDataGenerator.ROLE_ADMIN)[0];
+            int[] categoryIds = gen.categories(1);
+            int[] questionIds = gen.questions(categoryIds, questions, hostId);
+            int sessionId = gen.session(hostId, categoryIds[0], new int[0], questionIds, 0);
+            return new int[] {categoryIds[0], sessionId};
+        }
+    }
+
+    /** @return {bytes allocated per call, microseconds per call} */
+    private static long[] measure(com.sun.management.ThreadMXBean threads, Call call, int iterations)
+            throws SQLException {
+        long id = Thread.currentThread().getId();
+        long sink = 0;
+        long start = System.nanoTime();
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < iterations; i++) {
+            sink += call.run();
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        long micros = (System.nanoTime() - start) / 1_000 / iterations;
+        blackhole = sink;
+        return new long[] {allocated / iterations, micros};
+    }
+
+    private static List<Map<String, String>> questionsAsMaps(int categoryId) throws SQLException {
+        List<Map<String, String>> out = new ArrayList<>();
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_LIST_QUESTIONS_BY_CATEGORY)) {
+            ps.setInt(1, categoryId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, String> row = new LinkedHashMap<>();
+                    row.put("question_id", String.valueOf(rs.getInt("question_id")));
+                    row.put("category_id", String.valueOf(rs.getInt("category_id")));
+                    row.put("xml_question", rs.getString("xml_question"));
+                    row.put("youtube_url", rs.getString("youtube_url"));
+                    row.put("question_text", rs.getString("question_text"));
+                    row.put("answers_option", rs.getString("answers_option"));
+                    row.put("answers_key", rs.getString("answers_key"));
+                    row.put("points", String.valueOf(rs.getInt("points")));
+                    row.put("uploaded_by", String.valueOf(rs.getInt("uploaded_by")));
+                    row.put("created_at", rs.getString("created_at"));
+                    row.put("updated_at", rs.getString("updated_at"));
+                    out.add(row);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static List<Integer> questionIdsAsList(int sessionId) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DBConnectionManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_SELECT_SESSION_QUESTION_IDS)) {
+            ps.setInt(1, sessionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("question_id"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static int intOpt(Map<String, String> opts, String key, int fallback) {
+        String v = opts.get(key);
+        return v == null ? fallback : Integer.parseInt(v);
+    }
+}
@@ -0,0 +1,151 @@
+package com.triviaapp.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DDL for every table the DAOs touch, derived from the SQL in {@code com.triviaapp.dao.impl}.
+ *
+ * The statements are plain MySQL and also run unchanged on H2 in MySQL mode (the embedded profile), so the same
+ * schema backs production and offline benchmarks. Tables are listed parent first so foreign keys resolve.
+ */
+public final class Schema {
+
+    private static final String ROLES = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS roles (",
+            "  role_id INT NOT NULL AUTO_INCREMENT,",
+            "  role_name VARCHAR(50) NOT NULL,",
+            "  PRIMARY KEY (role_id),",
+            "  UNIQUE (role_name)",
+            ")");
+
+    private static final String USERS = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS users (",
+            "  user_id INT NOT NULL AUTO_INCREMENT,",
+            "  username VARCHAR(100) NOT NULL,",
+            "  email VARCHAR(255) NOT NULL,",
+            "  password_hash VARCHAR(255) NOT NULL,",
+            "  role_id INT NOT NULL,",
+            "  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,",
+            "  PRIMARY KEY (user_id),",
+            "  UNIQUE (username),",
+            "  UNIQUE (email),",
+            "  FOREIGN KEY (role_id) REFERENCES roles (role_id)",
+            ")");
+
+    private static final String CATEGORIES = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS categories (",
+            "  category_id INT NOT NULL AUTO_INCREMENT,",
+            "  name VARCHAR(100) NOT NULL,",
+            "  display_order INT NOT NULL DEFAULT 0,",
+            "  PRIMARY KEY (category_id)",
+            ")");
+
+    private static final String QUESTIONS = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS questions (",
+            "  question_id INT NOT NULL AUTO_INCREMENT,",
+            "  category_id INT NOT NULL,",
+            "  xml_question TEXT,",
+            "  youtube_url VARCHAR(512),",
+            "  question_text TEXT NOT NULL,",
+            "  answers_option TEXT NOT NULL,",
+            "  answers_key VARCHAR(255) NOT NULL,",
+            "  points INT NOT NULL DEFAULT 1,",
+            "  uploaded_by INT,",
+            "  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,",
+            "  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,",
+            "  PRIMARY KEY (question_id),",
+            "  FOREIGN KEY (category_id) REFERENCES categories (category_id),",
+            "  FOREIGN KEY (uploaded_by) REFERENCES users (user_id)",
+            ")");
+
+    private static final String SESSIONS = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS sessions (",
+            "  session_id INT NOT NULL AUTO_INCREMENT,",
+            "  host_user_id INT NOT NULL,",
+            "  session_name VARCHAR(255) NOT NULL,",
+            "  category_id INT,",
+            "  max_participants INT,",
+            "  status VARCHAR(20) NOT NULL DEFAULT 'active',",
+            "  current_index INT NOT NULL DEFAULT 0,",
+            "  start_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,",
+            "  end_at TIMESTAMP NULL,",
+            "  PRIMARY KEY (session_id),",
+            "  FOREIGN KEY (host_user_id) REFERENCES users (user_id),",
+            "  FOREIGN KEY (category_id) REFERENCES categories (category_id)",
+            ")");
+
+    private static final String SESSION_PARTICIPANTS = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS session_participants (",
+            "  session_id INT NOT NULL,",
+            "  participant_id INT NOT NULL,",
+            "  joined_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,",
+            "  left_at TIMESTAMP NULL,",
+            "  status VARCHAR(20) NOT NULL DEFAULT 'joined',",
+            "  PRIMARY KEY (session_id, participant_id),",
+            "  FOREIGN KEY (session_id) REFERENCES sessions (session_id),",
+            "  FOREIGN KEY (participant_id) REFERENCES users (user_id)",
+            ")");
+
+    private static final String SESSION_QUESTIONS = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS session_questions (",
+            "  session_id INT NOT NULL,",
+            "  question_id INT NOT NULL,",
+            "  PRIMARY KEY (session_id, question_id),",
+            "  FOREIGN KEY (session_id) REFERENCES sessions (session_id),",
+            "  FOREIGN KEY (question_id) REFERENCES questions (question_id)",
+            ")");
+
+    private static final String MODERATED_ANSWERS = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS moderated_answers (",
+            "  answer_id INT NOT NULL AUTO_INCREMENT,",
+            "  session_id INT NOT NULL,",
+            "  question_id INT NOT NULL,",
+            "  participant_id INT NOT NULL,",
+            "  selected_answer VARCHAR(255),",
+            "  is_correct BOOLEAN NOT NULL DEFAULT FALSE,",
+            "  score INT NOT NULL DEFAULT 0,",
+            "  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,",
+            "  PRIMARY KEY (answer_id),",
+            "  FOREIGN KEY (session_id) REFERENCES sessions (session_id),",
+            "  FOREIGN KEY (question_id) REFERENCES questions (question_id),",
+            "  FOREIGN KEY (participant_id) REFERENCES users (user_id)",
+            ")");
+
+    private static final String INDIVIDUAL_ANSWERS = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS individual_answers (",
+            "  answer_id INT NOT NULL AUTO_INCREMENT,",
+            "  question_id INT NOT NULL,",
+            "  user_id INT NOT NULL,",
+            "  selected_answer VARCHAR(255),",
+            "  is_correct BOOLEAN NOT NULL DEFAULT FALSE,",
+            "  score INT NOT NULL DEFAULT 0,",
+            "  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,",
+            "  PRIMARY KEY (answer_id),",
+            "  FOREIGN KEY (question_id) REFERENCES questions (question_id),",
+            "  FOREIGN KEY (user_id) REFERENCES users (user_id)",
+            ")");
+
+    /** CREATE TABLE statements, parents before children. */
+    public static final List<String> TABLES = Collections.unmodifiableList(Arrays.asList(
+            ROLES, USERS, CATEGORIES, QUESTIONS, SESSIONS, SESSION_PARTICIPANTS, SESSION_QUESTIONS,
+            MODERATED_ANSWERS, INDIVIDUAL_ANSWERS));
+
+    private Schema() {
+    }
+
+    /**
+     * Create any missing tables. Existing tables are left untouched.
+     */
+    public static void createTables(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String ddl : TABLES) {
+                st.execute(ddl);
+            }
+        }
+    }
+}
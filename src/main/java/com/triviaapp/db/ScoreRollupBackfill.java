@@ -0,0 +1,204 @@
+package com.triviaapp.db;
+
+import com.triviaapp.util.DBConnectionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds {@code user_category_scores} from {@code individual_answers}.
+ *
+ * The user id range is cut into chunks of {@code usersPerChunk} ids, and {@code threads} workers, each on its own
+ * connection, claim chunks in order. A chunk is one transaction: an {@code INSERT ... SELECT ... GROUP BY} that
+ * overwrites the chunk's rollup rows with freshly summed values, so the job is idempotent and can be re-run to
+ * repair drift. It is safe alongside live answers on InnoDB: the {@code SELECT} locks the chunk's answer range, so
+ * an answer being written there either is included in the sum or waits and then adds itself to the rebuilt row.
+ *
+ * A run that gets through every chunk records itself in {@code backfill_log}. {@link DBConnectionManager} runs
+ * it at startup until that row exists, so a backfill interrupted part way (some chunks committed, some not) is
+ * finished on a later startup rather than mistaken for done. To rebuild by hand:
+ * <pre>
+ *   java -cp ... com.triviaapp.db.ScoreRollupBackfill threads=4 chunk=10000
+ * </pre>
+ */
+public final class ScoreRollupBackfill {
+
+    /** Where the workers get their connections; a pool's borrow, or {@link DBConnectionManager}. */
+    @FunctionalInterface
+    public interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+
+    public static final int DEFAULT_THREADS = 4;
+    public static final int DEFAULT_USERS_PER_CHUNK = 10_000;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String SQL_USER_RANGE = "SELECT MIN(user_id), MAX(user_id) FROM individual_answers";
+    private static final String JOB_NAME = "user_category_scores";
+    private static final String SQL_IS_COMPLETE = "SELECT 1 FROM backfill_log WHERE job = ?";
+    private static final String SQL_MARK_COMPLETE =
+            "INSERT INTO backfill_log (job) VALUES (?) ON DUPLICATE KEY UPDATE completed_at = CURRENT_TIMESTAMP";
+    private static final String SQL_ROLLUP_CHUNK = String.join("\n",
+            "INSERT INTO user_category_scores (user_id, category_id, total_score, answered, correct)",
+            "SELECT ia.user_id, q.category_id, SUM(ia.score), COUNT(*), SUM(CASE WHEN ia.is_correct THEN 1 ELSE 0 END)",
+            "FROM individual_answers ia",
+            "JOIN questions q ON q.question_id = ia.question_id",
+            "WHERE ia.user_id BETWEEN ? AND ?",
+            "GROUP BY ia.user_id, q.category_id",
+            "ON DUPLICATE KEY UPDATE total_score = VALUES(total_score), answered = VALUES(answered),",
+            "  correct = VALUES(correct)");
+
+    private ScoreRollupBackfill() {
+    }
+
+    /**
+     * Run the backfill unless {@code backfill_log} records a completed run.
+     *
+     * @return rollup rows written, or 0 when nothing was needed
+     */
+    public static long runIfIncomplete(ConnectionSource connections, int threads, int usersPerChunk)
+            throws SQLException {
+        try (Connection conn = connections.get();
+             PreparedStatement ps = conn.prepareStatement(SQL_IS_COMPLETE)) {
+            ps.setString(1, JOB_NAME);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return 0;
+                }
+            }
+        }
+        return run(connections, threads, usersPerChunk);
+    }
+
+    /**
+     * Recompute every user's rollup rows, then record the run as complete. Throws, leaving no record, if any
+     * chunk fails.
+     *
+     * @return rollup rows written (MySQL counts an updated row twice)
+     */
+    public static long run(ConnectionSource connections, int threads, int usersPerChunk) throws SQLException {
+        long start = System.nanoTime();
+        long minUser;
+        long maxUser;
+        try (Connection conn = connections.get();
+             PreparedStatement ps = conn.prepareStatement(SQL_USER_RANGE);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            minUser = rs.getLong(1);
+            maxUser = rs.getLong(2);
+            if (rs.wasNull()) {
+                // No answers yet: the DAO keeps the rollup from here on.
+                markComplete(conn);
+                return 0;
+            }
+        }
+
+        AtomicLong nextChunkStart = new AtomicLong(minUser);
+        AtomicLong rows = new AtomicLong();
+        AtomicLong chunks = new AtomicLong();
+        List<Thread> workers = new ArrayList<>();
+        SQLException[] failure = new SQLException[1];
+        for (int t = 0; t < Math.max(1, threads); t++) {
+            Thread w = new Thread(() -> {
+                try (Connection conn = connections.get()) {
+                    long from;
+                    while ((from = nextChunkStart.getAndAdd(usersPerChunk)) <= maxUser) {
+                        synchronized (failure) {
+                            if (failure[0] != null) return;
+                        }
+                        long to = Math.min(maxUser, from + usersPerChunk - 1);
+                        rows.addAndGet(rollupChunk(conn, (int) from, (int) to));
+                        chunks.incrementAndGet();
+                    }
+                } catch (SQLException e) {
+                    synchronized (failure) {
+                        if (failure[0] == null) failure[0] = e;
+                    }
+                }
+            }, "score-backfill-" + t);
+            workers.add(w);
+            w.start();
+        }
+        for (Thread w : workers) {
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for the score backfill", e);
+            }
+        }
+        synchronized (failure) {
+            if (failure[0] != null) throw failure[0];
+        }
+        try (Connection conn = connections.get()) {
+            markComplete(conn);
+        }
+        System.out.printf("Score backfill: %d rollup rows for users %d..%d in %d chunks, %d threads, %dms%n",
+                rows.get(), minUser, maxUser, chunks.get(), workers.size(), (System.nanoTime() - start) / 1_000_000);
+        return rows.get();
+    }
+
+    /** One chunk in its own transaction, retried when the database picks it as a deadlock victim. */
+    private static int rollupChunk(Connection conn, int fromUser, int toUser) throws SQLException {
+        boolean oldAuto = conn.getAutoCommit();
+        try {
+            conn.setAutoCommit(false);
+            for (int attempt = 1; ; attempt++) {
+                try (PreparedStatement ps = conn.prepareStatement(SQL_ROLLUP_CHUNK)) {
+                    ps.setInt(1, fromUser);
+                    ps.setInt(2, toUser);
+                    int n = ps.executeUpdate();
+                    conn.commit();
+                    return n;
+                } catch (SQLTransactionRollbackException e) {
+                    conn.rollback();
+                    if (attempt >= MAX_ATTEMPTS) throw e;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        } finally {
+            conn.setAutoCommit(oldAuto);
+        }
+    }
+
+    private static void markComplete(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_MARK_COMPLETE)) {
+            ps.setString(1, JOB_NAME);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Command line entry point. Arguments are {@code key=value}: threads (4), chunk (10000 user ids).
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int threads = intOpt(opts, "threads", DEFAULT_THREADS);
+        int chunk = intOpt(opts, "chunk", DEFAULT_USERS_PER_CHUNK);
+        try {
+            run(DBConnectionManager::getConnection, threads, chunk);
+        } finally {
+            DBConnectionManager.shutdown();
+        }
+    }
+
+    private static int intOpt(Map<String, String> opts, String key, int fallback) {
+        String v = opts.get(key);
+        return v == null ? fallback : Integer.parseInt(v);
+    }
+}
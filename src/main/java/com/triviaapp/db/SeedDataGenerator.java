@@ -0,0 +1,254 @@
+package com.triviaapp.db;
+
+import com.triviaapp.util.DBConnectionManager;
+import org.json.JSONObject;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fills a database with synthetic but realistic data for load and benchmark runs: categories, users, a large
+ * question bank and big multiplayer sessions with participants and answers.
+ *
+ * Generation is deterministic (fixed random seed) so runs are repeatable. Rows are inserted with JDBC batches
+ * and committed every {@value #BATCH_SIZE} rows.
+ *
+ * Run against the embedded profile, e.g.
+ * <pre>
+ *   java -DDB_PROFILE=embedded -DEMBEDDED_DB_URL="jdbc:h2:./target/triviadb;MODE=MySQL;DATABASE_TO_LOWER=TRUE" \
+ *        -cp ... com.triviaapp.db.SeedDataGenerator questions=100000 players=10000 sessions=1 answers=10
+ * </pre>
+ * All generated users share the password {@value #DEFAULT_PASSWORD}.
+ */
+public final class SeedDataGenerator {
+
+    public static final int ROLE_USER = 100;
+    public static final int ROLE_ADMIN = 300;
+    public static final String DEFAULT_PASSWORD = "password";
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String[] KEYS = {"A", "B", "C", "D"};
+
+    private static final String SQL_INSERT_ROLE = "INSERT INTO roles (role_id, role_name) VALUES (?, ?)";
+    private static final String SQL_COUNT_ROLES = "SELECT COUNT(*) FROM roles";
+    private static final String SQL_INSERT_CATEGORY = "INSERT INTO categories (name, display_order) VALUES (?, ?)";
+    private static final String SQL_INSERT_USER = "INSERT INTO users (username, email, password_hash, role_id) VALUES (?, ?, ?, ?)";
+    private static final String SQL_INSERT_QUESTION = "INSERT INTO questions (category_id, xml_question, youtube_url, question_text, answers_option, answers_key, points, uploaded_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_INSERT_SESSION = "INSERT INTO sessions (host_user_id, session_name, category_id, max_participants, status, start_at, end_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_INSERT_PARTICIPANT = "INSERT INTO session_participants (session_id, participant_id, joined_at, left_at, status) VALUES (?, ?, CURRENT_TIMESTAMP, NULL, 'joined')";
+    private static final String SQL_INSERT_SESSION_QUESTION = "INSERT INTO session_questions (session_id, question_id) VALUES (?, ?)";
+    private static final String SQL_INSERT_MODERATED_ANSWER = "INSERT INTO moderated_answers (session_id, question_id, participant_id, selected_answer, is_correct, score) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_ROLLUP_SESSION_SCORES = "INSERT INTO session_scores (session_id, participant_id, total_score) SELECT session_id, participant_id, SUM(score) FROM moderated_answers WHERE session_id = ? GROUP BY session_id, participant_id";
+
+    private final Connection conn;
+    private final Random random;
+    private final String passwordHash;
+
+    /** Sets a row's parameters for batch position {@code i}. */
+    private interface RowBinder {
+        void bind(PreparedStatement ps, int i) throws SQLException;
+    }
+
+    public SeedDataGenerator(Connection conn, long seed) {
+        this.conn = conn;
+        this.random = new Random(seed);
+        this.passwordHash = BCrypt.hashpw(DEFAULT_PASSWORD, BCrypt.gensalt());
+    }
+
+    /**
+     * Insert the roles the application expects (user = {@value #ROLE_USER}, admin = {@value #ROLE_ADMIN}) when
+     * the roles table is empty.
+     */
+    public static void seedReferenceData(Connection conn) throws SQLException {
+        try (PreparedStatement count = conn.prepareStatement(SQL_COUNT_ROLES);
+             ResultSet rs = count.executeQuery()) {
+            if (rs.next() && rs.getInt(1) > 0) return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT_ROLE)) {
+            ps.setInt(1, ROLE_USER);
+            ps.setString(2, "user");
+            ps.addBatch();
+            ps.setInt(1, ROLE_ADMIN);
+            ps.setString(2, "admin");
+            ps.addBatch();
+            ps.executeBatch();
+        }
+    }
+
+    public int[] categories(int count) throws SQLException {
+        return insertBatch(SQL_INSERT_CATEGORY, count, (ps, i) -> {
+            ps.setString(1, "Category " + (i + 1));
+            ps.setInt(2, i);
+        });
+    }
+
+    /**
+     * Users named {@code <prefix>_<n>} with email {@code <prefix>_<n>@example.com}.
+     */
+    public int[] users(String prefix, int count, int roleId) throws SQLException {
+        return insertBatch(SQL_INSERT_USER, count, (ps, i) -> {
+            String name = prefix + "_" + (i + 1);
+            ps.setString(1, name);
+            ps.setString(2, name + "@example.com");
+            ps.setString(3, passwordHash);
+            ps.setInt(4, roleId);
+        });
+    }
+
+    /**
+     * Questions spread round-robin over {@code categoryIds}, each with four options and a random key.
+     */
+    public int[] questions(int[] categoryIds, int count, int uploadedBy) throws SQLException {
+        return insertBatch(SQL_INSERT_QUESTION, count, (ps, i) -> {
+            JSONObject options = new JSONObject();
+            for (String key : KEYS) {
+                options.put(key, "Option " + key + " for question " + (i + 1));
+            }
+            ps.setInt(1, categoryIds[i % categoryIds.length]);
+            ps.setString(2, "");
+            ps.setString(3, "");
+            ps.setString(4, "Synthetic question " + (i + 1) + "?");
+            ps.setString(5, options.toString());
+            ps.setString(6, KEYS[random.nextInt(KEYS.length)]);
+            ps.setInt(7, 1 + random.nextInt(5));
+            ps.setInt(8, uploadedBy);
+        });
+    }
+
+    /**
+     * One active session hosted by {@code hostId} with every player joined, {@code questionIds} attached and
+     * {@code answersPerPlayer} answers per player (the first questions of the session).
+     *
+     * @return the new session id
+     */
+    public int session(int hostId, int categoryId, int[] playerIds, int[] questionIds, int answersPerPlayer)
+            throws SQLException {
+        int sessionId = insertBatch(SQL_INSERT_SESSION, 1, (ps, i) -> {
+            ps.setInt(1, hostId);
+            ps.setString(2, "Load session " + System.nanoTime());
+            ps.setInt(3, categoryId);
+            ps.setInt(4, playerIds.length);
+            ps.setString(5, "active");
+            ps.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
+            ps.setNull(7, java.sql.Types.TIMESTAMP);
+        })[0];
+
+        insertBatch(SQL_INSERT_PARTICIPANT, playerIds.length, (ps, i) -> {
+            ps.setInt(1, sessionId);
+            ps.setInt(2, playerIds[i]);
+        });
+        insertBatch(SQL_INSERT_SESSION_QUESTION, questionIds.length, (ps, i) -> {
+            ps.setInt(1, sessionId);
+            ps.setInt(2, questionIds[i]);
+        });
+
+        int perPlayer = Math.min(answersPerPlayer, questionIds.length);
+        insertBatch(SQL_INSERT_MODERATED_ANSWER, playerIds.length * perPlayer, (ps, i) -> {
+            boolean correct = random.nextInt(4) == 0;
+            ps.setInt(1, sessionId);
+            ps.setInt(2, questionIds[i % perPlayer]);
+            ps.setInt(3, playerIds[i / perPlayer]);
+            ps.setString(4, KEYS[random.nextInt(KEYS.length)]);
+            ps.setBoolean(5, correct);
+            ps.setInt(6, correct ? 1 : 0);
+        });
+        // The answers bypass ModeratedAnswerDAO, so fill the leaderboard rollup in one go.
+        try (PreparedStatement ps = conn.prepareStatement(SQL_ROLLUP_SESSION_SCORES)) {
+            ps.setInt(1, sessionId);
+            ps.executeUpdate();
+        }
+        return sessionId;
+    }
+
+    /**
+     * Run {@code count} inserts in batches of {@value #BATCH_SIZE}, committing after each batch.
+     *
+     * @return generated keys in insertion order (empty slots are 0 for tables without generated keys)
+     */
+    private int[] insertBatch(String sql, int count, RowBinder binder) throws SQLException {
+        int[] ids = new int[count];
+        boolean oldAuto = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            int next = 0;
+            for (int i = 0; i < count; i++) {
+                binder.bind(ps, i);
+                ps.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == count - 1) {
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next() && next < count) {
+                            ids[next++] = keys.getInt(1);
+                        }
+                    }
+                    conn.commit();
+                }
+            }
+            return ids;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(oldAuto);
+        }
+    }
+
+    /**
+     * Command line entry point. Arguments are {@code key=value}: categories (20), questions (100000),
+     * players (10000), sessions (1), session_questions (20), answers (10, per player and session), seed (42).
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int categories = intOpt(opts, "categories", 20);
+        int questions = intOpt(opts, "questions", 100_000);
+        int players = intOpt(opts, "players", 10_000);
+        int sessions = intOpt(opts, "sessions", 1);
+        int sessionQuestions = intOpt(opts, "session_questions", 20);
+        int answers = intOpt(opts, "answers", 10);
+        long seed = intOpt(opts, "seed", 42);
+
+        long start = System.nanoTime();
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            seedReferenceData(conn);
+            SeedDataGenerator gen = new SeedDataGenerator(conn, seed);
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+
+            int hostId = gen.users("host_" + runId, 1, ROLE_ADMIN)[0];
+            int[] categoryIds = gen.categories(categories);
+            int[] questionIds = gen.questions(categoryIds, questions, hostId);
+            System.out.println("Seeded " + categoryIds.length + " categories and " + questionIds.length + " questions");
+
+            int[] playerIds = gen.users("player_" + runId, players, ROLE_USER);
+            System.out.println("Seeded " + playerIds.length + " players");
+
+            for (int s = 0; s < sessions; s++) {
+                int[] picked = new int[Math.min(sessionQuestions, questionIds.length)];
+                for (int i = 0; i < picked.length; i++) {
+                    picked[i] = questionIds[(s * picked.length + i) % questionIds.length];
+                }
+                int sessionId = gen.session(hostId, categoryIds[s % categoryIds.length], playerIds, picked, answers);
+                System.out.println("Seeded session " + sessionId + " with " + playerIds.length + " participants");
+            }
+        } finally {
+            DBConnectionManager.shutdown();
+        }
+        System.out.printf("Done in %.1fs%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    private static int intOpt(Map<String, String> opts, String key, int fallback) {
+        String v = opts.get(key);
+        return v == null ? fallback : Integer.parseInt(v);
+    }
+}
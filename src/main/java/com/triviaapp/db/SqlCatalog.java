@@ -0,0 +1,101 @@
+package com.triviaapp.db;
+
+import com.triviaapp.dao.impl.CategoryDAOImpl;
+import com.triviaapp.dao.impl.IndividualAnswerDAOImpl;
+import com.triviaapp.dao.impl.ModeratedAnswerDAOImpl;
+import com.triviaapp.dao.impl.QuestionDAOImpl;
+import com.triviaapp.dao.impl.RoleDAOImpl;
+import com.triviaapp.dao.impl.SessionDAOImpl;
+import com.triviaapp.dao.impl.UserDAOImpl;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps SQL text back to the DAO constant that declares it (e.g. "QuestionDAOImpl.SQL_FIND_QUESTION_BY_ID"),
+ * so statement-level metrics can be reported per constant rather than per raw SQL string.
+ *
+ * The catalog is built once by reflecting over the {@code static final String SQL_*} fields of the DAO
+ * implementations listed in {@link #DAO_CLASSES}. Add new DAO implementations there.
+ */
+public final class SqlCatalog {
+
+    private static final Class<?>[] DAO_CLASSES = {
+            CategoryDAOImpl.class,
+            IndividualAnswerDAOImpl.class,
+            ModeratedAnswerDAOImpl.class,
+            QuestionDAOImpl.class,
+            RoleDAOImpl.class,
+            SessionDAOImpl.class,
+            UserDAOImpl.class,
+    };
+
+    private static final int ADHOC_NAME_LENGTH = 60;
+
+    private static volatile Map<String, String> namesBySql;
+
+    private SqlCatalog() {
+    }
+
+    /**
+     * Name of the constant declaring {@code sql}, or "adhoc: ..." with a prefix of the SQL when it is not a
+     * registered constant.
+     */
+    public static String nameOf(String sql) {
+        String name = namesBySql().get(sql);
+        if (name != null) return name;
+        String flat = sql.replaceAll("\\s+", " ").trim();
+        return "adhoc: " + (flat.length() > ADHOC_NAME_LENGTH ? flat.substring(0, ADHOC_NAME_LENGTH) + "..." : flat);
+    }
+
+    /**
+     * All registered statements as constant name -> SQL, in declaration order.
+     */
+    public static Map<String, String> statements() {
+        Map<String, String> out = new LinkedHashMap<>();
+        for (Map.Entry<String, String> e : namesBySql().entrySet()) {
+            out.put(e.getValue(), e.getKey());
+        }
+        return out;
+    }
+
+    private static Map<String, String> namesBySql() {
+        Map<String, String> m = namesBySql;
+        if (m == null) {
+            synchronized (SqlCatalog.class) {
+                m = namesBySql;
+                if (m == null) {
+                    m = scan();
+                    namesBySql = m;
+                }
+            }
+        }
+        return m;
+    }
+
+    private static Map<String, String> scan() {
+        Map<String, String> out = new LinkedHashMap<>();
+        for (Class<?> cls : DAO_CLASSES) {
+            for (Field f : cls.getDeclaredFields()) {
+                int mod = f.getModifiers();
+                if (!Modifier.isStatic(mod) || !Modifier.isFinal(mod) || f.getType() != String.class
+                        || !f.getName().startsWith("SQL_")) {
+                    continue;
+                }
+                try {
+                    f.setAccessible(true);
+                    String sql = (String) f.get(null);
+                    if (sql != null) {
+                        out.putIfAbsent(sql, cls.getSimpleName() + "." + f.getName());
+                    }
+                } catch (IllegalAccessException | RuntimeException e) {
+                    System.err.println("SqlCatalog could not read " + cls.getSimpleName() + "." + f.getName());
+                }
+            }
+        }
+        return Collections.unmodifiableMap(out);
+    }
+}
@@ -0,0 +1,164 @@
+package com.triviaapp.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * LRU cache of prepared statements belonging to one physical connection.
+ *
+ * DAOs prepare the same SQL constants over and over; with server-side prepared statements each prepare is a
+ * round trip plus a parse on the MySQL side. This cache keeps the statement open after the caller closes it and
+ * hands it out again the next time the same SQL is prepared on the same physical connection. Callers still close
+ * their statements as usual: the handle they receive only clears parameters and marks the statement free.
+ *
+ * Not thread-safe; a physical connection is only used by one borrower at a time.
+ */
+final class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry> entries;
+
+    StatementCache(Connection physical, int maxSize) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Return a cached statement for {@code sql}, preparing (and caching) it on a miss.
+     *
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS}
+     */
+    PreparedStatement prepare(String sql, int autoGeneratedKeys, Connection logical) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.inUse) {
+            StatementCacheStats.hit(sql);
+            entry.inUse = true;
+            return entry.newHandle(logical);
+        }
+
+        StatementCacheStats.miss(sql);
+        PreparedStatement ps = physical.prepareStatement(sql, autoGeneratedKeys);
+        if (entry != null) {
+            // Same SQL is already open on this connection (nested use); hand out an uncached statement.
+            return ps;
+        }
+        entry = new Entry(key, ps);
+        entry.inUse = true;
+        entries.put(key, entry);
+        evictOverflow();
+        return entry.newHandle(logical);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            StatementCacheStats.eviction();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                eldest.closeQuietly();
+            }
+        }
+    }
+
+    private final class Entry {
+        final String key;
+        final PreparedStatement statement;
+        boolean inUse;
+        boolean evicted;
+
+        Entry(String key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        PreparedStatement newHandle(Connection logical) {
+            return (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new Handle(this, logical));
+        }
+
+        void release() {
+            inUse = false;
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                evicted = true;
+            }
+            if (evicted) {
+                entries.remove(key, this);
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    /**
+     * What the caller sees: forwards everything to the cached statement until closed.
+     */
+    private static final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final Connection logical;
+        private boolean closed;
+
+        Handle(Entry entry, Connection logical) {
+            this.entry = entry;
+            this.logical = logical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        entry.release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return logical;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.triviaapp.db;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide hit/miss counters of the per-connection {@link StatementCache}s, keyed by SQL constant name.
+ */
+public final class StatementCacheStats {
+
+    private static final ConcurrentHashMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final LongAdder EVICTIONS = new LongAdder();
+
+    private StatementCacheStats() {
+    }
+
+    static void hit(String sql) {
+        counter(sql).hits.increment();
+    }
+
+    static void miss(String sql) {
+        counter(sql).misses.increment();
+    }
+
+    static void eviction() {
+        EVICTIONS.increment();
+    }
+
+    public static long evictions() {
+        return EVICTIONS.sum();
+    }
+
+    /**
+     * Constant name -> {hits, misses}, sorted by name.
+     */
+    public static Map<String, long[]> snapshot() {
+        Map<String, long[]> out = new TreeMap<>();
+        for (Counter c : COUNTERS.values()) {
+            long[] prev = out.get(c.name);
+            long hits = c.hits.sum();
+            long misses = c.misses.sum();
+            if (prev != null) {
+                hits += prev[0];
+                misses += prev[1];
+            }
+            out.put(c.name, new long[]{hits, misses});
+        }
+        return out;
+    }
+
+    private static Counter counter(String sql) {
+        Counter c = COUNTERS.get(sql);
+        if (c == null) {
+            c = COUNTERS.computeIfAbsent(sql, s -> new Counter(SqlCatalog.nameOf(s)));
+        }
+        return c;
+    }
+
+    private static final class Counter {
+        final String name;
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+
+        Counter(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.triviaapp.db.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * One versioned schema change. Versions are applied in ascending order and recorded in {@code schema_version};
+ * a migration runs at most once per database.
+ *
+ * MySQL commits DDL implicitly, so {@link #apply(Connection)} must be safe to re-run if it fails halfway
+ * (use IF NOT EXISTS / {@link SchemaSupport} checks).
+ */
+public interface Migration {
+
+    int version();
+
+    String description();
+
+    void apply(Connection conn) throws SQLException;
+}
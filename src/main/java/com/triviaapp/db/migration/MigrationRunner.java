@@ -0,0 +1,88 @@
+package com.triviaapp.db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Brings the database schema up to date. Applied versions are stored in {@code schema_version}; every registered
+ * {@link Migration} with a higher version runs once, in order, and is recorded on success.
+ *
+ * Runs on the primary at startup (see {@code DBConnectionManager}); disable with DB_MIGRATE=false when the schema
+ * is managed elsewhere. Add new migrations to {@link #MIGRATIONS}.
+ */
+public final class MigrationRunner {
+
+    private static final List<Migration> MIGRATIONS = Collections.unmodifiableList(Arrays.asList(
+            new V1Baseline(),
+            new V2CoveringIndexes(),
+            new V3KeysetIndexes(),
+            new V4SessionScores(),
+            new V5UserCategoryScores(),
+            new V6BackfillLog()
+    ));
+
+    private static final String SQL_CREATE_VERSION_TABLE = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS schema_version (",
+            "  version INT NOT NULL,",
+            "  description VARCHAR(255) NOT NULL,",
+            "  applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,",
+            "  PRIMARY KEY (version)",
+            ")");
+    private static final String SQL_SELECT_VERSIONS = "SELECT version FROM schema_version";
+    private static final String SQL_INSERT_VERSION = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+
+    private MigrationRunner() {
+    }
+
+    /**
+     * Apply all pending migrations.
+     *
+     * @return number of migrations applied
+     */
+    public static int migrate(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(SQL_CREATE_VERSION_TABLE);
+        }
+        Set<Integer> applied = new HashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(SQL_SELECT_VERSIONS);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                applied.add(rs.getInt(1));
+            }
+        }
+
+        int count = 0;
+        for (Migration m : MIGRATIONS) {
+            if (applied.contains(m.version())) continue;
+            long start = System.nanoTime();
+            try {
+                m.apply(conn);
+                try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT_VERSION)) {
+                    ps.setInt(1, m.version());
+                    ps.setString(2, m.description());
+                    ps.executeUpdate();
+                }
+            } catch (SQLException e) {
+                throw new SQLException("Migration V" + m.version() + " (" + m.description() + ") failed: "
+                        + e.getMessage(), e.getSQLState(), e);
+            }
+            count++;
+            System.out.printf("Applied migration V%d (%s) in %dms%n", m.version(), m.description(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return count;
+    }
+
+    /** Highest version known to this build. */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+}
@@ -0,0 +1,75 @@
+package com.triviaapp.db.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Metadata checks that make DDL idempotent on both MySQL and H2 (neither supports CREATE INDEX IF NOT EXISTS
+ * in a form the other accepts).
+ */
+final class SchemaSupport {
+
+    private SchemaSupport() {
+    }
+
+    /**
+     * Create {@code name} on {@code table(columns)} unless an index with that name exists or an existing index
+     * already starts with the same columns (which serves the same queries).
+     *
+     * @return true when the index was created
+     */
+    static boolean createIndexIfMissing(Connection conn, String name, String table, String... columns)
+            throws SQLException {
+        List<String> wanted = new ArrayList<>();
+        for (String c : columns) wanted.add(c.toLowerCase(Locale.ROOT));
+
+        for (Map.Entry<String, List<String>> index : indexes(conn, table).entrySet()) {
+            List<String> existing = index.getValue();
+            if (index.getKey().equalsIgnoreCase(name)
+                    || (existing.size() >= wanted.size() && existing.subList(0, wanted.size()).equals(wanted))) {
+                return false;
+            }
+        }
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE INDEX " + name + " ON " + table + " (" + String.join(", ", columns) + ")");
+        }
+        System.out.println("Created index " + name + " on " + table + Arrays.toString(columns));
+        return true;
+    }
+
+    static boolean tableExists(Connection conn, String table) throws SQLException {
+        DatabaseMetaData md = conn.getMetaData();
+        try (ResultSet rs = md.getTables(conn.getCatalog(), null, table, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Index name -> lower-case column names in key order.
+     */
+    private static Map<String, List<String>> indexes(Connection conn, String table) throws SQLException {
+        Map<String, List<String>> out = new LinkedHashMap<>();
+        DatabaseMetaData md = conn.getMetaData();
+        try (ResultSet rs = md.getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                String index = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (index == null || column == null) continue;
+                List<String> cols = out.computeIfAbsent(index, k -> new ArrayList<>());
+                int pos = rs.getInt("ORDINAL_POSITION");
+                while (cols.size() < pos) cols.add(null);
+                cols.set(pos - 1, column.toLowerCase(Locale.ROOT));
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,28 @@
+package com.triviaapp.db.migration;
+
+import com.triviaapp.db.Schema;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Creates the tables from {@link Schema}. Databases that predate versioned migrations already have them, so
+ * this is a no-op there and only records the baseline.
+ */
+final class V1Baseline implements Migration {
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public String description() {
+        return "baseline schema";
+    }
+
+    @Override
+    public void apply(Connection conn) throws SQLException {
+        Schema.createTables(conn);
+    }
+}
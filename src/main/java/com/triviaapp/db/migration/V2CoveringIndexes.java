@@ -0,0 +1,58 @@
+package com.triviaapp.db.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Indexes for the hot DAO queries. Each one is tailored to a SQL constant so that MySQL can answer it from the
+ * index alone (or at least without scanning and sorting the table). Indexes whose leading columns already exist
+ * (e.g. from a UNIQUE or foreign key) are skipped.
+ */
+final class V2CoveringIndexes implements Migration {
+
+    @Override
+    public int version() {
+        return 2;
+    }
+
+    @Override
+    public String description() {
+        return "covering indexes for DAO queries";
+    }
+
+    @Override
+    public void apply(Connection conn) throws SQLException {
+        // ModeratedAnswerDAOImpl.SQL_SESSION_LEADERBOARD: WHERE session_id = ? GROUP BY participant_id, SUM(score)
+        // ModeratedAnswerDAOImpl.SQL_SELECT_BY_PARTICIPANT: WHERE participant_id = ? AND session_id = ?
+        SchemaSupport.createIndexIfMissing(conn, "idx_ma_session_participant_score",
+                "moderated_answers", "session_id", "participant_id", "score");
+        // ModeratedAnswerDAOImpl.SQL_SELECT_BY_SESSION: WHERE session_id = ? ORDER BY created_at
+        SchemaSupport.createIndexIfMissing(conn, "idx_ma_session_created",
+                "moderated_answers", "session_id", "created_at");
+
+        // SessionDAOImpl.SQL_LIST_ACTIVE_SUMMARY: WHERE status = 'joined' GROUP BY session_id (index only)
+        SchemaSupport.createIndexIfMissing(conn, "idx_sp_status_session",
+                "session_participants", "status", "session_id");
+        // SessionDAOImpl.SQL_LIST_ACTIVE_SUMMARY: sessions WHERE status = 'active'
+        SchemaSupport.createIndexIfMissing(conn, "idx_sessions_status_start",
+                "sessions", "status", "start_at");
+        // SessionDAOImpl.SQL_LIST_BY_HOST: WHERE host_user_id = ? ORDER BY start_at DESC
+        SchemaSupport.createIndexIfMissing(conn, "idx_sessions_host_start",
+                "sessions", "host_user_id", "start_at");
+
+        // QuestionDAOImpl.SQL_SELECT_IDS_BY_CATEGORY / SQL_LIST_QUESTIONS_BY_CATEGORY and
+        // SessionDAOImpl.SQL_INSERT_FROM_CATEGORY: WHERE category_id = ? ORDER BY question_id
+        SchemaSupport.createIndexIfMissing(conn, "idx_questions_category_id",
+                "questions", "category_id", "question_id");
+
+        // UserDAOImpl.SQL_FIND_PASSWORD_BY_EMAIL / SQL_FIND_USERID_BY_EMAIL: WHERE email = ?
+        SchemaSupport.createIndexIfMissing(conn, "idx_users_email", "users", "email");
+
+        // IndividualAnswerDAOImpl.SQL_SELECT_BY_USER: WHERE user_id = ? ORDER BY created_at DESC
+        SchemaSupport.createIndexIfMissing(conn, "idx_ia_user_created",
+                "individual_answers", "user_id", "created_at");
+        // IndividualAnswerDAOImpl.SQL_TOTAL_SCORE_FOR_INDIVIDUAL_MODE: WHERE user_id = ?, join on question_id, SUM(score)
+        SchemaSupport.createIndexIfMissing(conn, "idx_ia_user_question_score",
+                "individual_answers", "user_id", "question_id", "score");
+    }
+}
@@ -0,0 +1,35 @@
+package com.triviaapp.db.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Indexes for the keyset-paginated history queries. Each ends with the (timestamp, id) pair the query orders by,
+ * so a page is a short index range read in order, however far into the history it is.
+ */
+final class V3KeysetIndexes implements Migration {
+
+    @Override
+    public int version() {
+        return 3;
+    }
+
+    @Override
+    public String description() {
+        return "keyset pagination indexes";
+    }
+
+    @Override
+    public void apply(Connection conn) throws SQLException {
+        // SessionDAOImpl.SQL_PAGE_BY_HOST_*: WHERE host_user_id = ? ORDER BY start_at DESC, session_id DESC
+        SchemaSupport.createIndexIfMissing(conn, "idx_sessions_host_start_id",
+                "sessions", "host_user_id", "start_at", "session_id");
+        // IndividualAnswerDAOImpl.SQL_PAGE_BY_USER_*: WHERE user_id = ? ORDER BY created_at DESC, answer_id DESC
+        SchemaSupport.createIndexIfMissing(conn, "idx_ia_user_created_id",
+                "individual_answers", "user_id", "created_at", "answer_id");
+        // ModeratedAnswerDAOImpl.SQL_SELECT_BY_PARTICIPANT and SQL_PAGE_BY_PARTICIPANT_*:
+        // WHERE session_id = ? AND participant_id = ? ORDER BY created_at DESC, answer_id DESC
+        SchemaSupport.createIndexIfMissing(conn, "idx_ma_session_participant_created",
+                "moderated_answers", "session_id", "participant_id", "created_at", "answer_id");
+    }
+}
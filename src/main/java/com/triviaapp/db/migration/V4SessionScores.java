@@ -0,0 +1,51 @@
+package com.triviaapp.db.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds {@code session_scores}, each participant's running total in a session. {@code ModeratedAnswerDAOImpl}
+ * bumps the row in the same transaction as the answer insert, so the leaderboard reads one row per player in
+ * score order instead of summing every answer of the session. Existing answers are rolled up once here.
+ */
+final class V4SessionScores implements Migration {
+
+    private static final String SQL_CREATE_TABLE = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS session_scores (",
+            "  session_id INT NOT NULL,",
+            "  participant_id INT NOT NULL,",
+            "  total_score INT NOT NULL DEFAULT 0,",
+            "  PRIMARY KEY (session_id, participant_id),",
+            "  FOREIGN KEY (session_id) REFERENCES sessions (session_id),",
+            "  FOREIGN KEY (participant_id) REFERENCES users (user_id)",
+            ")");
+    private static final String SQL_BACKFILL = String.join("\n",
+            "INSERT INTO session_scores (session_id, participant_id, total_score)",
+            "SELECT session_id, participant_id, SUM(score)",
+            "FROM moderated_answers",
+            "GROUP BY session_id, participant_id");
+
+    @Override
+    public int version() {
+        return 4;
+    }
+
+    @Override
+    public String description() {
+        return "session score rollup";
+    }
+
+    @Override
+    public void apply(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(SQL_CREATE_TABLE);
+            st.execute("DELETE FROM session_scores");
+            int rows = st.executeUpdate(SQL_BACKFILL);
+            System.out.println("Backfilled " + rows + " session_scores rows");
+        }
+        // ModeratedAnswerDAOImpl.SQL_SESSION_LEADERBOARD: WHERE session_id = ? ORDER BY total_score DESC
+        SchemaSupport.createIndexIfMissing(conn, "idx_ss_session_score",
+                "session_scores", "session_id", "total_score", "participant_id");
+    }
+}
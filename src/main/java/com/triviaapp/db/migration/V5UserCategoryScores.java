@@ -0,0 +1,44 @@
+package com.triviaapp.db.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds {@code user_category_scores}, each user's individual-mode totals per category. {@code IndividualAnswerDAOImpl}
+ * updates the row in the same transaction as the answer insert, so a user's category score is a primary-key read
+ * instead of a sum over their whole answer history. The table starts empty; existing answers are rolled up by
+ * {@link com.triviaapp.db.ScoreRollupBackfill} once the pool is open, since that runs in parallel chunks, until
+ * it is recorded as complete in {@code backfill_log} (V6).
+ */
+final class V5UserCategoryScores implements Migration {
+
+    private static final String SQL_CREATE_TABLE = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS user_category_scores (",
+            "  user_id INT NOT NULL,",
+            "  category_id INT NOT NULL,",
+            "  total_score INT NOT NULL DEFAULT 0,",
+            "  answered INT NOT NULL DEFAULT 0,",
+            "  correct INT NOT NULL DEFAULT 0,",
+            "  PRIMARY KEY (user_id, category_id),",
+            "  FOREIGN KEY (user_id) REFERENCES users (user_id),",
+            "  FOREIGN KEY (category_id) REFERENCES categories (category_id)",
+            ")");
+
+    @Override
+    public int version() {
+        return 5;
+    }
+
+    @Override
+    public String description() {
+        return "user category score rollup";
+    }
+
+    @Override
+    public void apply(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(SQL_CREATE_TABLE);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.triviaapp.db.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds {@code backfill_log}, one row per data backfill that has run to completion. Backfills that run after the
+ * migrations (such as {@link com.triviaapp.db.ScoreRollupBackfill}) write their row only once every chunk has
+ * committed, so a backfill cut short by a failure or a restart is started again on the next startup.
+ */
+final class V6BackfillLog implements Migration {
+
+    private static final String SQL_CREATE_TABLE = String.join("\n",
+            "CREATE TABLE IF NOT EXISTS backfill_log (",
+            "  job VARCHAR(64) NOT NULL,",
+            "  completed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,",
+            "  PRIMARY KEY (job)",
+            ")");
+
+    @Override
+    public int version() {
+        return 6;
+    }
+
+    @Override
+    public String description() {
+        return "backfill completion log";
+    }
+
+    @Override
+    public void apply(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(SQL_CREATE_TABLE);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.triviaapp.externalapi;
 
-import io.github.cdimascio.dotenv.Dotenv;
+import com.triviaapp.config.AppConfig;
 import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
@@ -13,55 +13,46 @@ import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
-import java.util.Objects;
 
 /**
  * This class offers functionality for managing Whisper server's URLs/URIs.
  */
 public final class WhisperConnection extends ServerConnection {
-    public static final URI WHISPER_GET_URI;
-    public static final URI WHISPER_POST_URI;
-
-    private static final Dotenv ENV;
-    private static final String ENV_MODE;
-    private static final String HF_API_TOKEN;
-
-    private static final String DEV_MODE = "dev";
-    private static final int WHISPER_LOCAL_PORT = 8888;
-
-    private static final String HOST;
-    private static final int PORT;
-    private static final URI WHISPER_URI;
     private static final String HF_API_URL = "https://router.huggingface.co/hf-inference/models/sentence-transformers/all-MiniLM-L6-v2/pipeline/sentence-similarity";
 
     private static final double MATCH_RESULT_EPSILON = 0.001;
 
-    static {
-        ENV = Dotenv.load();
-        ENV_MODE = getMode(ENV.get("WHISPER_MODE"));
-        HOST = ENV_MODE.equals(DEV_MODE) ? "localhost" : ENV.get("WHISPER_HOST");
-        PORT = ENV_MODE.equals(DEV_MODE) ? WHISPER_LOCAL_PORT : Integer.parseInt(Objects.requireNonNull(ENV.get("WHISPER_PORT")));
-        WHISPER_URI = createURI();
-        WHISPER_GET_URI = URI.create(WHISPER_URI + "/whisper");
-        WHISPER_POST_URI = URI.create(WHISPER_GET_URI + "/transcribe");
-        HF_API_TOKEN = ENV.get("WHISPER_HF_API_KEY");
+    /**
+     * URI of the Whisper health endpoint, resolved from the current {@link AppConfig}.
+     */
+    public static URI getGetURI() {
+        return URI.create(AppConfig.current().getWhisperBaseUri() + "/whisper");
+    }
+
+    /**
+     * URI of the Whisper transcription endpoint, resolved from the current {@link AppConfig}.
+     */
+    public static URI getPostURI() {
+        return URI.create(getGetURI() + "/transcribe");
     }
 
     @Override
     public URL getPostURL() {
+        final URI uri = getPostURI();
         try {
-            return WHISPER_POST_URI.toURL();
+            return uri.toURL();
         } catch (final MalformedURLException e) {
-            throw new RuntimeException(WHISPER_POST_URI + "is not a valid URL extension", e);
+            throw new RuntimeException(uri + "is not a valid URL extension", e);
         }
     }
 
     @Override
     public URL getGetURL() {
+        final URI uri = getGetURI();
         try {
-            return WHISPER_GET_URI.toURL();
+            return uri.toURL();
         } catch (final MalformedURLException e) {
-            throw new RuntimeException(WHISPER_POST_URI + "is not a valid URL extension", e);
+            throw new RuntimeException(uri + "is not a valid URL extension", e);
         }
     }
 
@@ -81,6 +72,10 @@ public final class WhisperConnection extends ServerConnection {
         final String contentType = multipart.getContentType();
         final long contentLength = multipart.getContentLength();
 
+        final AppConfig config = AppConfig.current();
+        connection.setConnectTimeout(config.getAiConnectTimeoutMillis());
+        connection.setReadTimeout(config.getAiReadTimeoutMillis());
+
         // For multipart form data
         connection.setDoOutput(true);
         connection.setRequestMethod("POST");
@@ -102,9 +97,12 @@ public final class WhisperConnection extends ServerConnection {
 
         // Setup HttpURLConnection
         final URL url = new URL(HF_API_URL);
+        final AppConfig config = AppConfig.current();
         final HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        conn.setConnectTimeout(config.getAiConnectTimeoutMillis());
+        conn.setReadTimeout(config.getAiReadTimeoutMillis());
         conn.setRequestMethod("POST");
-        conn.setRequestProperty("Authorization", "Bearer " + HF_API_TOKEN);
+        conn.setRequestProperty("Authorization", "Bearer " + config.getWhisperHfApiKey());
         conn.setRequestProperty("Content-Type", "application/json");
         conn.setRequestProperty("Accept", "application/json");
         conn.setDoOutput(true);
@@ -148,18 +146,4 @@ public final class WhisperConnection extends ServerConnection {
 
         return payload;
     }
-
-    private static String getMode(final String mode) {
-        if (mode == null || mode.isEmpty()) {
-            return DEV_MODE;
-        }
-
-        return mode;
-    }
-
-    private static URI createURI() {
-        final String http = DEV_MODE.equals(ENV_MODE) ? "http" : "https";
-
-        return URI.create(String.format("%s://%s:%s", http, HOST, PORT));
-    }
 }
@@ -0,0 +1,69 @@
+package com.triviaapp.model;
+
+import java.time.Instant;
+
+/**
+ * A submitted answer, from either `moderated_answers` (multiplayer) or `individual_answers` (solo play).
+ * Individual answers have no session, so {@link #getSessionId()} is 0 for them.
+ */
+public final class Answer {
+
+    private final int answerId;
+    private final int sessionId;
+    private final int questionId;
+    private final int userId;
+    private final String selectedAnswer;
+    private final boolean correct;
+    private final int score;
+    private final Instant createdAt;
+
+    public Answer(int answerId, int sessionId, int questionId, int userId, String selectedAnswer,
+                  boolean correct, int score, Instant createdAt) {
+        this.answerId = answerId;
+        this.sessionId = sessionId;
+        this.questionId = questionId;
+        this.userId = userId;
+        this.selectedAnswer = selectedAnswer;
+        this.correct = correct;
+        this.score = score;
+        this.createdAt = createdAt;
+    }
+
+    public int getAnswerId() {
+        return answerId;
+    }
+
+    public int getSessionId() {
+        return sessionId;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    /** The answering user (participant_id for moderated answers, user_id for individual ones). */
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getSelectedAnswer() {
+        return selectedAnswer;
+    }
+
+    public boolean isCorrect() {
+        return correct;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Answer[" + answerId + ", question " + questionId + ", user " + userId + ", score " + score + "]";
+    }
+}
@@ -0,0 +1,40 @@
+package com.triviaapp.model;
+
+/**
+ * One line of a session leaderboard. Tied scores share a rank (1-based).
+ */
+public final class LeaderboardEntry {
+
+    private final int participantId;
+    private final String username;
+    private final int totalScore;
+    private final int rank;
+
+    public LeaderboardEntry(int participantId, String username, int totalScore, int rank) {
+        this.participantId = participantId;
+        this.username = username;
+        this.totalScore = totalScore;
+        this.rank = rank;
+    }
+
+    public int getParticipantId() {
+        return participantId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + rank + " " + username + " (" + totalScore + ")";
+    }
+}
@@ -0,0 +1,36 @@
+package com.triviaapp.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query. Pass {@link #getNextCursor()} back to the same DAO method to read the
+ * following page; it is null on the last page. Cursors are opaque strings and safe to put in a URL.
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" + items.size() + " items, next=" + nextCursor + "}";
+    }
+}
@@ -0,0 +1,49 @@
+package com.triviaapp.model;
+
+import java.time.Instant;
+
+/**
+ * A user's membership in a session (`session_participants` joined with `users`).
+ */
+public final class Participant {
+
+    private final int participantId;
+    private final String username;
+    private final Instant joinedAt;
+    private final Instant leftAt;
+    private final String status;
+
+    public Participant(int participantId, String username, Instant joinedAt, Instant leftAt, String status) {
+        this.participantId = participantId;
+        this.username = username;
+        this.joinedAt = joinedAt;
+        this.leftAt = leftAt;
+        this.status = status;
+    }
+
+    public int getParticipantId() {
+        return participantId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getJoinedAt() {
+        return joinedAt;
+    }
+
+    /** null while the participant is still joined. */
+    public Instant getLeftAt() {
+        return leftAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "Participant[" + participantId + ", " + username + ", " + status + "]";
+    }
+}
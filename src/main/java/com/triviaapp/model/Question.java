@@ -0,0 +1,88 @@
+package com.triviaapp.model;
+
+import java.time.Instant;
+
+/**
+ * A row of the `questions` table.
+ */
+public final class Question {
+
+    private final int questionId;
+    private final int categoryId;
+    private final String xmlQuestion;
+    private final String youtubeUrl;
+    private final String questionText;
+    private final String answersOption;
+    private final String answersKey;
+    private final int points;
+    private final int uploadedBy;
+    private final Instant createdAt;
+    private final Instant updatedAt;
+
+    public Question(int questionId, int categoryId, String xmlQuestion, String youtubeUrl, String questionText,
+                    String answersOption, String answersKey, int points, int uploadedBy,
+                    Instant createdAt, Instant updatedAt) {
+        this.questionId = questionId;
+        this.categoryId = categoryId;
+        this.xmlQuestion = xmlQuestion;
+        this.youtubeUrl = youtubeUrl;
+        this.questionText = questionText;
+        this.answersOption = answersOption;
+        this.answersKey = answersKey;
+        this.points = points;
+        this.uploadedBy = uploadedBy;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public String getXmlQuestion() {
+        return xmlQuestion;
+    }
+
+    public String getYoutubeUrl() {
+        return youtubeUrl;
+    }
+
+    public String getQuestionText() {
+        return questionText;
+    }
+
+    /** The answer options as stored, a JSON object of key -> option text. */
+    public String getAnswersOption() {
+        return answersOption;
+    }
+
+    public String getAnswersKey() {
+        return answersKey;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    /** User id of the uploader, 0 when unknown. */
+    public int getUploadedBy() {
+        return uploadedBy;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Question[" + questionId + ", category " + categoryId + "]";
+    }
+}
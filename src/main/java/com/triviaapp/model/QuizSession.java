@@ -0,0 +1,78 @@
+package com.triviaapp.model;
+
+import java.time.Instant;
+
+/**
+ * A row of the `sessions` table: one hosted quiz (lobby).
+ *
+ * Named QuizSession so it does not clash with the servlet and WebSocket {@code Session} types.
+ */
+public final class QuizSession {
+
+    private final int sessionId;
+    private final int hostUserId;
+    private final String sessionName;
+    private final int categoryId;
+    private final int maxParticipants;
+    private final String status;
+    private final int currentIndex;
+    private final Instant startAt;
+    private final Instant endAt;
+
+    public QuizSession(int sessionId, int hostUserId, String sessionName, int categoryId, int maxParticipants,
+                       String status, int currentIndex, Instant startAt, Instant endAt) {
+        this.sessionId = sessionId;
+        this.hostUserId = hostUserId;
+        this.sessionName = sessionName;
+        this.categoryId = categoryId;
+        this.maxParticipants = maxParticipants;
+        this.status = status;
+        this.currentIndex = currentIndex;
+        this.startAt = startAt;
+        this.endAt = endAt;
+    }
+
+    public int getSessionId() {
+        return sessionId;
+    }
+
+    public int getHostUserId() {
+        return hostUserId;
+    }
+
+    public String getSessionName() {
+        return sessionName;
+    }
+
+    /** 0 when the session has no category. */
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    /** 0 when the session has no participant limit. */
+    public int getMaxParticipants() {
+        return maxParticipants;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    public Instant getStartAt() {
+        return startAt;
+    }
+
+    /** null while the session is running. */
+    public Instant getEndAt() {
+        return endAt;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizSession[" + sessionId + ", " + sessionName + ", " + status + "]";
+    }
+}
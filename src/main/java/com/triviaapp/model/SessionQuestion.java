@@ -0,0 +1,36 @@
+package com.triviaapp.model;
+
+/**
+ * A question of a hosted session together with its position in the session and its category name, as loaded
+ * once per lobby by {@code SessionDAO.findSessionQuestionPack}.
+ */
+public final class SessionQuestion {
+
+    private final int index;
+    private final Question question;
+    private final String categoryName;
+
+    public SessionQuestion(int index, Question question, String categoryName) {
+        this.index = index;
+        this.question = question;
+        this.categoryName = categoryName;
+    }
+
+    /** 0-based position, matching the session's current_index. */
+    public int getIndex() {
+        return index;
+    }
+
+    public Question getQuestion() {
+        return question;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionQuestion{" + index + ", " + question.getQuestionId() + ", " + categoryName + "}";
+    }
+}
@@ -0,0 +1,60 @@
+package com.triviaapp.model;
+
+/**
+ * An active session as listed in the lobby browser, with its host's name and joined player count.
+ */
+public final class SessionSummary {
+
+    private final int sessionId;
+    private final String sessionName;
+    private final int hostUserId;
+    private final String hostUsername;
+    private final int maxParticipants;
+    private final String status;
+    private final int currentParticipants;
+
+    public SessionSummary(int sessionId, String sessionName, int hostUserId, String hostUsername,
+                          int maxParticipants, String status, int currentParticipants) {
+        this.sessionId = sessionId;
+        this.sessionName = sessionName;
+        this.hostUserId = hostUserId;
+        this.hostUsername = hostUsername;
+        this.maxParticipants = maxParticipants;
+        this.status = status;
+        this.currentParticipants = currentParticipants;
+    }
+
+    public int getSessionId() {
+        return sessionId;
+    }
+
+    public String getSessionName() {
+        return sessionName;
+    }
+
+    public int getHostUserId() {
+        return hostUserId;
+    }
+
+    public String getHostUsername() {
+        return hostUsername;
+    }
+
+    /** 0 when the session has no participant limit. */
+    public int getMaxParticipants() {
+        return maxParticipants;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getCurrentParticipants() {
+        return currentParticipants;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionSummary[" + sessionId + ", " + sessionName + ", " + currentParticipants + " joined]";
+    }
+}
@@ -0,0 +1,42 @@
+package com.triviaapp.model;
+
+/**
+ * What login needs to know about a user: the stored password hash to check against and the identity and role to
+ * put in the HTTP session.
+ */
+public final class UserPrincipal {
+
+    private final int userId;
+    private final String passwordHash;
+    private final int roleId;
+    private final String roleName;
+
+    public UserPrincipal(int userId, String passwordHash, int roleId, String roleName) {
+        this.userId = userId;
+        this.passwordHash = passwordHash;
+        this.roleId = roleId;
+        this.roleName = roleName;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    public int getRoleId() {
+        return roleId;
+    }
+
+    /** Null when the user's role_id has no row in roles. */
+    public String getRoleName() {
+        return roleName;
+    }
+
+    @Override
+    public String toString() {
+        return "user " + userId + " (" + roleName + ")";
+    }
+}
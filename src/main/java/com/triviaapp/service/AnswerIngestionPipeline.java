@@ -0,0 +1,343 @@
+package com.triviaapp.service;
+
+import com.triviaapp.config.AppConfig;
+import com.triviaapp.dao.DaoExecutor;
+import com.triviaapp.dao.ModeratedAnswerDAO;
+import com.triviaapp.dao.impl.ModeratedAnswerDAOImpl;
+import com.triviaapp.model.Answer;
+import com.triviaapp.util.DBConnectionManager;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Group commit for quiz answers. When a question closes most of a lobby answers within a second; instead of one
+ * connection and one transaction per answer, answers wait on a bounded queue and a single writer thread stores
+ * them in batches: a batch is written once it has ANSWER_BATCH_MAX_ROWS answers or ANSWER_BATCH_MAX_DELAY_MS after
+ * its first answer arrived, whichever comes first, in one transaction through
+ * {@link ModeratedAnswerDAO#createModeratedAnswersBatch}.
+ *
+ * {@link #submit(Answer)} returns a future that completes only after the answer's transaction has committed, so
+ * callers acknowledge durable answers only. When the queue is full the submitter waits up to
+ * ANSWER_ENQUEUE_TIMEOUT_MS for room and the answer is then refused with {@link QueueFullException}. If a batch
+ * fails it is retried answer by answer, so one bad row (e.g. a deleted session) fails only its own future.
+ */
+public final class AnswerIngestionPipeline {
+
+    /** The queue stayed full for the whole enqueue timeout; the answer was not stored. */
+    public static final class QueueFullException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        QueueFullException(int capacity) {
+            super("Answer queue full (" + capacity + " waiting)");
+        }
+    }
+
+    /** An answer waiting to be written, and the future its submitter holds. */
+    private static final class Pending {
+        final Answer answer;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<Answer> committed = new CompletableFuture<>();
+        boolean settled;  // writer thread only; the future itself is completed later on another thread
+
+        Pending(Answer answer) {
+            this.answer = answer;
+        }
+    }
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private static volatile AnswerIngestionPipeline instance;
+    private static volatile boolean stopped;
+
+    private final ModeratedAnswerDAO moderatedAnswerDAO = new ModeratedAnswerDAOImpl();
+    private final BlockingQueue<Pending> queue;
+    private final int capacity;
+    private final int maxRows;
+    private final long maxDelayNanos;
+    private final long enqueueTimeoutMillis;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder retriedBatches = new LongAdder();
+    private final Histogram batchSizes = new ConcurrentHistogram(1_000_000, 2);
+    private final Histogram commitMicros = new ConcurrentHistogram(HIGHEST_MICROS, 2);
+    private final Histogram ackMicros = new ConcurrentHistogram(HIGHEST_MICROS, 2);
+
+    private AnswerIngestionPipeline(AppConfig config) {
+        capacity = config.getAnswerQueueCapacity();
+        maxRows = config.getAnswerBatchMaxRows();
+        maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(config.getAnswerBatchMaxDelayMillis());
+        enqueueTimeoutMillis = config.getAnswerEnqueueTimeoutMillis();
+        queue = new ArrayBlockingQueue<>(capacity);
+        writer = new Thread(this::run, "answer-writer");
+        writer.setDaemon(true);
+        writer.start();
+        System.out.println("Answer pipeline: queue " + capacity + ", batches of up to " + maxRows + " rows or "
+                + config.getAnswerBatchMaxDelayMillis() + "ms");
+    }
+
+    /**
+     * Queue {@code answer} for the next group commit; its id and timestamp are ignored. The future completes with
+     * the answer once it is committed, or exceptionally with the {@link SQLException} that rejected it or a
+     * {@link QueueFullException}. May block the caller for up to ANSWER_ENQUEUE_TIMEOUT_MS while the queue is full.
+     */
+    public static CompletableFuture<Answer> submit(Answer answer) {
+        AnswerIngestionPipeline p = instance();
+        Pending pending = new Pending(answer);
+        if (p == null || !p.running) {
+            pending.committed.completeExceptionally(new SQLException("Answer pipeline stopped"));
+            return pending.committed;
+        }
+        p.submitted.increment();
+        boolean queued;
+        try {
+            queued = p.queue.offer(pending)
+                    || p.queue.offer(pending, p.enqueueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            p.rejected.increment();
+            pending.committed.completeExceptionally(new QueueFullException(p.capacity));
+        }
+        return pending.committed;
+    }
+
+    /** Counters and latency percentiles since startup or the last {@link #resetStats()}. */
+    public static Stats stats() {
+        AnswerIngestionPipeline p = instance;
+        return p == null ? null : new Stats(p);
+    }
+
+    /** Clear the batch size and latency histograms. */
+    public static void resetStats() {
+        AnswerIngestionPipeline p = instance;
+        if (p != null) {
+            p.batchSizes.reset();
+            p.commitMicros.reset();
+            p.ackMicros.reset();
+        }
+    }
+
+    /**
+     * Stop accepting answers and write the ones already queued. Called when the web application is undeployed,
+     * before the DAO executor and the connection pool shut down. The stopped pipeline stays in place, so answers
+     * that arrive later are refused instead of starting a new writer on closed pools.
+     */
+    public static synchronized void shutdown() {
+        stopped = true;
+        AnswerIngestionPipeline p = instance;
+        if (p == null) {
+            return;
+        }
+        p.running = false;
+        try {
+            p.writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!p.writer.isAlive()) {
+            // Answers that raced with the shutdown and arrived after the writer's last poll.
+            Pending left;
+            while ((left = p.queue.poll()) != null) {
+                p.fail(left, new SQLException("Answer pipeline stopped"));
+            }
+        }
+    }
+
+    /** The pipeline, started on first use; null if {@link #shutdown()} ran before it was ever started. */
+    private static AnswerIngestionPipeline instance() {
+        AnswerIngestionPipeline p = instance;
+        if (p == null) {
+            synchronized (AnswerIngestionPipeline.class) {
+                p = instance;
+                if (p == null && !stopped) {
+                    p = new AnswerIngestionPipeline(AppConfig.current());
+                    instance = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxRows);
+        while (true) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (!running) return;
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxRows) {
+                    queue.drainTo(batch, maxRows - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= maxRows || wait <= 0) break;
+                    Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                // Nothing but container teardown interrupts the writer: stop accepting answers, drain the rest.
+                running = false;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                for (Pending p : batch) fail(p, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Answer> answers = new ArrayList<>(batch.size());
+        for (Pending p : batch) answers.add(p.answer);
+        long start = System.nanoTime();
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            boolean oldAuto = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                try {
+                    moderatedAnswerDAO.createModeratedAnswersBatch(conn, answers);
+                    conn.commit();
+                } catch (SQLException ex) {
+                    conn.rollback();
+                    retriedBatches.increment();
+                    retryOneByOne(conn, batch);
+                    return;
+                }
+            } finally {
+                conn.setAutoCommit(oldAuto);
+            }
+        } catch (SQLException e) {
+            // No connection, or the rollback itself failed: nothing in this batch is known to be stored.
+            e.printStackTrace();
+            for (Pending p : batch) fail(p, e);
+            return;
+        }
+        batchSizes.recordValue(batch.size());
+        commitMicros.recordValue(clampMicros(System.nanoTime() - start));
+        for (Pending p : batch) succeed(p);
+    }
+
+    private void retryOneByOne(Connection conn, List<Pending> batch) throws SQLException {
+        for (Pending p : batch) {
+            try {
+                moderatedAnswerDAO.createModeratedAnswersBatch(conn, Collections.singletonList(p.answer));
+                conn.commit();
+                succeed(p);
+            } catch (SQLException ex) {
+                conn.rollback();
+                fail(p, ex);
+            }
+        }
+    }
+
+    private void succeed(Pending p) {
+        p.settled = true;
+        committed.increment();
+        ackMicros.recordValue(clampMicros(System.nanoTime() - p.enqueuedAt));
+        // Complete on the DAO executor: the submitters' follow-up stages (acks, leaderboard broadcasts) must not
+        // run on, and hold up, the writer thread.
+        completer().execute(() -> p.committed.complete(p.answer));
+    }
+
+    private void fail(Pending p, Throwable cause) {
+        if (p.settled) return;
+        p.settled = true;
+        failed.increment();
+        completer().execute(() -> p.committed.completeExceptionally(cause));
+    }
+
+    private Executor completer() {
+        return running ? DaoExecutor.executor() : Runnable::run;
+    }
+
+    private static long clampMicros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Point-in-time view of the pipeline: counters, the current queue depth, and percentiles of the batch size,
+     * the commit time of a batch and the time from submit to acknowledgement (milliseconds).
+     */
+    public static final class Stats {
+        private final int queued;
+        private final int capacity;
+        private final long submitted;
+        private final long committed;
+        private final long failed;
+        private final long rejected;
+        private final long batches;
+        private final long retriedBatches;
+        private final double meanBatchSize;
+        private final long maxBatchSize;
+        private final double commitP50Millis;
+        private final double commitP99Millis;
+        private final double ackP50Millis;
+        private final double ackP99Millis;
+        private final double ackMaxMillis;
+
+        private Stats(AnswerIngestionPipeline p) {
+            Histogram sizes = p.batchSizes.copy();
+            Histogram commit = p.commitMicros.copy();
+            Histogram ack = p.ackMicros.copy();
+            queued = p.queue.size();
+            capacity = p.capacity;
+            submitted = p.submitted.sum();
+            committed = p.committed.sum();
+            failed = p.failed.sum();
+            rejected = p.rejected.sum();
+            batches = sizes.getTotalCount();
+            retriedBatches = p.retriedBatches.sum();
+            meanBatchSize = batches == 0 ? 0.0 : sizes.getMean();
+            maxBatchSize = sizes.getMaxValue();
+            commitP50Millis = commit.getValueAtPercentile(50) / 1000.0;
+            commitP99Millis = commit.getValueAtPercentile(99) / 1000.0;
+            ackP50Millis = ack.getValueAtPercentile(50) / 1000.0;
+            ackP99Millis = ack.getValueAtPercentile(99) / 1000.0;
+            ackMaxMillis = ack.getMaxValue() / 1000.0;
+        }
+
+        public int getQueued() { return queued; }
+        public int getCapacity() { return capacity; }
+        public long getSubmitted() { return submitted; }
+        public long getCommitted() { return committed; }
+        public long getFailed() { return failed; }
+
+        /** Answers refused because the queue stayed full. */
+        public long getRejected() { return rejected; }
+
+        /** Batches committed in one transaction (retried batches are not counted). */
+        public long getBatches() { return batches; }
+        public long getRetriedBatches() { return retriedBatches; }
+        public double getMeanBatchSize() { return meanBatchSize; }
+        public long getMaxBatchSize() { return maxBatchSize; }
+        public double getCommitP50Millis() { return commitP50Millis; }
+        public double getCommitP99Millis() { return commitP99Millis; }
+        public double getAckP50Millis() { return ackP50Millis; }
+        public double getAckP99Millis() { return ackP99Millis; }
+        public double getAckMaxMillis() { return ackMaxMillis; }
+    }
+}
@@ -0,0 +1,37 @@
+package com.triviaapp.service;
+
+import java.util.Locale;
+
+/**
+ * Row-oriented file formats accepted by the bulk import and produced by the exports.
+ */
+public enum DataFormat {
+    CSV("text/csv", "csv"),
+    JSON_LINES("application/x-ndjson", "jsonl");
+
+    private final String contentType;
+    private final String extension;
+
+    DataFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+
+    public String getExtension() { return extension; }
+
+    /**
+     * Resolve a {@code format} request parameter ("csv", "jsonl"), falling back to a content type.
+     *
+     * @return the format, or null when neither names one
+     */
+    public static DataFormat parse(String format, String contentType) {
+        String s = format != null ? format : contentType;
+        if (s == null) return null;
+        s = s.toLowerCase(Locale.ROOT);
+        if (s.contains("csv")) return CSV;
+        if (s.contains("json")) return JSON_LINES;
+        return null;
+    }
+}
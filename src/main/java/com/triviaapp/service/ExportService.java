@@ -0,0 +1,129 @@
+package com.triviaapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.triviaapp.dao.ModeratedAnswerDAO;
+import com.triviaapp.dao.QuestionDAO;
+import com.triviaapp.dao.impl.ModeratedAnswerDAOImpl;
+import com.triviaapp.dao.impl.QuestionDAOImpl;
+import com.triviaapp.model.Answer;
+import com.triviaapp.model.Question;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.SQLException;
+
+/**
+ * Exports a category's questions and a session's answers as CSV or JSON Lines.
+ *
+ * Rows come from the streaming DAO methods and are written as they arrive, so memory use does not depend on the
+ * number of rows. The question CSV uses the column names the bulk import expects ({@link QuestionImportService}),
+ * so an exported bank can be loaded again as is.
+ */
+public class ExportService {
+
+    private static final String[] OPTION_KEYS = {"A", "B", "C", "D"};
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final QuestionDAO questionDAO;
+    private final ModeratedAnswerDAO answerDAO;
+
+    public ExportService() {
+        this(new QuestionDAOImpl(), new ModeratedAnswerDAOImpl());
+    }
+
+    public ExportService(QuestionDAO questionDAO, ModeratedAnswerDAO answerDAO) {
+        this.questionDAO = questionDAO;
+        this.answerDAO = answerDAO;
+    }
+
+    /**
+     * @return the number of questions written
+     */
+    public long exportCategoryQuestions(int categoryId, DataFormat format, Writer out)
+            throws SQLException, IOException {
+        if (format == DataFormat.CSV) {
+            CsvWriter csv = new CsvWriter(out);
+            csv.writeRecord("question_id", "category_id", "question_text", "option_a", "option_b", "option_c",
+                    "option_d", "answer_key", "points", "youtube_url");
+            return questionDAO.streamQuestionsByCategory(categoryId, q -> {
+                JsonNode options = parseOptions(q.getAnswersOption());
+                csv.writeRecord(q.getQuestionId(), q.getCategoryId(), q.getQuestionText(),
+                        option(options, 0), option(options, 1), option(options, 2), option(options, 3),
+                        q.getAnswersKey(), q.getPoints(), q.getYoutubeUrl());
+            });
+        }
+        try (JsonGenerator gen = JSON.getFactory().createGenerator(out)) {
+            return questionDAO.streamQuestionsByCategory(categoryId, q -> writeJson(gen, q));
+        }
+    }
+
+    /**
+     * @return the number of answers written
+     */
+    public long exportSessionAnswers(int sessionId, DataFormat format, Writer out) throws SQLException, IOException {
+        if (format == DataFormat.CSV) {
+            CsvWriter csv = new CsvWriter(out);
+            csv.writeRecord("answer_id", "session_id", "question_id", "participant_id", "selected_answer",
+                    "is_correct", "score", "created_at");
+            return answerDAO.streamAnswersBySession(sessionId, a -> csv.writeRecord(a.getAnswerId(),
+                    a.getSessionId(), a.getQuestionId(), a.getUserId(), a.getSelectedAnswer(), a.isCorrect(),
+                    a.getScore(), a.getCreatedAt()));
+        }
+        try (JsonGenerator gen = JSON.getFactory().createGenerator(out)) {
+            return answerDAO.streamAnswersBySession(sessionId, a -> writeJson(gen, a));
+        }
+    }
+
+    private static void writeJson(JsonGenerator gen, Question q) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("question_id", q.getQuestionId());
+        gen.writeNumberField("category_id", q.getCategoryId());
+        gen.writeStringField("question_text", q.getQuestionText());
+        gen.writeFieldName("options");
+        // Stored text is not trusted to be valid JSON: copying it raw could break the record.
+        String options = q.getAnswersOption();
+        JsonNode parsed = parseOptions(options);
+        if (parsed != null && parsed.isObject()) {
+            gen.writeTree(parsed);
+        } else {
+            gen.writeString(options);
+        }
+        gen.writeStringField("answer_key", q.getAnswersKey());
+        gen.writeNumberField("points", q.getPoints());
+        gen.writeStringField("youtube_url", q.getYoutubeUrl());
+        gen.writeStringField("xml_question", q.getXmlQuestion());
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    private static void writeJson(JsonGenerator gen, Answer a) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("answer_id", a.getAnswerId());
+        gen.writeNumberField("session_id", a.getSessionId());
+        gen.writeNumberField("question_id", a.getQuestionId());
+        gen.writeNumberField("participant_id", a.getUserId());
+        gen.writeStringField("selected_answer", a.getSelectedAnswer());
+        gen.writeBooleanField("is_correct", a.isCorrect());
+        gen.writeNumberField("score", a.getScore());
+        gen.writeStringField("created_at", a.getCreatedAt() == null ? null : a.getCreatedAt().toString());
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    private static JsonNode parseOptions(String json) {
+        try {
+            return json == null ? null : JSON.readTree(json);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String option(JsonNode options, int i) {
+        if (options == null) return null;
+        JsonNode v = options.isArray() ? options.get(i) : options.get(OPTION_KEYS[i]);
+        return v == null || v.isNull() ? null : v.asText();
+    }
+}
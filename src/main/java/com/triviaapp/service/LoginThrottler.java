@@ -0,0 +1,292 @@
+package com.triviaapp.service;
+
+import com.triviaapp.config.AppConfig;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits failed logins per client IP and per email, so credential stuffing is turned away before it costs a user
+ * lookup or a BCrypt verification. {@link #check} is called first; {@link #recordFailure} after a wrong email or
+ * password; {@link #recordSuccess} clears the email's count (not the IP's, one valid account must not reset a
+ * stuffing run from that address).
+ *
+ * Each key has a sliding window of LOGIN_THROTTLE_WINDOW_MS, approximated from two fixed windows: the failures in
+ * the current window plus the previous window's failures weighted by how much of it still overlaps the sliding
+ * one. A key's state is one {@code AtomicLong} updated by compare-and-set, and the keys are spread over
+ * independent shards, so concurrent logins never wait on a lock. Once per window, when a new key arrives, a shard
+ * drops the keys whose failures have aged out. A shard holding its share of LOGIN_THROTTLE_MAX_KEYS live keys makes
+ * room for a new one by evicting the lowest-scoring of a few sampled keys, so a flood of addresses cannot exhaust
+ * memory and the keys that are being throttled, having the highest counts, are the last to go.
+ */
+public final class LoginThrottler {
+
+    private static final int SHARDS = 16;
+    private static final long COUNT_MASK = 0xFFFF;
+    private static final int EVICTION_SAMPLE = 8;
+
+    private static volatile LoginThrottler instance;
+
+    private final long windowMillis;
+    private final Limiter byIp;
+    private final Limiter byEmail;
+
+    private LoginThrottler(AppConfig config) {
+        windowMillis = config.getLoginThrottleWindowMillis();
+        int maxKeys = config.getLoginThrottleMaxKeys();
+        byIp = new Limiter(config.getLoginThrottleMaxPerIp(), maxKeys);
+        byEmail = new Limiter(config.getLoginThrottleMaxPerEmail(), maxKeys);
+    }
+
+    /**
+     * Whether a login from {@code ip} for {@code email} may go ahead.
+     *
+     * @return 0 when it may, otherwise the number of seconds until the sliding count of every exceeded limit has
+     *         dropped below it (with no further failures)
+     */
+    public static int check(String ip, String email) {
+        LoginThrottler t = instance();
+        long now = System.currentTimeMillis();
+        // Check both so a throttled attempt is counted against each limit it exceeds.
+        long ipWait = t.byIp.blockedFor(t, ip, now);
+        long emailWait = t.byEmail.blockedFor(t, normalize(email), now);
+        long wait = Math.max(ipWait, emailWait);
+        return wait == 0 ? 0 : (int) Math.max(1, (wait + 999) / 1000);
+    }
+
+    /** Count a failed login (unknown email or wrong password) against the IP and the email. */
+    public static void recordFailure(String ip, String email) {
+        LoginThrottler t = instance();
+        long now = System.currentTimeMillis();
+        t.byIp.increment(t, ip, now);
+        t.byEmail.increment(t, normalize(email), now);
+    }
+
+    /** Forget the email's failures after a successful login. */
+    public static void recordSuccess(String email) {
+        instance().byEmail.clear(normalize(email));
+    }
+
+    /** Counters since startup; null before the first login. */
+    public static Stats stats() {
+        LoginThrottler t = instance;
+        return t == null ? null : new Stats(t);
+    }
+
+    private static LoginThrottler instance() {
+        LoginThrottler t = instance;
+        if (t == null) {
+            synchronized (LoginThrottler.class) {
+                t = instance;
+                if (t == null) {
+                    t = new LoginThrottler(AppConfig.current());
+                    instance = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private long windowOf(long now) {
+        return now / windowMillis;
+    }
+
+    /** Failures of one kind of key (IP or email). */
+    private static final class Limiter {
+        final int max;
+        final int maxKeysPerShard;
+        final Shard[] shards = new Shard[SHARDS];
+        final LongAdder failures = new LongAdder();
+        final LongAdder throttled = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+
+        Limiter(int max, int maxKeys) {
+            this.max = max;
+            this.maxKeysPerShard = Math.max(1, maxKeys / SHARDS);
+            for (int i = 0; i < SHARDS; i++) {
+                shards[i] = new Shard();
+            }
+        }
+
+        /** Milliseconds until {@code key} is below the limit, or 0 when it is already. */
+        long blockedFor(LoginThrottler t, String key, long now) {
+            if (max <= 0 || key == null) {
+                return 0;
+            }
+            AtomicLong state = shard(key).counters.get(key);
+            if (state == null) {
+                return 0;
+            }
+            long current = state.get();
+            if (estimate(t, current, now) < max) {
+                return 0;
+            }
+            throttled.increment();
+            return millisUntilBelow(t, current, now);
+        }
+
+        /**
+         * When the estimate of an over-limit key falls below {@code max} if no more failures come. Within the
+         * current window only the previous window's weighted share shrinks; if the current count alone reaches
+         * {@code max}, that count becomes the previous one at the next boundary and must decay in turn.
+         */
+        long millisUntilBelow(LoginThrottler t, long state, long now) {
+            long window = t.windowMillis;
+            long rolled = roll(state, t.windowOf(now));
+            long current = rolled & COUNT_MASK;
+            long previous = (rolled >>> 16) & COUNT_MASK;
+            long elapsed = now % window;
+            if (current >= max) {
+                // current * (1 - x / window) < max in the next window
+                return window - elapsed + (long) Math.floor(window * (1.0 - (double) max / current)) + 1;
+            }
+            // current + previous * (1 - x / window) < max later in this one
+            long x = (long) Math.floor(window * (1.0 - (double) (max - current) / previous)) + 1;
+            return Math.max(1, x - elapsed);
+        }
+
+        void increment(LoginThrottler t, String key, long now) {
+            if (max <= 0 || key == null) {
+                return;
+            }
+            failures.increment();
+            Shard shard = shard(key);
+            AtomicLong state = shard.counters.get(key);
+            if (state == null) {
+                shard.sweepIfDue(t, now);
+                if (shard.counters.size() >= maxKeysPerShard && shard.evictOne(t, now)) {
+                    evictions.increment();
+                }
+                // Stamped with the current window so a concurrent sweep does not take it for an aged-out key.
+                long stamp = (t.windowOf(now) & 0xFFFF_FFFFL) << 32;
+                state = shard.counters.computeIfAbsent(key, k -> new AtomicLong(stamp));
+            }
+            long window = t.windowOf(now);
+            long prev;
+            long next;
+            do {
+                prev = state.get();
+                long rolled = roll(prev, window);
+                long current = Math.min(COUNT_MASK, (rolled & COUNT_MASK) + 1);
+                next = (rolled & ~COUNT_MASK) | current;
+            } while (!state.compareAndSet(prev, next));
+        }
+
+        void clear(String key) {
+            if (key != null) {
+                shard(key).counters.remove(key);
+            }
+        }
+
+        int trackedKeys() {
+            int n = 0;
+            for (Shard s : shards) n += s.counters.size();
+            return n;
+        }
+
+        Shard shard(String key) {
+            int h = key.hashCode();
+            return shards[(h ^ (h >>> 16)) & (SHARDS - 1)];
+        }
+
+        /** Failures in the sliding window ending at {@code now}. */
+        static double estimate(LoginThrottler t, long state, long now) {
+            long rolled = roll(state, t.windowOf(now));
+            double overlap = 1.0 - (double) (now % t.windowMillis) / t.windowMillis;
+            return (rolled & COUNT_MASK) + ((rolled >>> 16) & COUNT_MASK) * overlap;
+        }
+    }
+
+    /**
+     * Moves a packed state (window number in the high 32 bits, previous and current window counts in the two low
+     * 16-bit fields) forward to {@code window}.
+     */
+    private static long roll(long state, long window) {
+        long stored = state >>> 32;
+        long w = window & 0xFFFF_FFFFL;
+        if (stored == w) {
+            return state;
+        }
+        long previous = stored == ((w - 1) & 0xFFFF_FFFFL) ? state & COUNT_MASK : 0;
+        return (w << 32) | (previous << 16);
+    }
+
+    private static final class Shard {
+        final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+        final AtomicLong lastSweepWindow = new AtomicLong();
+
+        /** Remove the key with the lowest estimate among the first few; false if another thread got there first. */
+        boolean evictOne(LoginThrottler t, long now) {
+            String victim = null;
+            AtomicLong victimState = null;
+            double lowest = Double.MAX_VALUE;
+            int sampled = 0;
+            for (Map.Entry<String, AtomicLong> e : counters.entrySet()) {
+                double estimate = Limiter.estimate(t, e.getValue().get(), now);
+                if (estimate < lowest) {
+                    lowest = estimate;
+                    victim = e.getKey();
+                    victimState = e.getValue();
+                }
+                if (++sampled == EVICTION_SAMPLE) break;
+            }
+            return victim != null && counters.remove(victim, victimState);
+        }
+
+        /** Drop keys with no failures in the last two windows; keys only age out when a window ends. */
+        void sweepIfDue(LoginThrottler t, long now) {
+            long window = t.windowOf(now);
+            long last = lastSweepWindow.get();
+            if (last == window || !lastSweepWindow.compareAndSet(last, window)) {
+                return;
+            }
+            long w = window & 0xFFFF_FFFFL;
+            counters.entrySet().removeIf(e -> {
+                long stored = e.getValue().get() >>> 32;
+                return stored != w && stored != ((w - 1) & 0xFFFF_FFFFL);
+            });
+        }
+    }
+
+    /** Failed logins seen, attempts turned away and keys tracked, per IP and per email. */
+    public static final class Stats {
+        private final long failuresByIp;
+        private final long failuresByEmail;
+        private final long throttledByIp;
+        private final long throttledByEmail;
+        private final int trackedIps;
+        private final int trackedEmails;
+        private final long evictions;
+
+        private Stats(LoginThrottler t) {
+            failuresByIp = t.byIp.failures.sum();
+            failuresByEmail = t.byEmail.failures.sum();
+            throttledByIp = t.byIp.throttled.sum();
+            throttledByEmail = t.byEmail.throttled.sum();
+            trackedIps = t.byIp.trackedKeys();
+            trackedEmails = t.byEmail.trackedKeys();
+            evictions = t.byIp.evictions.sum() + t.byEmail.evictions.sum();
+        }
+
+        public long getFailuresByIp() { return failuresByIp; }
+        public long getFailuresByEmail() { return failuresByEmail; }
+
+        /** Attempts refused because their IP was over LOGIN_THROTTLE_MAX_PER_IP. */
+        public long getThrottledByIp() { return throttledByIp; }
+
+        /** Attempts refused because their email was over LOGIN_THROTTLE_MAX_PER_EMAIL. */
+        public long getThrottledByEmail() { return throttledByEmail; }
+        public int getTrackedIps() { return trackedIps; }
+        public int getTrackedEmails() { return trackedEmails; }
+
+        /** Keys dropped, while their failures still counted, to make room for new ones. */
+        public long getEvictions() { return evictions; }
+    }
+}
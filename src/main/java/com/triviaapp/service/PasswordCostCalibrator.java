@@ -0,0 +1,113 @@
+package com.triviaapp.service;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Picks BCRYPT_COST for the machine it runs on. For each cost factor from {@code min} to {@code max} it times
+ * {@code BCrypt.checkpw} on one thread (median of the samples, after a warm-up) and then on {@code threads} threads
+ * at once, and prints the verification time and the logins per second the hashing pool could sustain. It
+ * recommends the highest cost whose single verification stays within {@code target_ms}, and stops early once a
+ * cost takes more than four times the target. Run it on the production hardware, with nothing else busy:
+ * <pre>
+ *   java -cp ... com.triviaapp.service.PasswordCostCalibrator target_ms=250 min=8 max=14 threads=8 seconds=2
+ * </pre>
+ */
+public final class PasswordCostCalibrator {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    // Results end up here so the JIT cannot drop the work.
+    private static volatile boolean blackhole;
+
+    private PasswordCostCalibrator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int targetMillis = intOpt(opts, "target_ms", 250);
+        int min = intOpt(opts, "min", 8);
+        int max = intOpt(opts, "max", 14);
+        int threads = intOpt(opts, "threads", Runtime.getRuntime().availableProcessors());
+        int seconds = intOpt(opts, "seconds", 2);
+
+        System.out.printf("target %d ms per verification, %d threads, %d s per measurement%n",
+                targetMillis, threads, seconds);
+        System.out.printf("%4s %12s %16s %14s%n", "cost", "1 thread ms", "logins/s 1 thr", "logins/s all");
+        int recommended = -1;
+        for (int cost = min; cost <= max; cost++) {
+            String hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(cost));
+            blackhole = BCrypt.checkpw(PASSWORD, hash);  // warm-up
+            double millis = medianMillis(hash, seconds);
+            double parallel = throughput(hash, threads, seconds);
+            System.out.printf("%4d %12.1f %16.1f %14.1f%n", cost, millis, 1000.0 / millis, parallel);
+            if (millis <= targetMillis) {
+                recommended = cost;
+            }
+            if (millis > 4.0 * targetMillis) {
+                break;
+            }
+        }
+        if (recommended < 0) {
+            System.out.println("No cost from " + min + " verifies within " + targetMillis + " ms; lower min.");
+        } else {
+            System.out.println("Recommended: BCRYPT_COST=" + recommended);
+        }
+    }
+
+    /** Median time of one verification, sampled for about {@code seconds} (at least 3 samples). */
+    private static double medianMillis(String hash, int seconds) {
+        List<Long> samples = new ArrayList<>();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        while (samples.size() < 3 || System.nanoTime() < end) {
+            long start = System.nanoTime();
+            blackhole = BCrypt.checkpw(PASSWORD, hash);
+            samples.add(System.nanoTime() - start);
+        }
+        long[] sorted = samples.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+
+    /** Verifications per second with {@code threads} threads verifying continuously. */
+    private static double throughput(String hash, int threads, int seconds) throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        long[] counts = new long[threads];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int slot = t;
+            Thread w = new Thread(() -> {
+                while (!stop.get()) {
+                    blackhole = BCrypt.checkpw(PASSWORD, hash);
+                    counts[slot]++;
+                }
+            }, "calibrate-" + t);
+            workers.add(w);
+        }
+        long start = System.nanoTime();
+        for (Thread w : workers) w.start();
+        Thread.sleep(seconds * 1_000L);
+        stop.set(true);
+        long total = 0;
+        for (int t = 0; t < threads; t++) {
+            workers.get(t).join();
+            total += counts[t];
+        }
+        return total / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static int intOpt(Map<String, String> opts, String key, int fallback) {
+        String v = opts.get(key);
+        return v == null ? fallback : Integer.parseInt(v);
+    }
+}
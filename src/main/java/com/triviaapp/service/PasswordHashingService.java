@@ -0,0 +1,335 @@
+package com.triviaapp.service;
+
+import com.triviaapp.config.AppConfig;
+import com.triviaapp.dao.DaoExecutor;
+import com.triviaapp.dao.UserDAO;
+import com.triviaapp.dao.impl.UserDAOImpl;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt hashing and verification on a small dedicated pool, so a burst of logins keeps at most
+ * PASSWORD_HASH_THREADS cores busy with hashing instead of every container thread. Work waits on a queue of
+ * PASSWORD_HASH_QUEUE tasks; when that is full the call fails at once with {@link SaturatedException}, which the
+ * servlets turn into 503 with a Retry-After estimated from the queue depth.
+ *
+ * New hashes use BCRYPT_COST. After a successful login {@link #upgradeIfNeeded} rehashes a password stored with a
+ * different cost in the background, so changing BCRYPT_COST migrates users as they log in. Rehashes only take
+ * spare room in the queue and store the new hash through {@link DaoExecutor}, so they never cost a login its slot
+ * or hold a hashing thread on the database.
+ */
+public final class PasswordHashingService {
+
+    /** What the pool is asked to do; each has its own counters and timings. */
+    public enum Operation { HASH, VERIFY, REHASH }
+
+    /** The hashing queue is full; the caller should answer 503 and ask the client to retry later. */
+    public static final class SaturatedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final int retryAfterSeconds;
+
+        SaturatedException(int capacity, int retryAfterSeconds) {
+            super("Password hashing queue full (" + capacity + " waiting)");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        /** Seconds until the queue ahead of a new request is expected to have drained; at least 1. */
+        public int getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private static volatile PasswordHashingService instance;
+    private static volatile boolean stopped;
+
+    private final UserDAO userDAO = new UserDAOImpl();
+    private final ThreadPoolExecutor pool;
+    private final int threads;
+    private final int capacity;
+    private final int cost;
+    private final Map<Operation, OpMetrics> metrics = new EnumMap<>(Operation.class);
+    private final LongAdder rehashesSkipped = new LongAdder();
+
+    private PasswordHashingService(AppConfig config) {
+        threads = config.getPasswordHashThreads();
+        capacity = config.getPasswordHashQueue();
+        cost = config.getBcryptCost();
+        for (Operation op : Operation.values()) {
+            metrics.put(op, new OpMetrics());
+        }
+        AtomicInteger n = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        System.out.println("Password hashing: " + threads + " threads, queue " + capacity + ", cost " + cost);
+    }
+
+    /**
+     * Hash {@code password} with BCRYPT_COST. Blocks the caller until done.
+     *
+     * @throws SaturatedException when the queue is full
+     */
+    public static String hash(String password) {
+        PasswordHashingService s = instance();
+        return s.call(Operation.HASH, () -> BCrypt.hashpw(password, BCrypt.gensalt(s.cost)));
+    }
+
+    /**
+     * True when {@code password} matches {@code storedHash}. Blocks the caller until done.
+     *
+     * @throws SaturatedException when the queue is full
+     */
+    public static boolean verify(String password, String storedHash) {
+        return instance().call(Operation.VERIFY, () -> BCrypt.checkpw(password, storedHash));
+    }
+
+    /**
+     * Call after {@code password} was verified against {@code storedHash}: if the hash was made with another cost
+     * than BCRYPT_COST, queue a rehash that replaces it (unless the password changed meanwhile). Does not wait;
+     * when the queue is more than half full the rehash is skipped and happens on a later login.
+     */
+    public static void upgradeIfNeeded(int userId, String password, String storedHash) {
+        PasswordHashingService s = instance();
+        if (costOf(storedHash) == s.cost) {
+            return;
+        }
+        if (s.pool.getQueue().remainingCapacity() < (s.capacity + 1) / 2) {
+            s.rehashesSkipped.increment();
+            return;
+        }
+        long queuedAt = System.nanoTime();
+        try {
+            s.pool.execute(() -> {
+                String newHash;
+                try {
+                    newHash = s.timed(Operation.REHASH, queuedAt,
+                            () -> BCrypt.hashpw(password, BCrypt.gensalt(s.cost)));
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    return;
+                }
+                DaoExecutor.supply(() -> s.userDAO.updatePasswordHash(userId, storedHash, newHash))
+                        .whenComplete((updated, failure) -> {
+                            if (failure != null) failure.printStackTrace();
+                        });
+            });
+        } catch (RejectedExecutionException e) {
+            s.rehashesSkipped.increment();
+        }
+    }
+
+    /** The cost factor a BCrypt hash was made with, or -1 if {@code hash} is not one. */
+    public static int costOf(String hash) {
+        // $2a$10$<salt and hash>
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** Counters and timings since startup or the last {@link #resetStats()}; null before the first use. */
+    public static Stats stats() {
+        PasswordHashingService s = instance;
+        return s == null ? null : new Stats(s);
+    }
+
+    /** Clear the timing histograms. */
+    public static void resetStats() {
+        PasswordHashingService s = instance;
+        if (s != null) {
+            for (OpMetrics m : s.metrics.values()) {
+                m.waitMicros.reset();
+                m.runMicros.reset();
+            }
+        }
+    }
+
+    /**
+     * Stop the pool, letting queued work finish. Called when the web application is undeployed. The stopped
+     * service stays in place, so later calls fail with {@link IllegalStateException} instead of starting a new pool.
+     */
+    public static synchronized void shutdown() {
+        stopped = true;
+        PasswordHashingService s = instance;
+        if (s == null) {
+            return;
+        }
+        s.pool.shutdown();
+        try {
+            if (!s.pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                s.pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            s.pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static PasswordHashingService instance() {
+        PasswordHashingService s = instance;
+        if (s == null) {
+            synchronized (PasswordHashingService.class) {
+                s = instance;
+                if (s == null) {
+                    if (stopped) {
+                        throw new IllegalStateException("Password hashing stopped");
+                    }
+                    s = new PasswordHashingService(AppConfig.current());
+                    instance = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    private <T> T call(Operation op, Callable<T> work) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = pool.submit(() -> timed(op, queuedAt, work));
+        } catch (RejectedExecutionException e) {
+            if (pool.isShutdown()) {
+                throw new IllegalStateException("Password hashing stopped", e);
+            }
+            metrics.get(op).rejected.increment();
+            throw new SaturatedException(capacity, retryAfterSeconds());
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private <T> T timed(Operation op, long queuedAt, Callable<T> work) throws Exception {
+        OpMetrics m = metrics.get(op);
+        long start = System.nanoTime();
+        m.waitMicros.recordValue(clampMicros(start - queuedAt));
+        try {
+            return work.call();
+        } finally {
+            long micros = clampMicros(System.nanoTime() - start);
+            m.count.increment();
+            m.runMicrosTotal.add(micros);
+            m.runMicros.recordValue(micros);
+        }
+    }
+
+    /** Time for the pool to work through what is queued now, from the mean verification time. */
+    private int retryAfterSeconds() {
+        OpMetrics verify = metrics.get(Operation.VERIFY);
+        long count = verify.count.sum();
+        double meanMicros = count == 0 ? 0 : (double) verify.runMicrosTotal.sum() / count;
+        double seconds = (pool.getQueue().size() + threads) * meanMicros / threads / 1_000_000.0;
+        return (int) Math.max(1, Math.ceil(seconds));
+    }
+
+    private static long clampMicros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    private static final class OpMetrics {
+        final LongAdder count = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder runMicrosTotal = new LongAdder();
+        final Histogram waitMicros = new ConcurrentHistogram(HIGHEST_MICROS, 2);
+        final Histogram runMicros = new ConcurrentHistogram(HIGHEST_MICROS, 2);
+    }
+
+    /** Point-in-time view of the pool and, per {@link Operation}, its counters and timings. */
+    public static final class Stats {
+        private final int threads;
+        private final int active;
+        private final int queued;
+        private final int capacity;
+        private final int cost;
+        private final long rehashesSkipped;
+        private final Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+
+        private Stats(PasswordHashingService s) {
+            threads = s.threads;
+            active = s.pool.getActiveCount();
+            queued = s.pool.getQueue().size();
+            capacity = s.capacity;
+            cost = s.cost;
+            rehashesSkipped = s.rehashesSkipped.sum();
+            for (Map.Entry<Operation, OpMetrics> en : s.metrics.entrySet()) {
+                operations.put(en.getKey(), new OperationStats(en.getValue()));
+            }
+        }
+
+        public int getThreads() { return threads; }
+        public int getActive() { return active; }
+        public int getQueued() { return queued; }
+        public int getCapacity() { return capacity; }
+
+        /** The BCrypt cost new hashes are made with. */
+        public int getCost() { return cost; }
+
+        /** Rehashes dropped because the queue was more than half full. */
+        public long getRehashesSkipped() { return rehashesSkipped; }
+        public Map<Operation, OperationStats> getOperations() { return operations; }
+    }
+
+    /** Counters of one operation, the time it waited in the queue and the time BCrypt took (milliseconds). */
+    public static final class OperationStats {
+        private final long count;
+        private final long rejected;
+        private final double waitP50Millis;
+        private final double waitP99Millis;
+        private final double runP50Millis;
+        private final double runP99Millis;
+        private final double runMaxMillis;
+
+        private OperationStats(OpMetrics m) {
+            Histogram wait = m.waitMicros.copy();
+            Histogram run = m.runMicros.copy();
+            count = m.count.sum();
+            rejected = m.rejected.sum();
+            waitP50Millis = wait.getValueAtPercentile(50) / 1000.0;
+            waitP99Millis = wait.getValueAtPercentile(99) / 1000.0;
+            runP50Millis = run.getValueAtPercentile(50) / 1000.0;
+            runP99Millis = run.getValueAtPercentile(99) / 1000.0;
+            runMaxMillis = run.getMaxValue() / 1000.0;
+        }
+
+        public long getCount() { return count; }
+
+        /** Calls refused with {@link SaturatedException}. */
+        public long getRejected() { return rejected; }
+        public double getWaitP50Millis() { return waitP50Millis; }
+        public double getWaitP99Millis() { return waitP99Millis; }
+        public double getRunP50Millis() { return runP50Millis; }
+        public double getRunP99Millis() { return runP99Millis; }
+        public double getRunMaxMillis() { return runMaxMillis; }
+    }
+}
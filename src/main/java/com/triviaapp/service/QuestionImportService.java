@@ -0,0 +1,404 @@
+package com.triviaapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.triviaapp.cache.DictionaryCache;
+import com.triviaapp.cache.IntDictionary;
+import com.triviaapp.config.AppConfig;
+import com.triviaapp.dao.CategoryDAO;
+import com.triviaapp.dao.QuestionDAO;
+import com.triviaapp.dao.impl.CachingCategoryDAO;
+import com.triviaapp.dao.impl.CachingQuestionDAO;
+import com.triviaapp.model.Question;
+import com.triviaapp.util.DBConnectionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk import of a question bank from CSV or JSON Lines.
+ *
+ * The input is read one record at a time and never held in memory as a whole. Valid rows are collected into
+ * chunks of {@code IMPORT_CHUNK_SIZE} and each chunk is written with one batched insert in its own transaction,
+ * so a failure costs at most one chunk of work and memory stays bounded by the chunk size. Invalid rows are
+ * reported to the {@link Listener} with their line number and skipped; they never abort the import. A chunk that
+ * fails with a transient error (deadlock, lock wait timeout) is retried whole; a lost connection aborts the import.
+ *
+ * CSV input needs a header row naming the columns {@code category_id, question_text, option_a .. option_d,
+ * answer_key} and optionally {@code points, youtube_url}. A JSON Lines record looks like
+ * <pre>
+ *   {"category_id": 3, "question_text": "...", "options": {"A": "...", "B": "..."}, "answer_key": "B", "points": 2}
+ * </pre>
+ * where {@code options} may also be an array (keys A, B, C, ... in order).
+ */
+public class QuestionImportService {
+
+    /** Progress callbacks, invoked on the importing thread. */
+    public interface Listener {
+        void rowRejected(long line, String reason);
+
+        void chunkCommitted(long rowsRead, long imported, long rejected);
+    }
+
+    public static final int MAX_QUESTION_TEXT = 10_000;
+    public static final int MAX_OPTION_TEXT = 1_000;
+    public static final int MAX_YOUTUBE_URL = 512;
+    public static final int MAX_POINTS = 1_000;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String[] CSV_OPTION_COLUMNS = {"option_a", "option_b", "option_c", "option_d"};
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final QuestionDAO questionDAO;
+    private final CategoryDAO categoryDAO = new CachingCategoryDAO();
+    private final int chunkSize;
+
+    public QuestionImportService() {
+        this(new CachingQuestionDAO(), AppConfig.current().getImportChunkSize());
+    }
+
+    public QuestionImportService(QuestionDAO questionDAO, int chunkSize) {
+        this.questionDAO = questionDAO;
+        this.chunkSize = chunkSize;
+    }
+
+    /** Totals of a finished import. */
+    public static final class Result {
+        private final long rowsRead;
+        private final long imported;
+        private final long rejected;
+        private final long millis;
+
+        Result(long rowsRead, long imported, long rejected, long millis) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.millis = millis;
+        }
+
+        public long getRowsRead() { return rowsRead; }
+
+        public long getImported() { return imported; }
+
+        public long getRejected() { return rejected; }
+
+        public long getMillis() { return millis; }
+    }
+
+    /** Thrown for a row that fails validation; the message is reported to the caller. */
+    private static final class RowException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        RowException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Import every valid row of {@code in}, attributing the questions to {@code uploadedBy}.
+     *
+     * @throws IOException  if the input cannot be read or is malformed beyond a single row (e.g. a missing CSV
+     *                      header); rows committed before that point stay committed
+     * @throws SQLException if the connection fails or a chunk still fails with a transient error after
+     *                      {@value #MAX_ATTEMPTS} attempts; rows committed before that point stay committed
+     */
+    public Result importQuestions(Reader in, DataFormat format, int uploadedBy, Listener listener)
+            throws IOException, SQLException {
+        Chunker chunker = new Chunker(uploadedBy, listener);
+        if (format == DataFormat.CSV) {
+            readCsv(in, chunker);
+        } else {
+            readJsonLines(in, chunker);
+        }
+        chunker.flush();
+        return new Result(chunker.rowsRead, chunker.imported, chunker.rejected,
+                (System.nanoTime() - chunker.startNanos) / 1_000_000);
+    }
+
+    private void readCsv(Reader in, Chunker chunker) throws IOException, SQLException {
+        CsvReader csv = new CsvReader(in);
+        List<String> header = csv.readRecord();
+        if (header == null) return;
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : new String[]{"category_id", "question_text", "answer_key"}) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("CSV header is missing the " + required + " column");
+            }
+        }
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            long line = csv.getRecordLine();
+            if (record.size() == 1 && record.get(0).isEmpty()) continue;
+            chunker.rowsRead++;
+            try {
+                Map<String, String> options = new LinkedHashMap<>();
+                for (int i = 0; i < CSV_OPTION_COLUMNS.length; i++) {
+                    String text = column(record, columns, CSV_OPTION_COLUMNS[i]);
+                    if (text != null && !text.isEmpty()) options.put(String.valueOf((char) ('A' + i)), text);
+                }
+                chunker.add(line, toQuestion(
+                        parseInt(column(record, columns, "category_id"), "category_id", 0),
+                        column(record, columns, "question_text"),
+                        options,
+                        column(record, columns, "answer_key"),
+                        parseInt(column(record, columns, "points"), "points", 1),
+                        column(record, columns, "youtube_url"),
+                        null,
+                        chunker.uploadedBy));
+            } catch (RowException e) {
+                chunker.reject(line, e.getMessage());
+            }
+        }
+    }
+
+    private void readJsonLines(Reader in, Chunker chunker) throws IOException, SQLException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in, 64 * 1024);
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) continue;
+            chunker.rowsRead++;
+            try {
+                JsonNode node;
+                try {
+                    node = JSON.readTree(text);
+                } catch (JsonProcessingException e) {
+                    throw new RowException("invalid JSON: " + e.getOriginalMessage());
+                }
+                if (node == null || !node.isObject()) throw new RowException("expected a JSON object");
+
+                Map<String, String> options = new LinkedHashMap<>();
+                JsonNode opts = node.get("options");
+                if (opts != null && opts.isObject()) {
+                    Iterator<Map.Entry<String, JsonNode>> it = opts.fields();
+                    while (it.hasNext()) {
+                        Map.Entry<String, JsonNode> e = it.next();
+                        options.put(e.getKey(), e.getValue().asText());
+                    }
+                } else if (opts != null && opts.isArray()) {
+                    for (int i = 0; i < opts.size(); i++) {
+                        options.put(String.valueOf((char) ('A' + i)), opts.get(i).asText());
+                    }
+                }
+                chunker.add(line, toQuestion(
+                        intField(node, "category_id", 0),
+                        textField(node, "question_text"),
+                        options,
+                        textField(node, "answer_key"),
+                        intField(node, "points", 1),
+                        textField(node, "youtube_url"),
+                        textField(node, "xml_question"),
+                        chunker.uploadedBy));
+            } catch (RowException e) {
+                chunker.reject(line, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Validate one row and build the question to insert.
+     */
+    private static Question toQuestion(int categoryId, String questionText, Map<String, String> options,
+                                       String answerKey, int points, String youtubeUrl, String xmlQuestion,
+                                       int uploadedBy) throws RowException {
+        if (categoryId <= 0) throw new RowException("category_id is required");
+        if (questionText == null || questionText.isBlank()) throw new RowException("question_text is required");
+        if (questionText.length() > MAX_QUESTION_TEXT) {
+            throw new RowException("question_text is longer than " + MAX_QUESTION_TEXT + " characters");
+        }
+        if (options.size() < 2) throw new RowException("at least two options are required");
+        ObjectNode optionJson = JSON.createObjectNode();
+        for (Map.Entry<String, String> e : options.entrySet()) {
+            if (e.getValue().length() > MAX_OPTION_TEXT) {
+                throw new RowException("option " + e.getKey() + " is longer than " + MAX_OPTION_TEXT + " characters");
+            }
+            optionJson.put(e.getKey(), e.getValue());
+        }
+        String key = answerKey == null ? "" : answerKey.trim();
+        if (!options.containsKey(key)) {
+            throw new RowException("answer_key '" + key + "' is not one of the options " + options.keySet());
+        }
+        if (points < 1 || points > MAX_POINTS) throw new RowException("points must be between 1 and " + MAX_POINTS);
+        String url = youtubeUrl == null ? "" : youtubeUrl.trim();
+        if (url.length() > MAX_YOUTUBE_URL) {
+            throw new RowException("youtube_url is longer than " + MAX_YOUTUBE_URL + " characters");
+        }
+        return new Question(0, categoryId, xmlQuestion == null ? "" : xmlQuestion, url, questionText.trim(),
+                optionJson.toString(), key, points, uploadedBy, null, null);
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer i = columns.get(name);
+        return i == null || i >= record.size() ? null : record.get(i);
+    }
+
+    private static int parseInt(String value, String field, int fallback) throws RowException {
+        if (value == null || value.isBlank()) return fallback;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RowException(field + " is not a number: " + value);
+        }
+    }
+
+    private static String textField(JsonNode node, String field) {
+        JsonNode v = node.get(field);
+        return v == null || v.isNull() ? null : v.asText();
+    }
+
+    private static int intField(JsonNode node, String field, int fallback) throws RowException {
+        JsonNode v = node.get(field);
+        if (v == null || v.isNull()) return fallback;
+        if (v.canConvertToInt()) return v.asInt();
+        return parseInt(v.asText(), field, fallback);
+    }
+
+    /**
+     * Collects valid rows and writes them one chunk per transaction.
+     */
+    private final class Chunker {
+        final int uploadedBy;
+        final Listener listener;
+        final long startNanos = System.nanoTime();
+        final List<Question> rows = new ArrayList<>(chunkSize);
+        final long[] lines = new long[chunkSize];
+        final Map<Integer, Boolean> categoriesLookedUp = new HashMap<>();
+        long rowsRead;
+        long imported;
+        long rejected;
+
+        Chunker(int uploadedBy, Listener listener) {
+            this.uploadedBy = uploadedBy;
+            this.listener = listener;
+        }
+
+        void add(long line, Question q) throws SQLException {
+            if (!categoryExists(q.getCategoryId())) {
+                reject(line, "unknown category_id " + q.getCategoryId());
+                return;
+            }
+            lines[rows.size()] = line;
+            rows.add(q);
+            if (rows.size() >= chunkSize) flush();
+        }
+
+        /**
+         * Checked against the in-memory dictionary first. Ids it does not know (e.g. a category added since its
+         * last refresh) are looked up in the database once per import, which also schedules a refresh.
+         */
+        boolean categoryExists(int categoryId) throws SQLException {
+            IntDictionary categories = DictionaryCache.categories();
+            if (categories != null && categories.get(categoryId) != null) {
+                return true;
+            }
+            Boolean known = categoriesLookedUp.get(categoryId);
+            if (known == null) {
+                known = categoryDAO.findCategoryNameById(categoryId) != null;
+                categoriesLookedUp.put(categoryId, known);
+            }
+            return known;
+        }
+
+        void reject(long line, String reason) {
+            rejected++;
+            listener.rowRejected(line, reason);
+        }
+
+        void flush() throws SQLException {
+            if (rows.isEmpty()) {
+                listener.chunkCommitted(rowsRead, imported, rejected);
+                return;
+            }
+            try (Connection conn = DBConnectionManager.getConnection()) {
+                boolean oldAuto = conn.getAutoCommit();
+                try {
+                    conn.setAutoCommit(false);
+                    try {
+                        insert(conn, rows);
+                        imported += rows.size();
+                    } catch (SQLException ex) {
+                        if (abortsImport(ex)) throw ex;
+                        // A row the validation could not catch (e.g. a category deleted mid-import) failed the
+                        // batch; retry the chunk row by row so only the offending rows are rejected.
+                        retryRowByRow(conn);
+                    }
+                } finally {
+                    conn.setAutoCommit(oldAuto);
+                }
+            } finally {
+                rows.clear();
+            }
+            listener.chunkCommitted(rowsRead, imported, rejected);
+        }
+
+        private void retryRowByRow(Connection conn) throws SQLException {
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    insert(conn, Collections.singletonList(rows.get(i)));
+                    imported++;
+                } catch (SQLException ex) {
+                    if (abortsImport(ex)) throw ex;
+                    reject(lines[i], "database rejected the row: " + ex.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Insert {@code batch} and commit, retrying the transaction when it fails with a transient error. Rolls
+         * back before throwing, except after a connection failure.
+         */
+        private void insert(Connection conn, List<Question> batch) throws SQLException {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    questionDAO.createQuestionsBatch(conn, batch);
+                    conn.commit();
+                    return;
+                } catch (SQLException ex) {
+                    if (isConnectionFailure(ex)) throw ex;
+                    conn.rollback();
+                    if (!isTransient(ex) || attempt >= MAX_ATTEMPTS) throw ex;
+                }
+            }
+        }
+    }
+
+    /** Failures that say nothing about the rows: rejecting them one by one would misreport good data. */
+    private static boolean abortsImport(SQLException e) {
+        return isConnectionFailure(e) || isTransient(e);
+    }
+
+    private static boolean isConnectionFailure(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLNonTransientConnectionException || e instanceof SQLTransientConnectionException
+                || e instanceof SQLRecoverableException || (state != null && state.startsWith("08"));
+    }
+
+    // Deadlock victims and lock wait timeouts; SQLState class 40 is transaction rollback.
+    private static boolean isTransient(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLTransientException || (state != null && state.startsWith("40"));
+    }
+}
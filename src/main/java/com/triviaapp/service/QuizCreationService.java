@@ -0,0 +1,63 @@
+package com.triviaapp.service;
+
+import com.triviaapp.dao.QuestionDAO;
+import com.triviaapp.dao.SessionDAO;
+import com.triviaapp.dao.impl.QuestionDAOImpl;
+import com.triviaapp.dao.impl.SessionDAOImpl;
+import com.triviaapp.model.Question;
+import com.triviaapp.util.DBConnectionManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Creates a hosted quiz: its questions, the session and the session's question list, all in one transaction.
+ *
+ * Questions are inserted with a JDBC batch and their ids taken from the generated keys, so a quiz of any size
+ * costs three statements on one connection, and concurrent hosts can never pick up each other's rows. Either the
+ * whole quiz exists afterwards or nothing does.
+ */
+public class QuizCreationService {
+
+    private final QuestionDAO questionDAO;
+    private final SessionDAO sessionDAO;
+
+    public QuizCreationService() {
+        this(new QuestionDAOImpl(), new SessionDAOImpl());
+    }
+
+    public QuizCreationService(QuestionDAO questionDAO, SessionDAO sessionDAO) {
+        this.questionDAO = questionDAO;
+        this.sessionDAO = sessionDAO;
+    }
+
+    /**
+     * @param questions the quiz's questions; their id and timestamps are ignored
+     * @return the new session id
+     */
+    public int createQuiz(int hostUserId, String sessionName, int categoryId, Integer maxParticipants,
+                          List<Question> questions) throws SQLException {
+        if (questions.isEmpty()) {
+            throw new IllegalArgumentException("A quiz needs at least one question");
+        }
+        try (Connection conn = DBConnectionManager.getConnection()) {
+            boolean oldAuto = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                int[] questionIds = questionDAO.createQuestionsBatch(conn, questions);
+                int sessionId = sessionDAO.createSessionReturningId(conn, hostUserId, sessionName, categoryId,
+                        maxParticipants, "active", new Timestamp(System.currentTimeMillis()), null);
+                sessionDAO.insertQuestionsForSession(conn, sessionId, questionIds);
+                conn.commit();
+                return sessionId;
+            } catch (SQLException | RuntimeException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(oldAuto);
+            }
+        }
+    }
+}
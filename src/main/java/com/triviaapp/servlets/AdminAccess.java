@@ -0,0 +1,34 @@
+package com.triviaapp.servlets;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+
+/**
+ * Access check shared by the admin-only JSON and streaming endpoints. Unlike {@link AdminServlet}, which redirects
+ * a browser, these answer with an HTTP error.
+ */
+final class AdminAccess {
+
+    private AdminAccess() {
+    }
+
+    /**
+     * True when the caller is a logged-in admin. Otherwise sends 401 (not logged in) or 403 (not an admin) and
+     * returns false; the caller should return without writing anything else.
+     */
+    static boolean isAdmin(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        HttpSession session = request.getSession(false);
+        if (session == null || session.getAttribute("user_id") == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Not logged in");
+            return false;
+        }
+        if (!"admin".equals(session.getAttribute("role_name"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Admin only");
+            return false;
+        }
+        return true;
+    }
+}
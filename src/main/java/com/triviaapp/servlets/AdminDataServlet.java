@@ -4,7 +4,6 @@ import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import java.io.*;
 import java.sql.SQLException;
-import java.util.List;
 import java.util.Map;
 
 import org.json.JSONArray;
@@ -12,11 +11,17 @@ import org.json.JSONObject;
 
 import com.triviaapp.dao.CategoryDAO;
 import com.triviaapp.dao.SessionDAO;
-import com.triviaapp.dao.impl.CategoryDAOImpl;
+import com.triviaapp.dao.impl.CachingCategoryDAO;
 import com.triviaapp.dao.impl.SessionDAOImpl;
+import com.triviaapp.model.Page;
+import com.triviaapp.model.QuizSession;
 
 public class AdminDataServlet extends HttpServlet {
 
+    // Quizzes per response; the page passes "next-cursor" back as ?cursor= to load more.
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Override
     protected void doGet(final HttpServletRequest request, final HttpServletResponse response)
             throws IOException, ServletException {
@@ -30,22 +35,18 @@ public class AdminDataServlet extends HttpServlet {
         }
         int userId = (Integer) session.getAttribute("user_id");
 
-        // Create DAO object to grab available categories from database
-        CategoryDAO categoryDAO = new CategoryDAOImpl();
+        // Categories come from the in-memory dictionary, so only the host's sessions need a query
+        CategoryDAO categoryDAO = new CachingCategoryDAO();
+        SessionDAO sessionDAO = new SessionDAOImpl();
+
         Map<Integer, String> categories;
+        Page<QuizSession> sessions;
         try {
             categories = categoryDAO.findAllCategories();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Database error");
+            sessions = sessionDAO.findSessionsByHost(userId, request.getParameter("cursor"), pageSize(request));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
             return;
-        }
-
-        // Create Session DAO object to grab available sessions from database
-        SessionDAO sessionDAO = new SessionDAOImpl();
-        List<Map<String, String>> sessions;
-        try {
-            sessions = sessionDAO.findSessionsByHost(userId);
         } catch (SQLException e) {
             e.printStackTrace();
             response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Database error");
@@ -63,11 +64,11 @@ public class AdminDataServlet extends HttpServlet {
 
         // Build JSON array for sessions (Quiz) using org.json
         JSONArray quizzesArray = new JSONArray();
-        for (Map<String, String> quiz : sessions) {
+        for (QuizSession quiz : sessions.getItems()) {
             JSONObject obj = new JSONObject();
-            obj.put("quiz-id", Integer.parseInt(quiz.get("session_id")));
-            obj.put("quiz-name", quiz.get("session_name"));
-            obj.put("quiz-status", quiz.get("status")); // Temporary since category not stored in session table, and MVP prototype doesn't need it
+            obj.put("quiz-id", quiz.getSessionId());
+            obj.put("quiz-name", quiz.getSessionName());
+            obj.put("quiz-status", quiz.getStatus()); // Temporary since category not stored in session table, and MVP prototype doesn't need it
             quizzesArray.put(obj);
         }
 
@@ -75,6 +76,7 @@ public class AdminDataServlet extends HttpServlet {
         JSONObject responseJson = new JSONObject();
         responseJson.put("categories", categoriesArray);
         responseJson.put("quizzes", quizzesArray);
+        responseJson.put("next-cursor", sessions.hasMore() ? sessions.getNextCursor() : JSONObject.NULL);
         
         // Return JSON response
         response.setContentType("application/json");
@@ -83,4 +85,14 @@ public class AdminDataServlet extends HttpServlet {
         out.write(responseJson.toString());
         out.flush();
     }
+
+    private static int pageSize(HttpServletRequest request) {
+        String limit = request.getParameter("limit");
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        try {
+            return Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(limit)));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
 }
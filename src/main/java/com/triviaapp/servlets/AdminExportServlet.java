@@ -0,0 +1,72 @@
+package com.triviaapp.servlets;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.*;
+import java.io.*;
+import java.sql.SQLException;
+
+import com.triviaapp.service.DataFormat;
+import com.triviaapp.service.ExportService;
+
+/**
+ * Admin-only downloads, streamed straight from the database:
+ * <ul>
+ *   <li>{@code /admin/export/questions?category_id=N} - the category's question bank</li>
+ *   <li>{@code /admin/export/answers?session_id=N} - every answer given in the session</li>
+ * </ul>
+ * {@code format=csv} or {@code format=jsonl} (the default) picks the format. The response has no Content-Length and
+ * goes out in chunks as rows are read, so its size is not limited by the heap.
+ */
+public class AdminExportServlet extends HttpServlet {
+
+    private static final int WRITE_BUFFER_CHARS = 32 * 1024;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        if (!AdminAccess.isAdmin(request, response)) {
+            return;
+        }
+        String formatParam = request.getParameter("format");
+        DataFormat format = formatParam == null ? DataFormat.JSON_LINES : DataFormat.parse(formatParam, null);
+        if (format == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Use format=csv or format=jsonl");
+            return;
+        }
+        boolean questions = request.getServletPath().endsWith("/questions");
+        String idParam = questions ? "category_id" : "session_id";
+        int id;
+        try {
+            id = Integer.parseInt(request.getParameter(idParam));
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing or invalid " + idParam);
+            return;
+        }
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\""
+                + (questions ? "category-" : "session-") + id + (questions ? "-questions." : "-answers.")
+                + format.getExtension() + "\"");
+
+        ExportService export = new ExportService();
+        Writer out = new BufferedWriter(response.getWriter(), WRITE_BUFFER_CHARS);
+        try {
+            if (questions) {
+                export.exportCategoryQuestions(id, format, out);
+            } else {
+                export.exportSessionAnswers(id, format, out);
+            }
+            out.flush();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            if (response.isCommitted()) {
+                // Part of the file is already out; failing the request makes the container abort the chunked
+                // response, so the client sees a failed download rather than a silently truncated file.
+                throw new ServletException("Export failed", e);
+            }
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Database error");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.triviaapp.servlets;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import org.json.JSONObject;
+
+import com.triviaapp.service.DataFormat;
+import com.triviaapp.service.QuestionImportService;
+
+/**
+ * Admin-only bulk import of questions. The request body is the raw file (CSV with a header row, or JSON Lines);
+ * the format comes from {@code ?format=csv|jsonl} or else the Content-Type.
+ *
+ * The response is streamed as newline-delimited JSON while the import runs: one {@code "error"} line per rejected
+ * row (the first {@value #MAX_REPORTED_ERRORS}), a {@code "progress"} line after every committed chunk, and a
+ * final {@code "done"} line with the totals. A failure after the import started is reported as a {@code "failed"}
+ * line, since the status code has already been sent.
+ */
+public class AdminImportServlet extends HttpServlet {
+
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        if (!AdminAccess.isAdmin(request, response)) {
+            return;
+        }
+        DataFormat format = DataFormat.parse(request.getParameter("format"), request.getContentType());
+        if (format == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Use format=csv or format=jsonl");
+            return;
+        }
+        int uploadedBy = (Integer) request.getSession(false).getAttribute("user_id");
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+        QuestionImportService.Listener listener = new QuestionImportService.Listener() {
+            private long reported;
+
+            @Override
+            public void rowRejected(long line, String reason) {
+                if (reported++ >= MAX_REPORTED_ERRORS) return;
+                JSONObject obj = new JSONObject();
+                obj.put("type", "error");
+                obj.put("line", line);
+                obj.put("reason", reason);
+                out.println(obj);
+            }
+
+            @Override
+            public void chunkCommitted(long rowsRead, long imported, long rejected) {
+                JSONObject obj = new JSONObject();
+                obj.put("type", "progress");
+                obj.put("rows_read", rowsRead);
+                obj.put("imported", imported);
+                obj.put("rejected", rejected);
+                out.println(obj);
+                out.flush();
+            }
+        };
+
+        // Not request.getReader(): that would honour a missing charset as ISO-8859-1.
+        Reader body = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        try {
+            QuestionImportService.Result result = new QuestionImportService()
+                    .importQuestions(body, format, uploadedBy, listener);
+            JSONObject done = new JSONObject();
+            done.put("type", "done");
+            done.put("rows_read", result.getRowsRead());
+            done.put("imported", result.getImported());
+            done.put("rejected", result.getRejected());
+            done.put("ms", result.getMillis());
+            out.println(done);
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+            JSONObject failed = new JSONObject();
+            failed.put("type", "failed");
+            failed.put("message", e.getMessage());
+            out.println(failed);
+        }
+        out.flush();
+    }
+}
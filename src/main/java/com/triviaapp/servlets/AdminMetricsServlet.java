@@ -0,0 +1,225 @@
+package com.triviaapp.servlets;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.*;
+import java.io.*;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.triviaapp.cache.CacheStats;
+import com.triviaapp.cache.DictionaryCache;
+import com.triviaapp.cache.LoadingCache;
+import com.triviaapp.db.PoolStats;
+import com.triviaapp.db.QueryMetrics;
+import com.triviaapp.db.StatementCacheStats;
+import com.triviaapp.service.AnswerIngestionPipeline;
+import com.triviaapp.service.LoginThrottler;
+import com.triviaapp.service.PasswordHashingService;
+import com.triviaapp.util.DBConnectionManager;
+
+/**
+ * Admin-only JSON view of the database metrics: pool counters, connection wait time, per-statement latency
+ * histograms, statement cache hit rates, the slow-query log, the DAO caches, the answer group-commit pipeline, the
+ * password hashing pool and the failed-login throttle.
+ * POST with reset=true clears the collected samples; POST with refresh=dictionaries reloads the cached categories
+ * and roles.
+ */
+public class AdminMetricsServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        if (!AdminAccess.isAdmin(request, response)) {
+            return;
+        }
+
+        JSONArray pools = new JSONArray();
+        for (PoolStats stats : DBConnectionManager.getAllPoolStats()) {
+            JSONObject obj = new JSONObject();
+            obj.put("name", stats.getPoolName());
+            obj.put("active", stats.getActive());
+            obj.put("idle", stats.getIdle());
+            obj.put("waiting", stats.getWaiting());
+            obj.put("max", stats.getMaxSize());
+            obj.put("borrows", stats.getBorrowCount());
+            obj.put("borrow_timeouts", stats.getBorrowTimeouts());
+            obj.put("created", stats.getCreatedCount());
+            obj.put("destroyed", stats.getDestroyedCount());
+            obj.put("validation_failures", stats.getValidationFailures());
+            pools.put(obj);
+        }
+
+        JSONObject connectionWait = new JSONObject();
+        for (Map.Entry<String, QueryMetrics.LatencySummary> en : QueryMetrics.connectionWaitSnapshot().entrySet()) {
+            connectionWait.put(en.getKey(), latencyJson(en.getValue()));
+        }
+
+        Map<String, long[]> cache = StatementCacheStats.snapshot();
+        JSONObject statements = new JSONObject();
+        for (Map.Entry<String, QueryMetrics.LatencySummary> en : QueryMetrics.statementSnapshot().entrySet()) {
+            QueryMetrics.LatencySummary s = en.getValue();
+            JSONObject obj = latencyJson(s);
+            obj.put("errors", s.getErrors());
+            obj.put("rows", s.getRows());
+            long[] hm = cache.get(en.getKey());
+            if (hm != null) {
+                obj.put("cache_hit_rate", (double) hm[0] / Math.max(1, hm[0] + hm[1]));
+            }
+            statements.put(en.getKey(), obj);
+        }
+
+        JSONArray slow = new JSONArray();
+        for (QueryMetrics.SlowQuery q : QueryMetrics.slowQueries()) {
+            JSONObject obj = new JSONObject();
+            obj.put("at", q.getTimestamp());
+            obj.put("statement", q.getName());
+            obj.put("ms", q.getMillis());
+            obj.put("params", q.getParameters());
+            slow.put(obj);
+        }
+
+        JSONArray caches = new JSONArray();
+        for (CacheStats stats : LoadingCache.allStats()) {
+            JSONObject obj = new JSONObject();
+            obj.put("name", stats.getName());
+            obj.put("size", stats.getSize());
+            obj.put("weight", stats.getWeight());
+            obj.put("max_weight", stats.getMaxWeight());
+            obj.put("hits", stats.getHits());
+            obj.put("misses", stats.getMisses());
+            obj.put("hit_rate", stats.getHitRate());
+            obj.put("coalesced_loads", stats.getCoalescedLoads());
+            obj.put("load_failures", stats.getLoadFailures());
+            obj.put("evictions", stats.getEvictions());
+            obj.put("expirations", stats.getExpirations());
+            obj.put("invalidations", stats.getInvalidations());
+            caches.put(obj);
+        }
+
+        JSONObject dictionaries = new JSONObject();
+        dictionaries.put("categories", DictionaryCache.categories() == null ? 0 : DictionaryCache.categories().size());
+        dictionaries.put("roles", DictionaryCache.roles() == null ? 0 : DictionaryCache.roles().size());
+        dictionaries.put("last_refresh", DictionaryCache.getLastRefreshMillis());
+        dictionaries.put("refreshes", DictionaryCache.getRefreshCount());
+        dictionaries.put("refresh_failures", DictionaryCache.getRefreshFailures());
+
+        Object answerPipeline = JSONObject.NULL;  // not started until the first answer
+        AnswerIngestionPipeline.Stats ap = AnswerIngestionPipeline.stats();
+        if (ap != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("queued", ap.getQueued());
+            obj.put("capacity", ap.getCapacity());
+            obj.put("submitted", ap.getSubmitted());
+            obj.put("committed", ap.getCommitted());
+            obj.put("failed", ap.getFailed());
+            obj.put("rejected", ap.getRejected());
+            obj.put("batches", ap.getBatches());
+            obj.put("retried_batches", ap.getRetriedBatches());
+            obj.put("mean_batch_size", ap.getMeanBatchSize());
+            obj.put("max_batch_size", ap.getMaxBatchSize());
+            obj.put("commit_p50_ms", ap.getCommitP50Millis());
+            obj.put("commit_p99_ms", ap.getCommitP99Millis());
+            obj.put("ack_p50_ms", ap.getAckP50Millis());
+            obj.put("ack_p99_ms", ap.getAckP99Millis());
+            obj.put("ack_max_ms", ap.getAckMaxMillis());
+            answerPipeline = obj;
+        }
+
+        Object passwordHashing = JSONObject.NULL;  // not started until the first login or sign-up
+        PasswordHashingService.Stats ph = PasswordHashingService.stats();
+        if (ph != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("threads", ph.getThreads());
+            obj.put("active", ph.getActive());
+            obj.put("queued", ph.getQueued());
+            obj.put("capacity", ph.getCapacity());
+            obj.put("cost", ph.getCost());
+            obj.put("rehashes_skipped", ph.getRehashesSkipped());
+            for (Map.Entry<PasswordHashingService.Operation, PasswordHashingService.OperationStats> en
+                    : ph.getOperations().entrySet()) {
+                PasswordHashingService.OperationStats op = en.getValue();
+                JSONObject opJson = new JSONObject();
+                opJson.put("count", op.getCount());
+                opJson.put("rejected", op.getRejected());
+                opJson.put("wait_p50_ms", op.getWaitP50Millis());
+                opJson.put("wait_p99_ms", op.getWaitP99Millis());
+                opJson.put("run_p50_ms", op.getRunP50Millis());
+                opJson.put("run_p99_ms", op.getRunP99Millis());
+                opJson.put("run_max_ms", op.getRunMaxMillis());
+                obj.put(en.getKey().name().toLowerCase(Locale.ROOT), opJson);
+            }
+            passwordHashing = obj;
+        }
+
+        Object loginThrottle = JSONObject.NULL;  // not started until the first login
+        LoginThrottler.Stats lt = LoginThrottler.stats();
+        if (lt != null) {
+            JSONObject obj = new JSONObject();
+            obj.put("failures_by_ip", lt.getFailuresByIp());
+            obj.put("failures_by_email", lt.getFailuresByEmail());
+            obj.put("throttled_by_ip", lt.getThrottledByIp());
+            obj.put("throttled_by_email", lt.getThrottledByEmail());
+            obj.put("tracked_ips", lt.getTrackedIps());
+            obj.put("tracked_emails", lt.getTrackedEmails());
+            obj.put("evictions", lt.getEvictions());
+            loginThrottle = obj;
+        }
+
+        JSONObject responseJson = new JSONObject();
+        responseJson.put("enabled", QueryMetrics.isEnabled());
+        responseJson.put("pools", pools);
+        responseJson.put("connection_wait", connectionWait);
+        responseJson.put("statements", statements);
+        responseJson.put("statement_cache_evictions", StatementCacheStats.evictions());
+        responseJson.put("slow_queries", slow);
+        responseJson.put("caches", caches);
+        responseJson.put("dictionaries", dictionaries);
+        responseJson.put("answer_pipeline", answerPipeline);
+        responseJson.put("password_hashing", passwordHashing);
+        responseJson.put("login_throttle", loginThrottle);
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+        out.write(responseJson.toString());
+        out.flush();
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        if (!AdminAccess.isAdmin(request, response)) {
+            return;
+        }
+        if ("true".equals(request.getParameter("reset"))) {
+            QueryMetrics.reset();
+            AnswerIngestionPipeline.resetStats();
+            PasswordHashingService.resetStats();
+        }
+        if ("dictionaries".equals(request.getParameter("refresh"))) {
+            try {
+                DictionaryCache.refresh();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Database error");
+                return;
+            }
+        }
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    private static JSONObject latencyJson(QueryMetrics.LatencySummary s) {
+        JSONObject obj = new JSONObject();
+        obj.put("count", s.getCount());
+        obj.put("mean_ms", s.getMeanMillis());
+        obj.put("p50_ms", s.getP50Millis());
+        obj.put("p95_ms", s.getP95Millis());
+        obj.put("p99_ms", s.getP99Millis());
+        obj.put("max_ms", s.getMaxMillis());
+        return obj;
+    }
+}
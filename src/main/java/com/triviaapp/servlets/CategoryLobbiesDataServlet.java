@@ -4,13 +4,13 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.sql.SQLException;
 import java.util.List;
-import java.util.Map;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import com.triviaapp.dao.SessionDAO;
 import com.triviaapp.dao.impl.SessionDAOImpl;
+import com.triviaapp.model.SessionSummary;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
@@ -40,7 +40,7 @@ public class CategoryLobbiesDataServlet extends HttpServlet {
 
         // Create Session DAO object to grab all available sessions from database
         SessionDAO sessionDAO = new SessionDAOImpl();
-        List<Map<String, String>> sessions;
+        List<SessionSummary> sessions;
         try {
             sessions = sessionDAO.listActiveSessionsSummary();
         } catch (SQLException e) {
@@ -51,12 +51,12 @@ public class CategoryLobbiesDataServlet extends HttpServlet {
 
         // Build JSON array for sessions using org.json
         JSONArray sessionsArray = new JSONArray();
-        for (Map<String, String> sessionData : sessions) {
+        for (SessionSummary sessionData : sessions) {
             JSONObject sessionJson = new JSONObject();
-            sessionJson.put("lobby_id", Integer.parseInt(sessionData.get("session_id")));
-            sessionJson.put("lobby_name", sessionData.get("session_name"));
-            sessionJson.put("host_username", sessionData.get("host_username"));
-            sessionJson.put("num_players", Integer.parseInt(sessionData.get("num_players")));
+            sessionJson.put("lobby_id", sessionData.getSessionId());
+            sessionJson.put("lobby_name", sessionData.getSessionName());
+            sessionJson.put("host_username", sessionData.getHostUsername());
+            sessionJson.put("num_players", sessionData.getCurrentParticipants());
             sessionsArray.put(sessionJson);
         }
 
@@ -1,16 +1,14 @@
 package com.triviaapp.servlets;
 
-import com.triviaapp.dao.impl.QuestionDAOImpl;
-import com.triviaapp.dao.impl.SessionDAOImpl;
+import com.triviaapp.model.Question;
+import com.triviaapp.service.QuizCreationService;
 
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 
 import java.io.*;
-import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.json.JSONObject;
 
@@ -54,76 +52,46 @@ protected void doPost(HttpServletRequest request, HttpServletResponse response)
         maxParticipants = Integer.parseInt(maxParticipantsStr);
     }
 
-    try {
-        SessionDAOImpl sessionDAO = new SessionDAOImpl();
-        QuestionDAOImpl questionDAO = new QuestionDAOImpl();
-
-        List<Integer> questionIds = new ArrayList<>();
-        int index = 1;
-
-        while (request.getParameter("question_text_" + index) != null) {
-            String questionText = request.getParameter("question_text_" + index);
-            String correctAnswer = request.getParameter("correct_option_" + index);
-
-            // Collect options as JSON string for answers_option
-            JSONObject options = new JSONObject();
-            options.put("A", request.getParameter("option_a_" + index));
-            options.put("B", request.getParameter("option_b_" + index));
-            options.put("C", request.getParameter("option_c_" + index));
-            options.put("D", request.getParameter("option_d_" + index));
-            String answersOptionJson = options.toString();
-
-            boolean created = questionDAO.createQuestion(
-                    categoryId,
-                    "", // xml_question
-                    "", // youtube_url
-                    questionText,
-                    answersOptionJson,
-                    correctAnswer,
-                    1, // default points
-                    hostUserId
-            );
-
-            if (!created) {
-                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Failed to create question " + index);
-                return;
-            }
-
-            // Retrieve latest question ID in this category (last inserted)
-            List<Integer> ids = questionDAO.findQuestionIdsByCategory(categoryId);
-            questionIds.add(ids.get(ids.size() - 1));
-
-            index++;
-        }
+    List<Question> questions = new ArrayList<>();
+    int index = 1;
 
-        if (questionIds.isEmpty()) {
-            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "No questions provided");
-            return;
-        }
+    while (request.getParameter("question_text_" + index) != null) {
+        String questionText = request.getParameter("question_text_" + index);
+        String correctAnswer = request.getParameter("correct_option_" + index);
 
-        boolean sessionCreated = sessionDAO.createSession(
-                hostUserId,
-                sessionName,
+        // Collect options as JSON string for answers_option
+        JSONObject options = new JSONObject();
+        options.put("A", request.getParameter("option_a_" + index));
+        options.put("B", request.getParameter("option_b_" + index));
+        options.put("C", request.getParameter("option_c_" + index));
+        options.put("D", request.getParameter("option_d_" + index));
+
+        questions.add(new Question(
+                0,
                 categoryId,
-                maxParticipants,
-                "active",
-                new Timestamp(System.currentTimeMillis()),
+                "", // xml_question
+                "", // youtube_url
+                questionText,
+                options.toString(),
+                correctAnswer,
+                1, // default points
+                hostUserId,
+                null,
                 null
-        );
+        ));
 
-        if (!sessionCreated) {
-            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Failed to create quiz session");
-            return;
-        }
-
-        // Retrieve latest session ID
-        List<Map<String, String>> sessionsByHost = sessionDAO.findSessionsByHost(hostUserId);
-        int newSessionId = Integer.parseInt(sessionsByHost.get(sessionsByHost.size() - 1).get("session_id"));
+        index++;
+    }
 
+    if (questions.isEmpty()) {
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "No questions provided");
+        return;
+    }
 
-        for (Integer qId : questionIds) {
-            sessionDAO.insertQuestionForSession(newSessionId, qId);
-        }
+    try {
+        // Questions, session and session_questions are written in one transaction
+        int newSessionId = new QuizCreationService().createQuiz(
+                hostUserId, sessionName, categoryId, maxParticipants, questions);
 
         response.setContentType("text/html");
         response.getWriter().println("<html><body style='background:#001D3D;color:#FFD60A;font-family:sans-serif;'>");
@@ -131,7 +99,7 @@ protected void doPost(HttpServletRequest request, HttpServletResponse response)
         response.getWriter().println("<p>Session Name: " + sessionName + "</p>");
         response.getWriter().println("<p>Category ID: " + categoryId + "</p>");
         response.getWriter().println("<p>Session ID: " + newSessionId + "</p>");
-        response.getWriter().println("<p>Total Questions Added: " + questionIds.size() + "</p>");
+        response.getWriter().println("<p>Total Questions Added: " + questions.size() + "</p>");
         response.getWriter().println("<a href='main' style='color:#FFC300;'>Return to Dashboard</a>");
         response.getWriter().println("</body></html>");
 
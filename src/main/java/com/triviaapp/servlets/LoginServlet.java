@@ -2,12 +2,12 @@ package com.triviaapp.servlets;
 
 import com.triviaapp.dao.UserDAO;
 import com.triviaapp.dao.impl.UserDAOImpl;
-import com.triviaapp.dao.RoleDAO;
-import com.triviaapp.dao.impl.RoleDAOImpl;
+import com.triviaapp.model.UserPrincipal;
+import com.triviaapp.service.LoginThrottler;
+import com.triviaapp.service.PasswordHashingService;
 
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.io.*;
 import java.sql.*;
@@ -27,35 +27,40 @@ public class LoginServlet extends HttpServlet {
             throws IOException, ServletException {
 
         final UserDAO userDAO = new UserDAOImpl();
-        final RoleDAO roleDAO = new RoleDAOImpl();
 
         String email = request.getParameter("user_id");
         String password = request.getParameter("password");
+        String ip = request.getRemoteAddr();
+
+        // Too many recent failures from this address or for this email: refuse before any lookup or hashing.
+        int retryAfter = LoginThrottler.check(ip, email);
+        if (retryAfter > 0) {
+            response.setHeader("Retry-After", Integer.toString(retryAfter));
+            response.sendError(429, "Too many failed logins, please wait and retry");
+            return;
+        }
 
         try {
-            String userPasswordByEmail = userDAO.findPasswordByEmail(email);
+            // Hash, id and role in one round trip; the password check below is the expensive part of a login.
+            UserPrincipal principal = userDAO.findPrincipalByEmail(email);
 
 
-            if (userPasswordByEmail != null && BCrypt.checkpw(password, userPasswordByEmail)) {
+            if (principal != null && principal.getPasswordHash() != null
+                    && PasswordHashingService.verify(password, principal.getPasswordHash())) {
 
                 // Successful login
+                LoginThrottler.recordSuccess(email);
+                PasswordHashingService.upgradeIfNeeded(principal.getUserId(), password, principal.getPasswordHash());
                 HttpSession session = request.getSession(true);
-                int user_id = userDAO.findUserIDByEmail(email);
-                int roleId = userDAO.findUserRoleIDByID(user_id);
-                String roleName = roleDAO.findRoleNameById(roleId);
-
-                if (user_id == -1) {
-                    throw new SQLException("Database inconsistency: User found but ID not found.");
-                } else {
-                    session.setAttribute("user_id", user_id);
-                    session.setAttribute("role_name", roleName);
-                    response.sendRedirect("main");
-                    return;
-                }
+                session.setAttribute("user_id", principal.getUserId());
+                session.setAttribute("role_name", principal.getRoleName());
+                response.sendRedirect("main");
+                return;
 
 
             } else {
 
+                LoginThrottler.recordFailure(ip, email);
                 request.setAttribute("loginError", "Invalid email or password.");
                 RequestDispatcher dispatcher = request.getRequestDispatcher("/login.html");
                 dispatcher.forward(request, response);
@@ -63,6 +68,9 @@ public class LoginServlet extends HttpServlet {
             }
 
 
+        } catch (PasswordHashingService.SaturatedException e) {
+            response.setHeader("Retry-After", Integer.toString(e.getRetryAfterSeconds()));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many logins right now, please retry");
         } catch (SQLException e) {
             e.printStackTrace();
             throw new ServletException("Login failed due to a database error.", e);
@@ -1,5 +1,7 @@
 package com.triviaapp.servlets;
 
+import com.triviaapp.config.AppConfig;
+
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -18,7 +20,7 @@ import java.time.Duration;
 /**
  * BE proxy for the Python M2M100 translation service.
  *
- * Proxied Python base: http://localhost:8892
+ * Proxied Python base: M2M100_URL (default http://localhost:8892)
  *
  * Endpoints exposed by this servlet (same paths as Python):
  *  - GET /m2m100 : health check JSON from Python
@@ -33,26 +35,22 @@ import java.time.Duration;
  */
 public final class M2M100Servlet extends HttpServlet {
 
-    // ---------- Python service location ----------
-    private static final String M2M_HOST = "localhost";
-    private static final int M2M_PORT = 8892;
-    private static final URI BASE = URI.create("http://" + M2M_HOST + ":" + M2M_PORT);
-
-    // Python endpoints
-    private static final URI URI_HEALTH = BASE.resolve("/m2m100");
-    private static final URI URI_LANGS = BASE.resolve("/m2m100/languages");
-    private static final URI URI_TEXT = BASE.resolve("/m2m100/translate");
-    private static final URI URI_QA = BASE.resolve("/m2m100/translate/questions-answers");
-
-    // Pre-built URLs for streaming POSTs
-    private static final URL URL_TEXT;
-    private static final URL URL_QA;
-    static {
+    // ---------- Python service location (M2M100_URL, see AppConfig) ----------
+    private static final String PATH_HEALTH = "/m2m100";
+    private static final String PATH_LANGS = "/m2m100/languages";
+    private static final String PATH_TEXT = "/m2m100/translate";
+    private static final String PATH_QA = "/m2m100/translate/questions-answers";
+
+    /** Resolve a Python endpoint against the configured base URI. */
+    private static URI target(final String path) {
+        return AppConfig.current().getM2m100BaseUri().resolve(path);
+    }
+
+    private static URL targetUrl(final String path) {
         try {
-            URL_TEXT = URI_TEXT.toURL();
-            URL_QA = URI_QA.toURL();
+            return target(path).toURL();
         } catch (final MalformedURLException e) {
-            throw new RuntimeException("Invalid M2M100 Python URLs", e);
+            throw new RuntimeException("Invalid M2M100 Python URL for " + path, e);
         }
     }
 
@@ -72,11 +70,11 @@ public final class M2M100Servlet extends HttpServlet {
         final String path = (pi == null) ? sp : (sp + pi);
 
         if ("/m2m100".equals(path)) {
-            proxySimpleGet(URI_HEALTH, resp);
+            proxySimpleGet(target(PATH_HEALTH), resp);
             return;
         }
         if ("/m2m100/languages".equals(path)) {
-            proxySimpleGet(URI_LANGS, resp);
+            proxySimpleGet(target(PATH_LANGS), resp);
             return;
         }
 
@@ -85,13 +83,14 @@ public final class M2M100Servlet extends HttpServlet {
 
     /** Helper to proxy a simple GET to Python, with short timeouts. */
     private void proxySimpleGet(final URI target, final HttpServletResponse resp) throws IOException {
+        final AppConfig config = AppConfig.current();
         final HttpClient client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(5))
+                .connectTimeout(Duration.ofMillis(config.getAiConnectTimeoutMillis()))
                 .build();
 
         final HttpRequest request = HttpRequest.newBuilder()
                 .uri(target)
-                .timeout(Duration.ofSeconds(10))
+                .timeout(Duration.ofMillis(config.getAiReadTimeoutMillis()))
                 .build();
 
         try {
@@ -135,11 +134,11 @@ public final class M2M100Servlet extends HttpServlet {
         final String path = (pi == null) ? sp : (sp + pi);
 
         if ("/m2m100/translate".equals(path)) {
-            proxyStreamingPost(req, resp, URL_TEXT);   // multipart passthrough
+            proxyStreamingPost(req, resp, targetUrl(PATH_TEXT));   // multipart passthrough
             return;
         }
         if ("/m2m100/translate/questions-answers".equals(path)) {
-            proxyStreamingPost(req, resp, URL_QA);     // JSON passthrough
+            proxyStreamingPost(req, resp, targetUrl(PATH_QA));    // JSON passthrough
             return;
         }
 
@@ -160,8 +159,9 @@ public final class M2M100Servlet extends HttpServlet {
         final HttpURLConnection conn = (HttpURLConnection) target.openConnection();
         conn.setDoOutput(true);
         conn.setRequestMethod("POST");
-        conn.setConnectTimeout(5_000);
-        conn.setReadTimeout(30_000);
+        final AppConfig config = AppConfig.current();
+        conn.setConnectTimeout(config.getAiConnectTimeoutMillis());
+        conn.setReadTimeout(config.getAiReadTimeoutMillis());
 
         if (contentType != null) conn.setRequestProperty("Content-Type", contentType);
         if (len >= 0) conn.setRequestProperty("Content-Length", String.valueOf(len));
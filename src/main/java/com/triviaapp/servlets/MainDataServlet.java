@@ -9,7 +9,7 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import com.triviaapp.dao.CategoryDAO;
-import com.triviaapp.dao.impl.CategoryDAOImpl;
+import com.triviaapp.dao.impl.CachingCategoryDAO;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
@@ -32,7 +32,7 @@ public class MainDataServlet extends HttpServlet {
         }
 
         // Create DAO object to grab available categories from database
-        CategoryDAO categoryDAO = new CategoryDAOImpl();
+        CategoryDAO categoryDAO = new CachingCategoryDAO();
         Map<Integer, String> categories;
         try {
             categories = categoryDAO.findAllCategories();
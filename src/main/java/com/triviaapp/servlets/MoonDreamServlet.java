@@ -1,5 +1,7 @@
 package com.triviaapp.servlets;
 
+import com.triviaapp.config.AppConfig;
+
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.http.HttpServlet;
@@ -25,15 +27,12 @@ import java.util.Collection;
  */
 @MultipartConfig
 public final class MoonDreamServlet extends HttpServlet {
-    private static final String MOONDREAM_HOST = "localhost";
-    private static final int MOONDREAM_PORT = 8082;
-    private static final URI MOONDREAM_URI = URI.create("http://" + MOONDREAM_HOST + ":" + MOONDREAM_PORT);
-    private static final URI MOONDREAM_PING_URI = URI.create(MOONDREAM_URI + "/ping"); // Assume you add /ping to Flask
+    private static final String PING_PATH = "/ping"; // Assume you add /ping to Flask
     private static final String CRLF = "\r\n";
 
     private static URL getTargetUrl(final String path) {
         try {
-            return URI.create(MOONDREAM_URI + path).toURL();
+            return URI.create(AppConfig.current().getMoondreamBaseUri() + path).toURL();
         } catch (final MalformedURLException e) {
             throw new RuntimeException("Invalid URL for path: " + path, e);
         }
@@ -49,13 +48,11 @@ public final class MoonDreamServlet extends HttpServlet {
     @Override
     protected void doGet(final HttpServletRequest request, final HttpServletResponse response)
             throws ServletException, IOException {
-        final URL pingUrl;
-        try {
-            pingUrl = MOONDREAM_PING_URI.toURL();
-        } catch (final MalformedURLException e) {
-            throw new RuntimeException(MOONDREAM_PING_URI + " is not a valid URL", e);
-        }
+        final AppConfig config = AppConfig.current();
+        final URL pingUrl = getTargetUrl(PING_PATH);
         final HttpURLConnection connection = (HttpURLConnection) pingUrl.openConnection();
+        connection.setConnectTimeout(config.getAiConnectTimeoutMillis());
+        connection.setReadTimeout(config.getAiReadTimeoutMillis());
         connection.setRequestMethod("GET");
         final int responseCode = connection.getResponseCode();
         response.setStatus(responseCode);
@@ -113,7 +110,10 @@ public final class MoonDreamServlet extends HttpServlet {
 
         // Forward to Flask using HttpURLConnection
         final URL targetUrl = getTargetUrl(targetPath);
+        final AppConfig config = AppConfig.current();
         final HttpURLConnection connection = (HttpURLConnection) targetUrl.openConnection();
+        connection.setConnectTimeout(config.getAiConnectTimeoutMillis());
+        connection.setReadTimeout(config.getAiReadTimeoutMillis());
         connection.setDoOutput(true);
         connection.setRequestMethod("POST");
         connection.setChunkedStreamingMode(0); // Enable chunked transfer (no need for Content-Length)
@@ -2,17 +2,13 @@ package com.triviaapp.servlets;
 
 import java.io.IOException;
 import java.sql.SQLException;
-import java.util.List;
-import java.util.Map;
 
 import org.json.JSONObject;
 
-import com.triviaapp.dao.QuestionDAO;
 import com.triviaapp.dao.SessionDAO;
-import com.triviaapp.dao.impl.QuestionDAOImpl;
 import com.triviaapp.dao.impl.SessionDAOImpl;
-import com.triviaapp.dao.impl.CategoryDAOImpl;
-import com.triviaapp.dao.CategoryDAO;   
+import com.triviaapp.model.Question;
+import com.triviaapp.model.SessionQuestion;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
@@ -22,8 +18,6 @@ import jakarta.servlet.http.HttpSession;
 
 public class QuizDataServlet extends HttpServlet {
     private final SessionDAO sessionDAO = new SessionDAOImpl();
-    private final QuestionDAO questionDAO = new QuestionDAOImpl();
-    private final CategoryDAO categoryDAO = new CategoryDAOImpl();
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
@@ -42,32 +36,22 @@ public class QuizDataServlet extends HttpServlet {
         }
 
         try {
-            // Get current index from sessionDAO
-            int currentIndex = sessionDAO.getCurrentIndex(lobbyId);
-            List<Integer> questionIds = sessionDAO.findQuestionIdsForSession(lobbyId);
-
-            if (currentIndex < 0 || currentIndex >= questionIds.size()) {
+            // Index, question id, question row and category name in one round trip; players poll this constantly
+            SessionQuestion current = sessionDAO.findCurrentQuestion(lobbyId);
+            if (current == null) {
                 response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid question index");
                 return;
             }
-
-            int questionId = questionIds.get(currentIndex);
-            Map<String, String> questionData = questionDAO.findQuestionById(questionId);
-
-            if (questionData == null) {
-                response.sendError(HttpServletResponse.SC_NOT_FOUND, "Question not found");
-                return;
-            }
+            int currentIndex = current.getIndex();
+            Question questionData = current.getQuestion();
 
             JSONObject question = new JSONObject();
             question.put("question_number", currentIndex);
-            question.put("category_name", categoryDAO.findCategoryNameById(
-                Integer.parseInt(questionData.get("category_id"))));
-            question.put("question_text", questionData.get("question_text"));
-            question.put("answer_option", questionData.get("answer_option"));
-            question.put("answer_key", questionData.get("answer_key"));
-            question.put("points", questionData.get("points"));
-            question.put("youtube_url", questionData.get("youtube_url"));
+            question.put("category_name", current.getCategoryName());
+            question.put("question_text", questionData.getQuestionText());
+            question.put("answer_option", questionData.getAnswersOption());
+            question.put("points", questionData.getPoints());
+            question.put("youtube_url", questionData.getYoutubeUrl());
 
             response.setContentType("application/json");
             response.getWriter().write(question.toString());
@@ -2,9 +2,9 @@ package com.triviaapp.servlets;
 
 import com.triviaapp.dao.UserDAO;
 import com.triviaapp.dao.impl.UserDAOImpl;
+import com.triviaapp.service.PasswordHashingService;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.io.*;
 import java.sql.*;
@@ -43,7 +43,7 @@ public class SignUpServlet extends HttpServlet {
             // generate username based on the email input
             String userName = email.substring(0, email.indexOf('@'));
             //hashing password for secure the user password
-            String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());
+            String hashedPassword = PasswordHashingService.hash(password);
 
             boolean success = userDAO.createUser(userName, email, hashedPassword, roleId);
 
@@ -54,6 +54,9 @@ public class SignUpServlet extends HttpServlet {
                 out.println("<h3>Sign up failed unexpectedly.</h3>");
             }
 
+        } catch (PasswordHashingService.SaturatedException e) {
+            response.setHeader("Retry-After", Integer.toString(e.getRetryAfterSeconds()));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many sign-ups right now, please retry");
         } catch (SQLException e) {
             e.printStackTrace();
             throw new ServletException("signup failed due to a database error.", e);
@@ -1,5 +1,7 @@
 package com.triviaapp.servlets;
 
+import com.triviaapp.db.PoolStats;
+import com.triviaapp.db.StatementCacheStats;
 import com.triviaapp.util.DBConnectionManager;
 
 import jakarta.servlet.ServletException;
@@ -17,7 +19,7 @@ import com.triviaapp.dao.impl.RoleDAOImpl;
 import com.triviaapp.dao.UserDAO;
 import com.triviaapp.dao.impl.UserDAOImpl;
 import com.triviaapp.dao.QuestionDAO;
-import com.triviaapp.dao.impl.QuestionDAOImpl;
+import com.triviaapp.dao.impl.CachingQuestionDAO;
 import com.triviaapp.dao.IndividualAnswerDAO;
 import com.triviaapp.dao.impl.IndividualAnswerDAOImpl;
 import com.triviaapp.dao.SessionDAO;
@@ -25,6 +27,12 @@ import com.triviaapp.dao.impl.SessionDAOImpl;
 import java.sql.Timestamp;
 import com.triviaapp.dao.ModeratedAnswerDAO;
 import com.triviaapp.dao.impl.ModeratedAnswerDAOImpl;
+import com.triviaapp.model.Answer;
+import com.triviaapp.model.LeaderboardEntry;
+import com.triviaapp.model.Participant;
+import com.triviaapp.model.Question;
+import com.triviaapp.model.QuizSession;
+import com.triviaapp.model.SessionSummary;
 
 /**
  * Simple servlet to test database connectivity using DBConnectionManager.
@@ -48,6 +56,15 @@ public class TestDbServlet extends HttpServlet {
                 out.println("ERROR: failed to get connection:");
                 e.printStackTrace(out);
             }
+            for (PoolStats stats : DBConnectionManager.getAllPoolStats()) {
+                out.println("Pool: " + stats);
+            }
+            for (Map.Entry<String, long[]> en : StatementCacheStats.snapshot().entrySet()) {
+                long hits = en.getValue()[0];
+                long misses = en.getValue()[1];
+                out.println("Statement cache " + en.getKey() + ": hits=" + hits + ", misses=" + misses
+                        + ", hitRate=" + String.format("%.1f%%", 100.0 * hits / Math.max(1, hits + misses)));
+            }
 
             // Run DAO tests
             out.println();
@@ -151,7 +168,7 @@ public class TestDbServlet extends HttpServlet {
         boolean createdUser = false;
         int createdUserId = -1;
         try {
-            QuestionDAO qDao = new QuestionDAOImpl();
+            QuestionDAO qDao = new CachingQuestionDAO();
             CategoryDAO catDao = new CategoryDAOImpl();
 
             int catId = 1;
@@ -173,19 +190,19 @@ public class TestDbServlet extends HttpServlet {
 
             // 2) locate the created question id by scanning questions in the category
             Integer foundQid = null;
-            java.util.List<Map<String, String>> qlist = qDao.findQuestionsByCategory(catId);
-            for (Map<String, String> row : qlist) {
-                if (questionText.equals(row.get("question_text"))) {
-                    foundQid = Integer.valueOf(row.get("question_id"));
+            java.util.List<Question> qlist = qDao.findQuestionsByCategory(catId);
+            for (Question row : qlist) {
+                if (questionText.equals(row.getQuestionText())) {
+                    foundQid = row.getQuestionId();
                     break;
                 }
             }
             if (foundQid == null) {
                 out.println("Failed to locate created question by text; attempting id-scan");
-                java.util.List<Integer> ids = qDao.findQuestionIdsByCategory(catId);
-                for (Integer id : ids) {
-                    Map<String, String> r = qDao.findQuestionById(id);
-                    if (r != null && questionText.equals(r.get("question_text"))) {
+                int[] ids = qDao.findQuestionIdsByCategory(catId);
+                for (int id : ids) {
+                    Question r = qDao.findQuestionById(id);
+                    if (r != null && questionText.equals(r.getQuestionText())) {
                         foundQid = id;
                         break;
                     }
@@ -199,28 +216,28 @@ public class TestDbServlet extends HttpServlet {
                 out.println("Located created question id=" + foundQid);
 
                 // 3) findQuestionById
-                Map<String, String> one = qDao.findQuestionById(foundQid);
+                Question one = qDao.findQuestionById(foundQid);
                 out.println("findQuestionById returned: question_text="
-                        + (one == null ? "<null>" : one.get("question_text")));
+                        + (one == null ? "<null>" : one.getQuestionText()));
 
                 // 4) findQuestionIdsByCategory
-                java.util.List<Integer> ids2 = qDao.findQuestionIdsByCategory(catId);
-                out.println("findQuestionIdsByCategory count=" + ids2.size() + ", contains created id="
-                        + ids2.contains(foundQid));
+                int[] ids2 = qDao.findQuestionIdsByCategory(catId);
+                out.println("findQuestionIdsByCategory count=" + ids2.length + ", contains created id="
+                        + (java.util.Arrays.binarySearch(ids2, foundQid) >= 0));
 
                 // 5) updateQuestion
                 String updatedText = questionText + " - updated";
                 boolean updated = qDao.updateQuestion(foundQid, catId, xmlQuestion, youtubeUrl, updatedText,
                         answersJson, answersKey, points + 1);
                 out.println("updateQuestion returned: " + updated);
-                Map<String, String> after = qDao.findQuestionById(foundQid);
-                out.println("After update: question_text=" + (after == null ? "<null>" : after.get("question_text"))
-                        + ", points=" + (after == null ? "?" : after.get("points")));
+                Question after = qDao.findQuestionById(foundQid);
+                out.println("After update: question_text=" + (after == null ? "<null>" : after.getQuestionText())
+                        + ", points=" + (after == null ? "?" : String.valueOf(after.getPoints())));
 
                 // 6) deleteQuestion
                 boolean deleted = qDao.deleteQuestion(foundQid);
                 out.println("deleteQuestion returned: " + deleted);
-                Map<String, String> afterDel = qDao.findQuestionById(foundQid);
+                Question afterDel = qDao.findQuestionById(foundQid);
                 out.println(
                         "findQuestionById after delete => " + (afterDel == null ? "null (deleted)" : "still exists"));
             }
@@ -274,15 +291,15 @@ public class TestDbServlet extends HttpServlet {
             boolean created = iaDao.createAnswer(questionId, userId, selected, isCorrect, score);
             out.println("createAnswer returned: " + created);
 
-            java.util.List<Map<String, String>> answers = iaDao.findAnswersByUser(userId);
+            java.util.List<Answer> answers = iaDao.findAnswersByUser(userId);
             out.println("findAnswersByUser count: " + answers.size());
             if (!answers.isEmpty()) {
-                Map<String, String> first = answers.get(0);
-                out.println("Latest answer id=" + first.get("answer_id") + ", question_id=" + first.get("question_id")
-                        + ", selected=" + first.get("selected_answer") + ", score=" + first.get("score"));
+                Answer first = answers.get(0);
+                out.println("Latest answer id=" + first.getAnswerId() + ", question_id=" + first.getQuestionId()
+                        + ", selected=" + first.getSelectedAnswer() + ", score=" + first.getScore());
 
                 // record id for cleanup
-                int answerId = Integer.parseInt(first.get("answer_id"));
+                int answerId = first.getAnswerId();
 
                 int total = iaDao.getTotalScoreForIndividualMode(userId, 1);
                 out.println("getTotalScoreForIndividualMode(user=1,cat=1) returned: " + total);
@@ -295,6 +312,16 @@ public class TestDbServlet extends HttpServlet {
                     int del = ps.executeUpdate();
                     out.println("Deleted individual_answers rows: " + del);
                 }
+                try (java.sql.Connection conn = DBConnectionManager.getConnection();
+                        java.sql.PreparedStatement ps = conn.prepareStatement(
+                                "UPDATE user_category_scores SET answered = answered - 1, total_score = total_score - ?"
+                                        + " WHERE user_id = ? AND category_id ="
+                                        + " (SELECT category_id FROM questions WHERE question_id = ?)")) {
+                    ps.setInt(1, score);
+                    ps.setInt(2, userId);
+                    ps.setInt(3, questionId);
+                    out.println("Reverted user_category_scores rows: " + ps.executeUpdate());
+                }
             }
         } catch (Exception e) {
             out.println("ERROR: IndividualAnswerDAO test failed:");
@@ -315,32 +342,32 @@ public class TestDbServlet extends HttpServlet {
             out.println("createSession returned: " + created);
 
             // find sessions by host and locate the one we created
-            java.util.List<Map<String, String>> sessions = sDao.findSessionsByHost(hostUserId);
+            java.util.List<QuizSession> sessions = sDao.findSessionsByHost(hostUserId);
             out.println("findSessionsByHost count: " + sessions.size());
             Integer foundId = null;
-            for (Map<String, String> row : sessions) {
-                if (sessionName.equals(row.get("session_name"))) {
-                    foundId = Integer.valueOf(row.get("session_id"));
+            for (QuizSession row : sessions) {
+                if (sessionName.equals(row.getSessionName())) {
+                    foundId = row.getSessionId();
                     break;
                 }
             }
 
             // list active sessions summary
-            java.util.List<Map<String, String>> summary = sDao.listActiveSessionsSummary();
+            java.util.List<SessionSummary> summary = sDao.listActiveSessionsSummary();
             out.println("listActiveSessionsSummary count: " + summary.size());
 
             if (foundId == null) {
                 out.println("Could not locate created session by name; skipping participant tests");
             } else {
                 out.println("Located session id=" + foundId);
-                Map<String, String> one = sDao.findSessionById(foundId);
-                out.println("findSessionById status=" + (one == null ? "<null>" : one.get("status")));
+                QuizSession one = sDao.findSessionById(foundId);
+                out.println("findSessionById status=" + (one == null ? "<null>" : one.getStatus()));
 
                 // join as participant (use user 1)
                 boolean joined = sDao.joinSession(foundId, hostUserId);
                 out.println("joinSession returned: " + joined);
 
-                java.util.List<Map<String, String>> parts = sDao.findParticipantsBySession(foundId);
+                java.util.List<Participant> parts = sDao.findParticipantsBySession(foundId);
                 out.println("findParticipantsBySession count: " + parts.size());
 
                 // leave
@@ -359,12 +386,12 @@ public class TestDbServlet extends HttpServlet {
                     out.println("insertAllQuestionsForSession returned: " + insAll);
 
                     out.println("Testing findQuestionIdsForSession(sessionId=" + foundId + ")...");
-                    java.util.List<Integer> qids = sDao.findQuestionIdsForSession(foundId);
-                    out.println("findQuestionIdsForSession count=" + (qids == null ? 0 : qids.size()));
-                    if (qids != null && !qids.isEmpty()) {
+                    int[] qids = sDao.findQuestionIdsForSession(foundId);
+                    out.println("findQuestionIdsForSession count=" + qids.length);
+                    if (qids.length > 0) {
                         out.println("First 5 question ids (or fewer):");
-                        for (int i = 0; i < Math.min(5, qids.size()); i++) {
-                            out.println(" - " + qids.get(i));
+                        for (int i = 0; i < Math.min(5, qids.length); i++) {
+                            out.println(" - " + qids[i]);
                         }
                     }
 
@@ -400,7 +427,7 @@ public class TestDbServlet extends HttpServlet {
                 out.println("deleteSession returned: " + deleted);
 
                 // verify deletion
-                Map<String, String> after = sDao.findSessionById(foundId);
+                QuizSession after = sDao.findSessionById(foundId);
                 out.println("findSessionById after delete => " + (after == null ? "null (deleted)" : "still exists"));
             }
 
@@ -426,10 +453,10 @@ public class TestDbServlet extends HttpServlet {
 
             // locate session id
             Integer sessionId = null;
-            java.util.List<Map<String, String>> sessions = sDao.findSessionsByHost(hostUserId);
-            for (Map<String, String> r : sessions) {
-                if (sessionName.equals(r.get("session_name"))) {
-                    sessionId = Integer.valueOf(r.get("session_id"));
+            java.util.List<QuizSession> sessions = sDao.findSessionsByHost(hostUserId);
+            for (QuizSession r : sessions) {
+                if (sessionName.equals(r.getSessionName())) {
+                    sessionId = r.getSessionId();
                     break;
                 }
             }
@@ -451,23 +478,23 @@ public class TestDbServlet extends HttpServlet {
                     score);
             out.println("createModeratedAnswer returned: " + createdAns);
 
-            java.util.List<Map<String, String>> bySession = mDao.findAnswersBySession(sessionId);
+            java.util.List<Answer> bySession = mDao.findAnswersBySession(sessionId);
             out.println("findAnswersBySession count: " + bySession.size());
             if (!bySession.isEmpty()) {
-                Map<String, String> a = bySession.get(0);
-                out.println("Latest moderated answer id=" + a.get("answer_id") + ", participant="
-                        + a.get("participant_id") + ", score=" + a.get("score"));
+                Answer a = bySession.get(0);
+                out.println("Latest moderated answer id=" + a.getAnswerId() + ", participant="
+                        + a.getUserId() + ", score=" + a.getScore());
             }
 
-            java.util.List<Map<String, String>> byParticipant = mDao.findAnswersByParticipant(participantId, sessionId);
+            java.util.List<Answer> byParticipant = mDao.findAnswersByParticipant(participantId, sessionId);
             out.println("findAnswersByParticipant count: " + byParticipant.size());
 
-            java.util.List<Map<String, String>> leaderboard = mDao.getSessionLeaderboard(sessionId);
+            java.util.List<LeaderboardEntry> leaderboard = mDao.getSessionLeaderboard(sessionId);
             out.println("getSessionLeaderboard count: " + leaderboard.size());
             if (!leaderboard.isEmpty()) {
-                Map<String, String> top = leaderboard.get(0);
-                out.println("Top participant=" + top.get("participant_id") + ", username=" + top.get("username")
-                        + ", total_score=" + top.get("total_score"));
+                LeaderboardEntry top = leaderboard.get(0);
+                out.println("Top participant=" + top.getParticipantId() + ", username=" + top.getUsername()
+                        + ", total_score=" + top.getTotalScore());
             }
 
             // cleanup moderated answers for this session
@@ -478,6 +505,13 @@ public class TestDbServlet extends HttpServlet {
                 int del = ps.executeUpdate();
                 out.println("Deleted moderated_answers rows: " + del);
             }
+            try (java.sql.Connection conn = DBConnectionManager.getConnection();
+                    java.sql.PreparedStatement ps = conn
+                            .prepareStatement("DELETE FROM session_scores WHERE session_id = ?")) {
+                ps.setInt(1, sessionId);
+                int del = ps.executeUpdate();
+                out.println("Deleted session_scores rows: " + del);
+            }
 
             // delete the created session
             boolean deleted = sDao.deleteSession(sessionId);
@@ -3,7 +3,8 @@ package com.triviaapp.servlets;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.triviaapp.dao.QuestionDAO;
-import com.triviaapp.dao.impl.QuestionDAOImpl;
+import com.triviaapp.dao.impl.CachingQuestionDAO;
+import com.triviaapp.model.Question;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.http.*;
@@ -13,7 +14,6 @@ import java.io.*;
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
-import java.util.Map;
 
 @MultipartConfig
 public class WhisperAnswerCheckerServlet extends HttpServlet {
@@ -82,10 +82,10 @@ public class WhisperAnswerCheckerServlet extends HttpServlet {
         // }
 
         // get question and answers from database of this quiz (specifically answers_option & answers_key)
-        final Map<String, String> question;
+        final Question question;
 
         try {
-            final QuestionDAO questionDAO = new QuestionDAOImpl();
+            final QuestionDAO questionDAO = new CachingQuestionDAO();
             question = questionDAO.findQuestionById(questionId);
 
             if (question == null) {
@@ -105,10 +105,10 @@ public class WhisperAnswerCheckerServlet extends HttpServlet {
         }
 
         // get question info
-        final String answerKey = question.get("answers_key");
+        final String answerKey = question.getAnswersKey();
         String answerText = null;
 
-        final String answersOptionStr = question.get("answers_option");
+        final String answersOptionStr = question.getAnswersOption();
         final JsonNode answerArray = mapper.readTree(answersOptionStr);
 
         if (answerArray.isArray()) {
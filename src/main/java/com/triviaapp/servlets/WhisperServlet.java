@@ -37,7 +37,7 @@ public final class WhisperServlet extends HttpServlet {
     protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
         // request given does not matter
 
-        final HttpRequest httpRequest = HttpRequest.newBuilder().uri(WhisperConnection.WHISPER_GET_URI).build();
+        final HttpRequest httpRequest = HttpRequest.newBuilder().uri(WhisperConnection.getGetURI()).build();
         final HttpClient httpClient = HttpClient.newHttpClient();
         // response is a string of a JSON object, FE will need to parse this
         final HttpResponse<String> whisperResponse;
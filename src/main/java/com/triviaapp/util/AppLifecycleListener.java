@@ -0,0 +1,54 @@
+package com.triviaapp.util;
+
+import com.triviaapp.cache.DictionaryCache;
+import com.triviaapp.config.AppConfig;
+import com.triviaapp.config.ConfigWatcher;
+import com.triviaapp.dao.DaoExecutor;
+import com.triviaapp.service.AnswerIngestionPipeline;
+import com.triviaapp.service.PasswordHashingService;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+
+import java.io.IOException;
+
+/**
+ * Starts and stops application-wide resources together with the web application.
+ * Registered in web.xml.
+ */
+public class AppLifecycleListener implements ServletContextListener {
+
+    private ConfigWatcher configWatcher;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        // Read and validate configuration once so a bad .env fails the deployment, not the first request.
+        AppConfig config = AppConfig.initialize();
+        if (config.isConfigWatch()) {
+            try {
+                configWatcher = ConfigWatcher.start();
+            } catch (IOException e) {
+                System.err.println("Could not watch .env for changes: " + e.getMessage());
+            }
+        }
+        // Open the connection pool and apply schema migrations before the first request arrives.
+        DBConnectionManager.start();
+        // Categories and roles are served from memory; load them now rather than on the first lookup.
+        DictionaryCache.start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (configWatcher != null) {
+            configWatcher.close();
+        }
+        DictionaryCache.shutdown();
+        // Write answers still waiting for a group commit while the executor and the pool are up.
+        AnswerIngestionPipeline.shutdown();
+        // Finish queued password rehashes; they write to the database.
+        PasswordHashingService.shutdown();
+        // Let in-flight async DAO calls finish before the pool goes away.
+        DaoExecutor.shutdown();
+        // Close pooled connections so redeploys don't leak sockets to MySQL.
+        DBConnectionManager.shutdown();
+    }
+}
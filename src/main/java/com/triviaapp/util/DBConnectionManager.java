@@ -1,50 +1,182 @@
 package com.triviaapp.util;
 
-import io.github.cdimascio.dotenv.Dotenv;
+import com.triviaapp.config.AppConfig;
+import com.triviaapp.db.ConnectionPool;
+import com.triviaapp.db.ExplainCheck;
+import com.triviaapp.db.PoolStats;
+import com.triviaapp.db.QueryMetrics;
+import com.triviaapp.db.ReplicaRouter;
+import com.triviaapp.db.ScoreRollupBackfill;
+import com.triviaapp.db.SeedDataGenerator;
+import com.triviaapp.db.migration.MigrationRunner;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 
-    /**
-     * Obtain a JDBC Connection using DriverManager.
-     * Configuration must be provided via .env (JDBC_URL/JDBC_USER/JDBC_PASS)
-     * or system environment variables.
-     */
+/**
+ * Hands out pooled JDBC connections.
+ * Connection settings and pool sizing come from {@link AppConfig}
+ * (JDBC_URL/JDBC_USER/JDBC_PASS and the optional DB_POOL_* keys).
+ *
+ * Callers keep using try-with-resources on {@link #getConnection()}; closing the
+ * connection returns it to the pool.
+ *
+ * DB_PROFILE=embedded switches to an in-process H2 database in MySQL mode with the schema from
+ * {@link com.triviaapp.db.Schema}, so DAOs can run and be benchmarked without a MySQL server.
+ *
+ * The schema is owned by {@link MigrationRunner}: pending migrations run on the primary when the
+ * pools are created.
+ *
+ * When JDBC_REPLICA_URLS is set, connections requested from DAO methods marked
+ * {@link com.triviaapp.dao.ReadOnly} are served by a read replica (see {@link ReplicaRouter}).
+ */
 public class DBConnectionManager {
 
+    private static volatile ReplicaRouter router;
+
     public static Connection getConnection() throws SQLException {
-        // Load .env values
-        Dotenv dotenv = null;
+        return router().getConnection();
+    }
+
+    /**
+     * Current counters of the primary pool, or null when the pool has not been started yet.
+     */
+    public static PoolStats getPoolStats() {
+        ReplicaRouter r = router;
+        return r == null ? null : r.getPrimary().stats();
+    }
+
+    /**
+     * Counters of the primary pool followed by each replica pool; empty before the first connection.
+     */
+    public static List<PoolStats> getAllPoolStats() {
+        ReplicaRouter r = router;
+        List<PoolStats> out = new ArrayList<>();
+        if (r != null) {
+            out.add(r.getPrimary().stats());
+            for (ConnectionPool replica : r.getReplicas()) {
+                out.add(replica.stats());
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Open the pools and bring the schema up to date now rather than on the first request. Failures are logged;
+     * the next {@link #getConnection()} retries.
+     */
+    public static void start() {
         try {
-            dotenv = Dotenv.configure().ignoreIfMissing().load();
-        } catch (Throwable ignored) {
+            router();
+        } catch (SQLException e) {
+            System.err.println("Database not available at startup: " + e.getMessage());
         }
+    }
 
-        String url = null;
-        String user = null;
-        String pass = null;
+    /**
+     * Close all pools. Called when the web application is undeployed.
+     */
+    public static synchronized void shutdown() {
+        if (router != null) {
+            router.close();
+            router = null;
+        }
+    }
 
-        if (dotenv != null) {
-            try {
-                url = dotenv.get("JDBC_URL");
-                user = dotenv.get("JDBC_USER");
-                pass = dotenv.get("JDBC_PASS");
-            } catch (Exception ignored) {
+    private static ReplicaRouter router() throws SQLException {
+        ReplicaRouter r = router;
+        if (r == null) {
+            synchronized (DBConnectionManager.class) {
+                r = router;
+                if (r == null) {
+                    r = createRouter();
+                    router = r;
+                }
             }
         }
+        return r;
+    }
 
-        if (url == null || url.isEmpty()) url = System.getenv("JDBC_URL");
-        if (user == null || user.isEmpty()) user = System.getenv("JDBC_USER");
-        if (pass == null || pass.isEmpty()) pass = System.getenv("JDBC_PASS");
-
-        if (url == null || url.isEmpty() || user == null || user.isEmpty() || pass == null || pass.isEmpty()) {
+    private static ReplicaRouter createRouter() throws SQLException {
+        final AppConfig config;
+        try {
+            config = AppConfig.current();
+        } catch (IllegalStateException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
+        if (!config.hasDatabaseCredentials()) {
             throw new SQLException("Missing database configuration: JDBC_URL, JDBC_USER and JDBC_PASS must be set in .env or environment variables");
         }
 
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
+            Class.forName(config.isEmbeddedDatabase() ? "org.h2.Driver" : "com.mysql.cj.jdbc.Driver");
         } catch (ClassNotFoundException ignored) {}
 
-        return DriverManager.getConnection(url, user, pass);
+        QueryMetrics.configure(config.isDbMetrics(), config.getSlowQueryMillis(), config.getSlowQueryLogSize());
+
+        ConnectionPool primary = newPool("primary", config.getJdbcUrl(), config.getJdbcUser(), config.getJdbcPass(), config);
+        prepareSchema(primary, config);
+
+        List<ConnectionPool> replicas = new ArrayList<>();
+        List<String> replicaUrls = config.getReplicaUrls();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.add(newPool("replica-" + (i + 1), replicaUrls.get(i), config.getReplicaUser(),
+                    config.getReplicaPass(), config));
+        }
+        return new ReplicaRouter(primary, replicas, config.getReplicaStickyMillis());
+    }
+
+    private static ConnectionPool newPool(String name, String url, String user, String pass, AppConfig config) {
+        final Properties props = connectionProperties(url, user, pass);
+        return new ConnectionPool(name, () -> DriverManager.getConnection(url, props), config.getPoolConfig());
+    }
+
+    /**
+     * Apply pending migrations and run the EXPLAIN check on the primary. The embedded database always starts
+     * empty, so it is migrated regardless of DB_MIGRATE and gets the reference rows (roles) the app needs.
+     * A score rollup that a migration has added is filled (or, after an interrupted run, finished) before the first
+     * request reads it.
+     */
+    private static void prepareSchema(ConnectionPool pool, AppConfig config) throws SQLException {
+        try (Connection conn = pool.borrow()) {
+            if (config.isDbMigrate() || config.isEmbeddedDatabase()) {
+                MigrationRunner.migrate(conn);
+                // Leave one connection free: this thread still holds conn.
+                int threads = Math.min(ScoreRollupBackfill.DEFAULT_THREADS, config.getPoolConfig().getMaxSize() - 1);
+                ScoreRollupBackfill.runIfIncomplete(pool::borrow, Math.max(1, threads),
+                        ScoreRollupBackfill.DEFAULT_USERS_PER_CHUNK);
+            }
+            if (config.isEmbeddedDatabase()) {
+                SeedDataGenerator.seedReferenceData(conn);
+                System.out.println("Using embedded database " + config.getJdbcUrl());
+            }
+            if (config.isExplainCheck()) {
+                ExplainCheck.runAndLog(conn);
+            }
+        } catch (SQLException e) {
+            pool.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Driver properties for new physical connections. For MySQL we ask for server-side prepared statements:
+     * the pool's per-connection statement cache keeps them open, so each SQL constant is parsed by the server
+     * once per connection instead of once per call, and for rewritten batches, so the import, answer and rollup
+     * batches reach the server as multi-row inserts. Settings in the JDBC URL take precedence.
+     */
+    private static Properties connectionProperties(String url, String user, String pass) {
+        Properties props = new Properties();
+        props.setProperty("user", user);
+        props.setProperty("password", pass);
+        if (url.startsWith("jdbc:mysql:")) {
+            props.setProperty("useServerPrepStmts", "true");
+            props.setProperty("cachePrepStmts", "false");
+            props.setProperty("rewriteBatchedStatements", "true");
+        }
+        return props;
     }
 }
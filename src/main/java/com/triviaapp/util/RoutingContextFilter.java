@@ -0,0 +1,49 @@
+package com.triviaapp.util;
+
+import com.triviaapp.db.RoutingContext;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+
+/**
+ * Binds a {@link RoutingContext} to the request thread for the length of each request and unbinds it afterwards.
+ * A logged-in client keeps one context in its HTTP session, so reads in the request after a write (e.g. the page
+ * a POST redirects to) still go to the primary; requests without a session get a fresh context.
+ * Registered in web.xml for every URL.
+ */
+public class RoutingContextFilter implements Filter {
+
+    static final String SESSION_ATTRIBUTE = RoutingContext.class.getName();
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        RoutingContext previous = RoutingContext.attach(contextFor(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoutingContext.restore(previous);
+        }
+    }
+
+    private static RoutingContext contextFor(ServletRequest request) {
+        HttpSession session = request instanceof HttpServletRequest
+                ? ((HttpServletRequest) request).getSession(false) : null;
+        if (session == null) {
+            return new RoutingContext();
+        }
+        // Two concurrent first requests of a session may both create one; either is fine.
+        RoutingContext context = (RoutingContext) session.getAttribute(SESSION_ATTRIBUTE);
+        if (context == null) {
+            context = new RoutingContext();
+            session.setAttribute(SESSION_ATTRIBUTE, context);
+        }
+        return context;
+    }
+}
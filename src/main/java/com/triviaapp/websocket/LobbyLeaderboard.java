@@ -0,0 +1,189 @@
+package com.triviaapp.websocket;
+
+import com.triviaapp.model.LeaderboardEntry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A lobby's scores kept in memory as an order-statistic tree, so a score change, a player's rank and the top K
+ * players each cost O(log n) (plus K) however many players the lobby has.
+ *
+ * The tree is a treap ordered by score (highest first) and then participant id, with every node counting the
+ * nodes below it. Ranks follow the SQL leaderboard: 1 + the number of players with a strictly higher score, so
+ * tied players share a rank. All methods are synchronized; answers for one lobby arrive on several threads.
+ */
+final class LobbyLeaderboard {
+
+    private static final class Node {
+        final int participantId;
+        final String username;
+        final int score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(int participantId, String username, int score) {
+            this.participantId = participantId;
+            this.username = username;
+            this.score = score;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final Map<Integer, Node> byParticipant = new HashMap<>();
+    private Node root;
+
+    /** A leaderboard holding {@code entries}, e.g. {@code ModeratedAnswerDAO.getSessionLeaderboard}. */
+    LobbyLeaderboard(List<LeaderboardEntry> entries) {
+        for (LeaderboardEntry e : entries) {
+            put(e.getParticipantId(), e.getUsername(), e.getTotalScore());
+        }
+    }
+
+    /**
+     * Add {@code delta} to the participant's total, entering them with {@code delta} if they have no score yet.
+     *
+     * @return the participant's new total
+     */
+    synchronized int addScore(int participantId, String username, int delta) {
+        Node old = byParticipant.get(participantId);
+        if (old == null) {
+            put(participantId, username, delta);
+            return delta;
+        }
+        root = remove(root, old.score, participantId);
+        put(participantId, old.username, old.score + delta);
+        return old.score + delta;
+    }
+
+    /** The participant's entry with its current rank, or null if they have not scored in this lobby. */
+    synchronized LeaderboardEntry entryOf(int participantId) {
+        Node node = byParticipant.get(participantId);
+        if (node == null) {
+            return null;
+        }
+        return new LeaderboardEntry(participantId, node.username, node.score, countHigher(node.score) + 1);
+    }
+
+    /** The first {@code k} entries, highest score first. */
+    synchronized List<LeaderboardEntry> top(int k) {
+        List<LeaderboardEntry> out = new ArrayList<>(Math.min(k, size(root)));
+        Deque<Node> path = new ArrayDeque<>();
+        Node cur = root;
+        int rank = 0;
+        int previousScore = 0;
+        while (out.size() < k && (cur != null || !path.isEmpty())) {
+            while (cur != null) {
+                path.push(cur);
+                cur = cur.left;
+            }
+            Node node = path.pop();
+            if (out.isEmpty() || node.score != previousScore) {
+                rank = out.size() + 1;
+                previousScore = node.score;
+            }
+            out.add(new LeaderboardEntry(node.participantId, node.username, node.score, rank));
+            cur = node.right;
+        }
+        return out;
+    }
+
+    synchronized int size() {
+        return size(root);
+    }
+
+    private void put(int participantId, String username, int score) {
+        Node node = new Node(participantId, username, score);
+        byParticipant.put(participantId, node);
+        Node[] parts = split(root, score, participantId);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    /** Number of players with a score strictly above {@code score}. */
+    private int countHigher(int score) {
+        int count = 0;
+        Node cur = root;
+        while (cur != null) {
+            if (cur.score > score) {
+                count += size(cur.left) + 1;
+                cur = cur.right;
+            } else {
+                cur = cur.left;
+            }
+        }
+        return count;
+    }
+
+    /** Tree order: higher score first, then lower participant id. */
+    private static int compare(int score, int participantId, Node node) {
+        if (score != node.score) {
+            return score > node.score ? -1 : 1;
+        }
+        return Integer.compare(participantId, node.participantId);
+    }
+
+    /** Splits {@code t} into the nodes ordered before (score, participantId) and the rest. */
+    private static Node[] split(Node t, int score, int participantId) {
+        if (t == null) {
+            return new Node[2];
+        }
+        if (compare(score, participantId, t) > 0) {
+            Node[] parts = split(t.right, score, participantId);
+            t.right = parts[0];
+            update(t);
+            parts[0] = t;
+            return parts;
+        }
+        Node[] parts = split(t.left, score, participantId);
+        t.left = parts[1];
+        update(t);
+        parts[1] = t;
+        return parts;
+    }
+
+    /** Joins two treaps where every node of {@code a} orders before every node of {@code b}. */
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static Node remove(Node t, int score, int participantId) {
+        if (t == null) {
+            return null;
+        }
+        int c = compare(score, participantId, t);
+        if (c == 0) {
+            return merge(t.left, t.right);
+        }
+        if (c < 0) {
+            t.left = remove(t.left, score, participantId);
+        } else {
+            t.right = remove(t.right, score, participantId);
+        }
+        update(t);
+        return t;
+    }
+
+    private static void update(Node t) {
+        t.size = size(t.left) + size(t.right) + 1;
+    }
+
+    private static int size(Node t) {
+        return t == null ? 0 : t.size;
+    }
+}
@@ -1,15 +1,26 @@
 package com.triviaapp.websocket;
 
+import com.triviaapp.cache.AnswerKeyIndex;
 import com.triviaapp.dao.*;
 import com.triviaapp.dao.impl.*;
+import com.triviaapp.db.RoutingContext;
+import com.triviaapp.model.Answer;
+import com.triviaapp.model.LeaderboardEntry;
+import com.triviaapp.model.Question;
+import com.triviaapp.model.SessionQuestion;
+import com.triviaapp.service.AnswerIngestionPipeline;
 import jakarta.websocket.*;
 import jakarta.websocket.server.ServerEndpoint;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * WebSocket endpoint for handling real-time quiz interactions.
@@ -21,9 +32,7 @@ public class QuizWebSocket {
 
     // --- DAO dependencies for DB interaction ---
     private static final SessionDAO sessionDAO = new SessionDAOImpl();              // Handles quiz session state
-    private static final QuestionDAO questionDAO = new QuestionDAOImpl();           // Fetches question data
-    private static final CategoryDAO categoryDAO = new CategoryDAOImpl();           // Retrieves category names
-    private static final ModeratedAnswerDAO moderatedAnswerDAO = new ModeratedAnswerDAOImpl(); // Stores and validates answers
+    private static final ModeratedAnswerDAO moderatedAnswerDAO = new ModeratedAnswerDAOImpl(); // Loads lobby scores
 
     // --- WebSocket session tracking structures ---
     private static final Map<Integer, Set<Session>> lobbySessions = new ConcurrentHashMap<>();
@@ -38,6 +47,16 @@ public class QuizWebSocket {
     private static final Map<Integer, Integer> lobbyCurrentQuestion = new ConcurrentHashMap<>();
     // Maps lobby_id → current question index in that session
 
+    private static final Map<Integer, CompletableFuture<List<SessionQuestion>>> lobbyQuestionPacks = new ConcurrentHashMap<>();
+    // Maps lobby_id → the session's questions with category names, loaded once when the first player joins
+
+    private static final Map<Integer, CompletableFuture<AnswerKeyIndex>> lobbyAnswerKeys = new ConcurrentHashMap<>();
+    // Maps lobby_id → canonical answer keys and points of those questions, for scoring without a query
+
+    private static final Map<Integer, CompletableFuture<LobbyLeaderboard>> lobbyLeaderboards = new ConcurrentHashMap<>();
+    // Maps lobby_id → in-memory scores, rebuilt from the database when the first player joins
+
+    private static final int LEADERBOARD_TOP = 10;  // rows sent to every player after each answer
 
     /** Called when a new client connects to the WebSocket */
     @OnOpen
@@ -48,6 +67,15 @@ public class QuizWebSocket {
     /** Called when a message is received from a client */
     @OnMessage
     public void onMessage(Session session, String message) throws IOException {
+        RoutingContext previous = RoutingContext.attach(routingContext(session));
+        try {
+            handleMessage(session, message);
+        } finally {
+            RoutingContext.restore(previous);
+        }
+    }
+
+    private void handleMessage(Session session, String message) throws IOException {
         JSONObject msg = new JSONObject(message);
         String type = msg.getString("type");
         Integer lobbyId = msg.has("lobbyId") ? msg.getInt("lobbyId") : sessionLobbyMap.get(session);
@@ -61,6 +89,8 @@ public class QuizWebSocket {
                 lobbySessions.get(lobbyId).add(session);
                 sessionLobbyMap.put(session, lobbyId);
                 sessionUserMap.put(session, new Object[]{userId, username});
+                answerKeys(lobbyId);          // Start loading the question pack and answer keys before the first "next"
+                leaderboard(lobbyId);         // ...and the scores before the first answer
                 broadcastLobbyInfo(lobbyId);  // Update others that a new player joined
                 break;
 
@@ -85,6 +115,15 @@ public class QuizWebSocket {
     /** Called when a client disconnects */
     @OnClose
     public void onClose(Session session) {
+        RoutingContext previous = RoutingContext.attach(routingContext(session));
+        try {
+            handleClose(session);
+        } finally {
+            RoutingContext.restore(previous);
+        }
+    }
+
+    private void handleClose(Session session) {
         Integer lobbyId = sessionLobbyMap.get(session);
         Object[] userInfo = sessionUserMap.get(session);
         if (userInfo == null) return;
@@ -92,8 +131,14 @@ public class QuizWebSocket {
         int participantId = (int) userInfo[0];
 
         if (lobbyId != null) {
-            // Remove session from the lobby set
-            lobbySessions.getOrDefault(lobbyId, Set.of()).remove(session);
+            // Remove session from the lobby set; the last one out drops the lobby's questions, keys and scores
+            Set<Session> remaining = lobbySessions.getOrDefault(lobbyId, Set.of());
+            remaining.remove(session);
+            if (remaining.isEmpty()) {
+                lobbyQuestionPacks.remove(lobbyId);
+                lobbyAnswerKeys.remove(lobbyId);
+                lobbyLeaderboards.remove(lobbyId);
+            }
             try {
                 // Remove user from DB session table
                 sessionDAO.leaveSession(lobbyId, participantId);
@@ -111,6 +156,12 @@ public class QuizWebSocket {
         System.out.println("WebSocket closed: " + session.getId());
     }
 
+    /** The socket's read-your-writes state, kept for the life of the connection. */
+    private static RoutingContext routingContext(Session session) {
+        return (RoutingContext) session.getUserProperties()
+                .computeIfAbsent(RoutingContext.class.getName(), k -> new RoutingContext());
+    }
+
     /** Called when an error occurs in the WebSocket */
     @OnError
     public void onError(Session session, Throwable throwable) {
@@ -119,31 +170,35 @@ public class QuizWebSocket {
 
     /** Move to the next question in the lobby and broadcast it */
     private void handleNextQuestion(Integer lobbyId) {
-        try {
-            Integer newIndex = sessionDAO.incrementAndGetCurrentIndex(lobbyId);
-            if (newIndex != null) {
-                sendQuestionToLobby(lobbyId, newIndex);
-                lobbyCurrentQuestion.put(lobbyId, newIndex);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        sessionDAO.incrementAndGetCurrentIndexAsync(lobbyId)
+                .thenCompose(newIndex -> showQuestion(lobbyId, newIndex))
+                .exceptionally(QuizWebSocket::logFailure);
     }
 
     /** Move to the previous question in the lobby and broadcast it */
     private void handlePrevQuestion(Integer lobbyId) {
-        try {
-            Integer newIndex = sessionDAO.decrementAndGetCurrentIndex(lobbyId);
-            if (newIndex != null) {
-                sendQuestionToLobby(lobbyId, newIndex);
-                lobbyCurrentQuestion.put(lobbyId, newIndex);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        sessionDAO.decrementAndGetCurrentIndexAsync(lobbyId)
+                .thenCompose(newIndex -> showQuestion(lobbyId, newIndex))
+                .exceptionally(QuizWebSocket::logFailure);
+    }
+
+    private CompletableFuture<Void> showQuestion(Integer lobbyId, Integer newIndex) {
+        if (newIndex == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        lobbyCurrentQuestion.put(lobbyId, newIndex);
+        return sendQuestionToLobby(lobbyId, newIndex);
     }
 
-    /** Process and store a player's submitted answer */
+    /**
+     * Process and store a player's submitted answer. Runs on the DAO executor so the container thread is free
+     * while the database works. The answer is scored against the lobby's {@link AnswerKeyIndex}, without a query,
+     * and written by the {@link AnswerIngestionPipeline} together with the
+     * other answers arriving at the same moment; once that commit is done the player gets an {@code "answerAck"}
+     * (or an {@code "answerRejected"} if it could not be stored), and the score goes into the lobby's in-memory
+     * leaderboard, which then gives every player the top {@value #LEADERBOARD_TOP} and their own rank without a
+     * query.
+     */
     private void handlePlayerAnswer(Session session, Integer lobbyId, String answer) {
         Object[] userInfo = sessionUserMap.get(session);
         if (userInfo == null) return;
@@ -153,61 +208,132 @@ public class QuizWebSocket {
 
         System.out.println("Player " + username + " answered: " + answer + " in lobby " + lobbyId);
 
-        try {
-            // Identify the question currently being answered
-            int currentQuestionId = getCurrentQuestionId(lobbyId);
-
-            // Check correctness and calculate score
-            boolean isCorrect = moderatedAnswerDAO.isAnswerCorrect(currentQuestionId, answer);
-            Map<String, String> questionData = questionDAO.findQuestionById(currentQuestionId);
-            int questionPoints = Integer.parseInt(questionData.get("points"));
-            int score = isCorrect ? questionPoints : 0;
-
-            // Store the moderated answer in DB
-            moderatedAnswerDAO.createModeratedAnswer(lobbyId, currentQuestionId, participantId, answer, isCorrect, score);
-
-            // Get updated leaderboard and broadcast it to all clients
-            List<Map<String, String>> leaderboard = moderatedAnswerDAO.getSessionLeaderboard(lobbyId);
-            broadcastLeaderboard(lobbyId, leaderboard);
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        // The scores must be loaded before this answer is inserted, or the load could count it a second time
+        CompletableFuture<LobbyLeaderboard> board = leaderboard(lobbyId);
+
+        // Identify the question currently being answered
+        currentQuestion(lobbyId)
+                .thenCombine(answerKeys(lobbyId), (current, keys) -> {
+                    if (current == null) {
+                        throw new IllegalStateException("Lobby " + lobbyId + " has no current question");
+                    }
+                    // Check correctness and calculate score in memory
+                    int currentQuestionId = current.getQuestion().getQuestionId();
+                    boolean isCorrect = keys.isCorrect(currentQuestionId, answer);
+                    return new Answer(0, lobbyId, currentQuestionId, participantId, answer, isCorrect,
+                            isCorrect ? keys.points(currentQuestionId) : 0, null);
+                })
+                .thenCombine(board, (scored, loaded) -> scored)
+                // Queue the moderated answer for the next group commit. Async: submit may wait for queue space
+                // and must not hold a DAO slot meanwhile.
+                .thenComposeAsync(AnswerIngestionPipeline::submit, DaoExecutor.executor())
+                // Acknowledge the committed answer, apply its score and broadcast the new standings to all clients
+                .thenAcceptBoth(board, (stored, leaderboard) -> {
+                    int total = leaderboard.addScore(participantId, username, stored.getScore());
+                    JSONObject ack = new JSONObject();
+                    ack.put("type", "answerAck");
+                    ack.put("question_id", stored.getQuestionId());
+                    ack.put("correct", stored.isCorrect());
+                    ack.put("score", stored.getScore());
+                    ack.put("total_score", total);
+                    sendToSession(session, ack.toString());
+                    broadcastLeaderboard(lobbyId, leaderboard);
+                })
+                .exceptionally(t -> {
+                    JSONObject rejected = new JSONObject();
+                    rejected.put("type", "answerRejected");
+                    rejected.put("busy", unwrap(t) instanceof AnswerIngestionPipeline.QueueFullException);
+                    sendToSession(session, rejected.toString());
+                    return logFailure(t);
+                });
     }
 
-    /** Sends a question payload to all players in the given lobby */
-    private void sendQuestionToLobby(Integer lobbyId, int questionIndex) {
-        try {
-            List<Integer> questionIds = sessionDAO.findQuestionIdsForSession(lobbyId);
-            if (questionIndex < 0 || questionIndex >= questionIds.size()) return;
-
-            int questionId = questionIds.get(questionIndex);
-            Map<String, String> qData = questionDAO.findQuestionById(questionId);
-            if (qData == null) return;
-
+    /** Sends a question payload to all players in the given lobby; served from the lobby's question pack */
+    private CompletableFuture<Void> sendQuestionToLobby(Integer lobbyId, int questionIndex) {
+        return questionPack(lobbyId).thenAccept(pack -> {
+            if (questionIndex < 0 || questionIndex >= pack.size()) {
+                return;
+            }
+            SessionQuestion current = pack.get(questionIndex);
+            Question qData = current.getQuestion();
             JSONObject payload = new JSONObject();
             payload.put("type", "question");
             payload.put("index", questionIndex);
-            payload.put("category_name",
-                    categoryDAO.findCategoryNameById(Integer.parseInt(qData.get("category_id"))));
-            payload.put("question_text", qData.get("question_text"));
-            payload.put("answer_option", qData.get("answer_option"));
-            payload.put("points", qData.get("points"));
-            payload.put("youtube_url", qData.get("youtube_url"));
+            payload.put("category_name", current.getCategoryName());
+            payload.put("question_text", qData.getQuestionText());
+            payload.put("answer_option", qData.getAnswersOption());
+            payload.put("points", qData.getPoints());
+            payload.put("youtube_url", qData.getYoutubeUrl());
 
             broadcastToLobby(lobbyId, payload.toString());
+        });
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    /** The question at the lobby's current index, or null when the index is outside the question list. */
+    private CompletableFuture<SessionQuestion> currentQuestion(Integer lobbyId) {
+        return sessionDAO.getCurrentIndexAsync(lobbyId).thenCombine(questionPack(lobbyId),
+                (currentIndex, pack) -> {
+                    if (currentIndex == null || currentIndex < 0 || currentIndex >= pack.size()) return null;
+                    return pack.get(currentIndex);
+                });
+    }
+
+    /**
+     * The lobby's questions, loaded with one query the first time they are needed and kept until the lobby
+     * empties. A session's question list does not change once it is created.
+     */
+    private static CompletableFuture<List<SessionQuestion>> questionPack(Integer lobbyId) {
+        return loadOnce(lobbyQuestionPacks, lobbyId, () -> sessionDAO.findSessionQuestionPackAsync(lobbyId));
+    }
+
+    /** Answer keys of the lobby's question pack, built once per pack. */
+    private static CompletableFuture<AnswerKeyIndex> answerKeys(Integer lobbyId) {
+        return loadOnce(lobbyAnswerKeys, lobbyId, () -> questionPack(lobbyId).thenApply(AnswerKeyIndex::new));
+    }
+
+    /**
+     * The lobby's scores, rebuilt from the session's stored answers the first time they are needed and then kept
+     * up to date by {@link #handlePlayerAnswer} until the lobby empties. Read from the primary: a lagging replica
+     * would leave out answers that are never added again.
+     */
+    private static CompletableFuture<LobbyLeaderboard> leaderboard(Integer lobbyId) {
+        return loadOnce(lobbyLeaderboards, lobbyId,
+                () -> moderatedAnswerDAO.getSessionLeaderboardFromPrimaryAsync(lobbyId).thenApply(LobbyLeaderboard::new));
+    }
+
+    /**
+     * The lobby's entry in {@code loaded}, starting {@code loader} if there is none yet. Concurrent callers share
+     * one load; a failed load is forgotten so the next caller retries.
+     */
+    private static <T> CompletableFuture<T> loadOnce(Map<Integer, CompletableFuture<T>> loaded, Integer lobbyId,
+                                                     Supplier<CompletableFuture<T>> loader) {
+        CompletableFuture<T> existing = loaded.get(lobbyId);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        existing = loaded.putIfAbsent(lobbyId, mine);
+        if (existing != null) {
+            return existing;
         }
+        loader.get().whenComplete((value, failure) -> {
+            if (failure != null) {
+                loaded.remove(lobbyId, mine);
+                mine.completeExceptionally(failure);
+            } else {
+                mine.complete(value);
+            }
+        });
+        return mine;
     }
 
-    /** Retrieves the current question ID for a given lobby */
-    private int getCurrentQuestionId(Integer lobbyId) throws SQLException {
-        Integer currentIndex = sessionDAO.getCurrentIndex(lobbyId);
-        List<Integer> questionIds = sessionDAO.findQuestionIdsForSession(lobbyId);
-        if (currentIndex == null || questionIds.isEmpty()) return -1;
-        return questionIds.get(currentIndex);
+    private static Void logFailure(Throwable t) {
+        unwrap(t).printStackTrace();
+        return null;
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
     }
 
     /** Broadcasts player count and lobby info to everyone in the lobby */
@@ -218,13 +344,36 @@ public class QuizWebSocket {
         broadcastToLobby(lobbyId, payload.toString());
     }
 
-    /** Broadcasts the current leaderboard to all players in the lobby */
-    private void broadcastLeaderboard(Integer lobbyId, List<Map<String, String>> leaderboard) {
-        JSONObject payload = new JSONObject();
-        payload.put("type", "leaderboard");
-        payload.put("lobbyId", lobbyId);
-        payload.put("leaderboard", leaderboard);
-        broadcastToLobby(lobbyId, payload.toString());
+    /**
+     * Sends every player in the lobby the top {@value #LEADERBOARD_TOP} rows plus their own row ({@code "me"}, null
+     * until they have answered).
+     */
+    private void broadcastLeaderboard(Integer lobbyId, LobbyLeaderboard leaderboard) {
+        JSONArray rows = new JSONArray();
+        for (LeaderboardEntry entry : leaderboard.top(LEADERBOARD_TOP)) {
+            rows.put(toJson(entry));
+        }
+        int players = leaderboard.size();
+        for (Session s : lobbySessions.getOrDefault(lobbyId, Set.of())) {
+            Object[] userInfo = sessionUserMap.get(s);
+            LeaderboardEntry me = userInfo == null ? null : leaderboard.entryOf((int) userInfo[0]);
+            JSONObject payload = new JSONObject();
+            payload.put("type", "leaderboard");
+            payload.put("lobbyId", lobbyId);
+            payload.put("leaderboard", rows);
+            payload.put("players", players);
+            payload.put("me", me == null ? JSONObject.NULL : toJson(me));
+            sendToSession(s, payload.toString());
+        }
+    }
+
+    private static JSONObject toJson(LeaderboardEntry entry) {
+        JSONObject row = new JSONObject();
+        row.put("participant_id", entry.getParticipantId());
+        row.put("username", entry.getUsername());
+        row.put("total_score", entry.getTotalScore());
+        row.put("rank_pos", entry.getRank());
+        return row;
     }
 
     /** Sends a message to all connected sessions in a lobby */
@@ -232,12 +381,19 @@ public class QuizWebSocket {
         Set<Session> sessions = lobbySessions.get(lobbyId);
         if (sessions != null) {
             for (Session s : sessions) {
-                try {
-                    s.getBasicRemote().sendText(message);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+                sendToSession(s, message);
             }
         }
     }
+
+    private static void sendToSession(Session s, String message) {
+        try {
+            // Broadcasts now come from DAO executor threads too; a basic remote allows one send at a time.
+            synchronized (s) {
+                s.getBasicRemote().sendText(message);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 }